@@ -0,0 +1,49 @@
+package ch.teemoo.bobby;
+
+import static ch.teemoo.bobby.helpers.ColorHelper.swap;
+
+import java.util.List;
+
+import ch.teemoo.bobby.models.games.Game;
+import ch.teemoo.bobby.models.moves.Move;
+import ch.teemoo.bobby.models.players.Human;
+import ch.teemoo.bobby.services.MoveService;
+import ch.teemoo.bobby.services.PortableGameNotationService;
+
+// Positions of the benchmarks, taken from the same game at several phases
+public enum BenchmarkPosition {
+	OPENING(8),
+	MIDDLEGAME(44),
+	ENDGAME(70);
+
+	public final static String PGN = "[Event \"F/S Return Match\"]\n" + "[Site \"Belgrade, Serbia JUG\"]\n"
+		+ "[Date \"1992.11.04\"]\n" + "[Round \"29\"]\n" + "[White \"Fischer, Robert J.\"]\n"
+		+ "[Black \"Spassky, Boris V.\"]\n" + "[Result \"1/2-1/2\"]\n" + "\n"
+		+ "1. e4 e5 2. Nf3 Nc6 3. Bb5 a6 {This opening is called the Ruy Lopez.}\n"
+		+ "4. Ba4 Nf6 5. O-O Be7 6. Re1 b5 7. Bb3 d6 8. c3 O-O 9. h3 Nb8 10. d4 Nbd7\n"
+		+ "11. c4 c6 12. cxb5 axb5 13. Nc3 Bb7 14. Bg5 b4 15. Nb1 h6 16. Bh4 c5 17. dxe5\n"
+		+ "Nxe4 18. Bxe7 Qxe7 19. exd6 Qf6 20. Nbd2 Nxd6 21. Nc4 Nxc4 22. Bxc4 Nb6\n"
+		+ "23. Ne5 Rae8 24. Bxf7+ Rxf7 25. Nxf7 Rxe1+ 26. Qxe1 Kxf7 27. Qe3 Qg5 28. Qxg5\n"
+		+ "hxg5 29. b3 Ke6 30. a3 Kd6 31. axb4 cxb4 32. Ra5 Nd5 33. f3 Bc8 34. Kf2 Bf5\n"
+		+ "35. Ra7 g6 36. Ra6+ Kc5 37. Ke1 Nf4 38. g3 Nxh3 39. Kd2 Kb5 40. Rd6 Kc5 41. Ra6\n"
+		+ "Nf2 42. g4 Bd3 43. Re6 1/2-1/2";
+
+	private final int plies;
+
+	BenchmarkPosition(int plies) {
+		this.plies = plies;
+	}
+
+	// New game where the first plies of the reference one have been played
+	public Game toGame(MoveService moveService) {
+		Game fullGame = new PortableGameNotationService(moveService).readPgnFile(PGN.lines().toList());
+		List<Move> moves = fullGame.getHistory().subList(0, plies);
+		Game game = new Game(new Human("white"), new Human("black"));
+		for (Move move : moves) {
+			game.getBoard().doMove(move);
+			game.addMoveToHistory(move);
+			game.setToPlay(swap(game.getToPlay()));
+		}
+		return game;
+	}
+}
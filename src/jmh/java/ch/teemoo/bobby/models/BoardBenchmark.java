@@ -0,0 +1,71 @@
+package ch.teemoo.bobby.models;
+
+import java.util.concurrent.TimeUnit;
+
+import ch.teemoo.bobby.BenchmarkPosition;
+import ch.teemoo.bobby.models.games.Game;
+import ch.teemoo.bobby.models.moves.Move;
+import ch.teemoo.bobby.services.MoveService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+	@Param
+	private BenchmarkPosition position;
+
+	private Board board;
+	private Move move;
+	private BitBoard bitBoard;
+	private int packedMove;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		MoveService moveService = new MoveService();
+		Game game = position.toGame(moveService);
+		board = game.getBoard();
+		move = moveService.computeAllMoves(board, game.getToPlay(), true).get(0);
+		bitBoard = BitBoard.fromBoard(board, game.getToPlay(), game.getHistory());
+		packedMove = BitBoard.toPackedMove(move);
+	}
+
+	@Benchmark
+	public Board copy() {
+		return board.copy();
+	}
+
+	// The move is undone each time, so that the board stays the same between the invocations
+	@Benchmark
+	public Board doMoveUndoMove() {
+		board.doMove(move);
+		board.undoMove(move);
+		return board;
+	}
+
+	@Benchmark
+	public BitBoard copyBitBoard() {
+		return bitBoard.copy();
+	}
+
+	@Benchmark
+	public BitBoard doMoveUndoMoveBitBoard() {
+		bitBoard.doMove(packedMove);
+		bitBoard.undoMove(packedMove);
+		return bitBoard;
+	}
+}
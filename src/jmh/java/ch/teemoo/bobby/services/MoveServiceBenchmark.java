@@ -0,0 +1,94 @@
+package ch.teemoo.bobby.services;
+
+import static ch.teemoo.bobby.helpers.ColorHelper.swap;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import ch.teemoo.bobby.BenchmarkPosition;
+import ch.teemoo.bobby.models.BitBoard;
+import ch.teemoo.bobby.models.Board;
+import ch.teemoo.bobby.models.Color;
+import ch.teemoo.bobby.models.Position;
+import ch.teemoo.bobby.models.games.Game;
+import ch.teemoo.bobby.models.games.GameState;
+import ch.teemoo.bobby.models.moves.Move;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveServiceBenchmark {
+	@Param
+	private BenchmarkPosition position;
+
+	private final MoveService moveService = new MoveService();
+	private final int[] moves = new int[256];
+	private Board board;
+	private List<Move> history;
+	private Color color;
+	private Position kingPosition;
+	private Position opponentKingPosition;
+	private BitBoard bitBoard;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		Game game = position.toGame(moveService);
+		board = game.getBoard();
+		history = game.getHistory();
+		color = game.getToPlay();
+		kingPosition = moveService.findKingPosition(board, color).orElseThrow();
+		opponentKingPosition = moveService.findKingPosition(board, swap(color)).orElseThrow();
+		bitBoard = BitBoard.fromBoard(board, color, history);
+	}
+
+	@Benchmark
+	public List<Move> computeAllMoves() {
+		return moveService.computeAllMoves(board, color, true);
+	}
+
+	@Benchmark
+	public int computeAllMovesBitBoard() {
+		return moveService.computeAllMoves(bitBoard, moves);
+	}
+
+	@Benchmark
+	public Position findKingPosition() {
+		return moveService.findKingPosition(board, color).orElseThrow();
+	}
+
+	@Benchmark
+	public boolean isInCheck() {
+		return moveService.isInCheck(board, color);
+	}
+
+	@Benchmark
+	public boolean isInCheckBitBoard() {
+		return moveService.isInCheck(bitBoard, color);
+	}
+
+	@Benchmark
+	public int evaluateBoard() {
+		return moveService.evaluateBoard(board, color, color, GameState.IN_PROGRESS, opponentKingPosition,
+			kingPosition, history);
+	}
+
+	@Benchmark
+	public int evaluateBoardBitBoard() {
+		return moveService.evaluateBoard(bitBoard, color, color, GameState.IN_PROGRESS);
+	}
+}
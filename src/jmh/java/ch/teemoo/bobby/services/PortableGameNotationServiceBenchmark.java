@@ -0,0 +1,33 @@
+package ch.teemoo.bobby.services;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import ch.teemoo.bobby.BenchmarkPosition;
+import ch.teemoo.bobby.models.games.Game;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PortableGameNotationServiceBenchmark {
+	private final PortableGameNotationService portableGameNotationService =
+		new PortableGameNotationService(new MoveService());
+	private final List<String> lines = BenchmarkPosition.PGN.lines().toList();
+
+	@Benchmark
+	public Game readPgnFile() {
+		return portableGameNotationService.readPgnFile(lines);
+	}
+}
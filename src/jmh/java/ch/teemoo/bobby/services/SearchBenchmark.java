@@ -0,0 +1,53 @@
+package ch.teemoo.bobby.services;
+
+import java.util.concurrent.TimeUnit;
+
+import ch.teemoo.bobby.BenchmarkPosition;
+import ch.teemoo.bobby.models.SearchSettings;
+import ch.teemoo.bobby.models.games.Game;
+import ch.teemoo.bobby.models.moves.Move;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+	@Param
+	private BenchmarkPosition position;
+
+	@Param({"3"})
+	private int depth;
+
+	private final MoveService moveService = new MoveService();
+	private Game game;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		game = position.toGame(moveService);
+	}
+
+	// Each search starts from an empty transposition table, so that all of them do the same work
+	@Setup(Level.Invocation)
+	public void clearTranspositionTable() {
+		moveService.getTranspositionTable().clear();
+	}
+
+	@Benchmark
+	public Move selectMove() {
+		return moveService.selectMove(game, depth, null, SearchSettings.DEFAULT);
+	}
+}
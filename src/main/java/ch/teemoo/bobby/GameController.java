@@ -162,7 +162,7 @@ public class GameController {
 		}
 
 		List<Move> matchingMoves = moveService
-			.computeMoves(board, move.getPiece(), move.getFromX(), move.getFromY(), game.getHistory(), true, false)
+			.computeMoves(board, move.getPiece(), move.getFromX(), move.getFromY(), true, false)
 			.stream().filter(m -> m.equalsForPositions(move)).collect(Collectors.toList());
 		Move allowedMove = getAllowedMove(move, player, matchingMoves);
 		// We use allowedMove instead of given move since it contains additional info like taking and check
@@ -183,13 +183,13 @@ public class GameController {
 				promotedPiece = ((PromotionMove) move).getPromotedPiece();
 			} else {
 				if (player.isBot()) {
-					promotedPiece = new Queen(move.getPiece().getColor());
+					promotedPiece = Queen.of(move.getPiece().getColor());
 				} else {
 					promotedPiece = view.promotionDialog(move.getPiece().getColor());
 				}
 			}
 			allowedMoves = matchingMoves.stream()
-				.filter(m -> ((PromotionMove) m).getPromotedPiece().getClass().equals(promotedPiece.getClass()))
+				.filter(m -> ((PromotionMove) m).getPromotedPiece() == promotedPiece)
 				.collect(Collectors.toList());
 		} else {
 			allowedMoves = matchingMoves;
@@ -337,7 +337,7 @@ public class GameController {
 					markSquareClickable(square);
 					square.setBorder(RED_BORDER);
 					List<Move> moves = moveService.computeMoves(board, square.getPiece(), square.getPosition().getX(),
-						square.getPosition().getY(), game.getHistory(), true, false);
+						square.getPosition().getY(), true, false);
 					for (Move move : moves) {
 						Square destination = view.getSquares()[move.getToY()][move.getToX()];
 						destination.setBorder(BLUE_BORDER);
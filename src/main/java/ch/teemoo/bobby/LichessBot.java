@@ -32,6 +32,9 @@ public class LichessBot implements Runnable {
 
 		Runtime.getRuntime().addShutdownHook(new Thread(eventHandler::clean));
 
+		// Before the first game, which would otherwise wait for it
+		botFactory.calibrate();
+
 		eventHandler.start();
 	}
 
@@ -0,0 +1,80 @@
+package ch.teemoo.bobby;
+
+import java.util.Map;
+
+import ch.teemoo.bobby.models.BitBoard;
+import ch.teemoo.bobby.services.MoveService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Counts the leaf nodes of the moves tree of the reference positions, to check the moves generation and measure its
+// speed apart from the search. Usage: Perft [depth] [position], the position being one of PerftPosition to divide
+// its count by root move.
+public class Perft {
+	private final static Logger logger = LoggerFactory.getLogger(Perft.class);
+	private final static int DEFAULT_DEPTH = 4;
+
+	private final MoveService moveService;
+
+	public Perft(MoveService moveService) {
+		this.moveService = moveService;
+	}
+
+	public static void main(String[] args) {
+		final int depth = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_DEPTH;
+		Perft perft = new Perft(new MoveService());
+		if (args.length > 1) {
+			perft.divide(PerftPosition.valueOf(args[1].toUpperCase()), depth);
+		} else if (!perft.runSuite(depth)) {
+			System.exit(1);
+		}
+	}
+
+	// Runs all the reference positions up to the given depth at most, and tells whether all counts are the expected
+	public boolean runSuite(int maxDepth) {
+		boolean isSuccess = true;
+		long totalNodes = 0;
+		long totalNanos = 0;
+		for (PerftPosition position : PerftPosition.values()) {
+			final int depth = Math.min(maxDepth, position.getMaxDepth());
+			final long start = System.nanoTime();
+			final long nodes = perft(position, depth);
+			totalNanos += System.nanoTime() - start;
+			totalNodes += nodes;
+			if (nodes != position.getExpectedNodes(depth)) {
+				logger.error("Perft of {} at depth {}: {} nodes instead of {}", position, depth, nodes,
+					position.getExpectedNodes(depth));
+				isSuccess = false;
+			}
+		}
+		logger.info("Perft suite: {} nodes in {} ms ({} nodes/s)", totalNodes, totalNanos / 1_000_000,
+			getNodesPerSecond(totalNodes, totalNanos));
+		return isSuccess;
+	}
+
+	public long perft(PerftPosition position, int depth) {
+		final BitBoard bitBoard = position.toBitBoard();
+		final long start = System.nanoTime();
+		final long nodes = moveService.perft(bitBoard, depth);
+		final long nanos = System.nanoTime() - start;
+		logger.info("Perft of {} at depth {}: {} nodes in {} ms ({} nodes/s)", position, depth, nodes,
+			nanos / 1_000_000, getNodesPerSecond(nodes, nanos));
+		return nodes;
+	}
+
+	public Map<String, Long> divide(PerftPosition position, int depth) {
+		final BitBoard bitBoard = position.toBitBoard();
+		final long start = System.nanoTime();
+		final Map<String, Long> nodesByMove = moveService.divide(bitBoard, depth);
+		final long nanos = System.nanoTime() - start;
+		nodesByMove.forEach((move, nodes) -> logger.info("{}: {}", move, nodes));
+		final long nodes = nodesByMove.values().stream().mapToLong(Long::longValue).sum();
+		logger.info("Perft of {} at depth {}: {} moves, {} nodes in {} ms ({} nodes/s)", position, depth,
+			nodesByMove.size(), nodes, nanos / 1_000_000, getNodesPerSecond(nodes, nanos));
+		return nodesByMove;
+	}
+
+	private static long getNodesPerSecond(long nodes, long nanos) {
+		return nanos == 0 ? 0 : nodes * 1_000_000_000L / nanos;
+	}
+}
@@ -202,7 +202,7 @@ public class BoardView extends JFrame implements IBoardView {
 
         JLabel computerLabel = new JLabel("Computer level");
         setBoldAndBorder(computerLabel);
-        JSlider levelSlider = getLevelSlider();
+        JSlider levelSlider = getLevelSlider(botFactory.getMaxLevel());
         JCheckBox openingsCheckBox = new JCheckBox("Use openings", true);
         JCheckBox timeoutCheckBox = new JCheckBox("Limit computation time to (seconds)", false);
         JSpinner timeoutSpinner = new JSpinner(new SpinnerNumberModel(5, 1, 30, 1));
@@ -292,13 +292,13 @@ public class BoardView extends JFrame implements IBoardView {
 
         Piece piece;
         if (rookRadioButton.isSelected()) {
-            piece = new Rook(color);
+            piece = Rook.of(color);
         } else if (bishopRadioButton.isSelected()) {
-            piece = new Bishop(color);
+            piece = Bishop.of(color);
         } else if (knightRadioButton.isSelected()) {
-            piece = new Knight(color);
+            piece = Knight.of(color);
         } else {
-            piece = new Queen(color);
+            piece = Queen.of(color);
         }
         return piece;
     }
@@ -316,8 +316,9 @@ public class BoardView extends JFrame implements IBoardView {
         JOptionPane.showMessageDialog(this, message, "Error", JOptionPane.ERROR_MESSAGE);
     }
 
-    private JSlider getLevelSlider() {
-        JSlider levelSlider = new JSlider(JSlider.HORIZONTAL, 0, 3, 3);
+    private JSlider getLevelSlider(int maxLevel) {
+        // The random bot comes first, then the levels of the other bots
+        JSlider levelSlider = new JSlider(JSlider.HORIZONTAL, 0, maxLevel + 1, 3);
         levelSlider.setMajorTickSpacing(1);
         levelSlider.setPaintTicks(true);
         levelSlider.setPaintLabels(true);
@@ -326,6 +327,7 @@ public class BoardView extends JFrame implements IBoardView {
         labelTable.put(1, new JLabel("Easy"));
         labelTable.put(2, new JLabel("Medium"));
         labelTable.put(3, new JLabel("Good"));
+        labelTable.put(maxLevel + 1, new JLabel("Master"));
         levelSlider.setLabelTable(labelTable);
         return levelSlider;
     }
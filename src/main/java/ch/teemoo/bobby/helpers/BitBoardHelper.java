@@ -0,0 +1,246 @@
+package ch.teemoo.bobby.helpers;
+
+import static ch.teemoo.bobby.models.Board.SIZE;
+
+public class BitBoardHelper {
+	public final static long FILE_A = 0x0101010101010101L;
+	public final static long FILE_B = FILE_A << 1;
+	public final static long FILE_G = FILE_A << 6;
+	public final static long FILE_H = FILE_A << 7;
+	public final static long RANK_1 = 0xFFL;
+	public final static long RANK_8 = RANK_1 << 56;
+
+	private final static long NOT_FILE_A = ~FILE_A;
+	private final static long NOT_FILE_AB = ~(FILE_A | FILE_B);
+	private final static long NOT_FILE_H = ~FILE_H;
+	private final static long NOT_FILE_GH = ~(FILE_G | FILE_H);
+
+	private final static long[] KNIGHT_ATTACKS = new long[SIZE * SIZE];
+	private final static long[] KING_ATTACKS = new long[SIZE * SIZE];
+	private final static long[] WHITE_PAWN_ATTACKS = new long[SIZE * SIZE];
+	private final static long[] BLACK_PAWN_ATTACKS = new long[SIZE * SIZE];
+
+	// Magic bitboards: the attacks of a slider are looked up by hashing the occupancy of its rays. The magic numbers
+	// were found by trial and error, so that no two occupancies with different attacks share the same table entry.
+	private final static long[] ROOK_MAGICS = {
+		0x0480028025400050L, 0x40C0100040012000L, 0x110020004011000AL, 0x0100041002082100L,
+		0xC200200802000410L, 0xA600080104100200L, 0x4200208102000804L, 0x8100082180420300L,
+		0x2200800020904004L, 0x4201004000810024L, 0x0000802000100088L, 0x1840800804100080L,
+		0x1040808004000800L, 0x4019000400C90002L, 0x4142009104420028L, 0x0005000100005082L,
+		0x0080004000200042L, 0x4004838040006000L, 0x8009010032416004L, 0x0002020010402008L,
+		0x0001010008000411L, 0x2101808004010200L, 0x2001808002000100L, 0x8301020000440081L,
+		0x3600800080204001L, 0x4020004040003000L, 0x8010100080200880L, 0x1090000808010080L,
+		0x0024000808004080L, 0x1881000300080400L, 0x2220020400104108L, 0x1802802080104900L,
+		0x0080002002400048L, 0x4080200080804000L, 0x0010802000801003L, 0x0010010008080080L,
+		0x0448000880800400L, 0x4018800200800400L, 0x0000108104004802L, 0x05301144060000B1L,
+		0x8000400080208000L, 0x4820004000828020L, 0x0420008010008020L, 0x2020220008120040L,
+		0x0004080004008080L, 0x8812001020040400L, 0x0041502861240012L, 0x0000006108820004L,
+		0x0800800040002480L, 0x08301C2000400240L, 0x0040200080100480L, 0x0400800800100480L,
+		0x0044000480080080L, 0x1044800400020080L, 0xCAA1001436000D00L, 0x240100029A024100L,
+		0x0000104500208602L, 0x0034850422400011L, 0x0440082040801202L, 0x0A0200906040043AL,
+		0x0032009020088482L, 0x8003000208040001L, 0x041A008108021004L, 0x0024008044002102L
+	};
+	private final static long[] BISHOP_MAGICS = {
+		0x0020209A02084050L, 0x0010021200460480L, 0x4E08109102008211L, 0x48A80A0820000080L,
+		0xA001104000800082L, 0x0802080404048202L, 0x0001015010840001L, 0x0C00140101282010L,
+		0x0884A00841010420L, 0x0440040148210100L, 0xA0801004104040C0L, 0x0000482080200400L,
+		0x0000445040000006L, 0x8224020822081008L, 0x12A0220082084010L, 0x4000002228040401L,
+		0x8008022008011840L, 0x4028022018294040L, 0x000D020208020480L, 0x1124908802004204L,
+		0x2901000490400341L, 0x000082010080C010L, 0x4004000044422821L, 0x0208210504020200L,
+		0x0060200804042420L, 0x400402C0A0128404L, 0x1C04101001010021L, 0x0003040041440080L,
+		0x0825840000802000L, 0x4000490102010120L, 0x0021184104020800L, 0x8421210010240100L,
+		0x0024042200042089L, 0x0604140205049002L, 0x00040C0201010200L, 0x1C08020080080080L,
+		0x0004010010040040L, 0x0320282040208040L, 0x0284081208008080L, 0x0001410204410054L,
+		0x0940904808206000L, 0x0801080804093300L, 0x0000201410041200L, 0x280800C202002028L,
+		0x04306060A0801400L, 0x0020320408080842L, 0x0898905402400080L, 0x0002180100202102L,
+		0x8040840482C00400L, 0x004A008084504202L, 0x0804008048080200L, 0x10808400840400A1L,
+		0x2102115012022400L, 0x0444082008408010L, 0x400822300A020226L, 0x08182108008B0405L,
+		0x1001048201014080L, 0x8490408201012040L, 0x0400020024041201L, 0x8020410000420200L,
+		0x4008020110420208L, 0x0982120820080890L, 0x0400082001820212L, 0x8338124424420A00L
+	};
+	private final static long[] ROOK_MASKS = new long[SIZE * SIZE];
+	private final static int[] ROOK_SHIFTS = new int[SIZE * SIZE];
+	private final static long[][] ROOK_ATTACKS = new long[SIZE * SIZE][];
+	private final static long[] BISHOP_MASKS = new long[SIZE * SIZE];
+	private final static int[] BISHOP_SHIFTS = new int[SIZE * SIZE];
+	private final static long[][] BISHOP_ATTACKS = new long[SIZE * SIZE][];
+	private final static long[][] BETWEEN = new long[SIZE * SIZE][SIZE * SIZE];
+
+	static {
+		for (int square = 0; square < SIZE * SIZE; square++) {
+			final long bit = toBit(square);
+			KNIGHT_ATTACKS[square] = knightAttacksFromSet(bit);
+			KING_ATTACKS[square] = kingAttacksFromSet(bit);
+			WHITE_PAWN_ATTACKS[square] = pawnAttacksFromSet(bit, true);
+			BLACK_PAWN_ATTACKS[square] = pawnAttacksFromSet(bit, false);
+			ROOK_MASKS[square] = getRookMask(square);
+			ROOK_SHIFTS[square] = SIZE * SIZE - Long.bitCount(ROOK_MASKS[square]);
+			ROOK_ATTACKS[square] = initMagicTable(square, ROOK_MASKS[square], ROOK_MAGICS[square], ROOK_SHIFTS[square], true);
+			BISHOP_MASKS[square] = getBishopMask(square);
+			BISHOP_SHIFTS[square] = SIZE * SIZE - Long.bitCount(BISHOP_MASKS[square]);
+			BISHOP_ATTACKS[square] =
+				initMagicTable(square, BISHOP_MASKS[square], BISHOP_MAGICS[square], BISHOP_SHIFTS[square], false);
+		}
+		for (int from = 0; from < SIZE * SIZE; from++) {
+			for (int to = 0; to < SIZE * SIZE; to++) {
+				BETWEEN[from][to] = getBetween(from, to);
+			}
+		}
+	}
+
+	private BitBoardHelper() {
+	}
+
+	// Squares are numbered from a1 (0) to h8 (63), so that x is the file and y the rank
+	public static int toSquare(int x, int y) {
+		return y * SIZE + x;
+	}
+
+	public static int getX(int square) {
+		return square & (SIZE - 1);
+	}
+
+	public static int getY(int square) {
+		return square >>> 3;
+	}
+
+	public static long toBit(int square) {
+		return 1L << square;
+	}
+
+	public static long knightAttacks(int square) {
+		return KNIGHT_ATTACKS[square];
+	}
+
+	public static long kingAttacks(int square) {
+		return KING_ATTACKS[square];
+	}
+
+	public static long pawnAttacks(int square, boolean white) {
+		return white ? WHITE_PAWN_ATTACKS[square] : BLACK_PAWN_ATTACKS[square];
+	}
+
+	public static long rookAttacks(int square, long occupied) {
+		return ROOK_ATTACKS[square][(int) (((occupied & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square])];
+	}
+
+	public static long bishopAttacks(int square, long occupied) {
+		return BISHOP_ATTACKS[square][
+			(int) (((occupied & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square])];
+	}
+
+	public static long queenAttacks(int square, long occupied) {
+		return rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+	}
+
+	// Squares strictly between two squares on the same rank, file or diagonal, none otherwise
+	public static long between(int from, int to) {
+		return BETWEEN[from][to];
+	}
+
+	static long knightAttacksFromSet(long knights) {
+		return ((knights << 17) & NOT_FILE_A)
+			| ((knights << 15) & NOT_FILE_H)
+			| ((knights << 10) & NOT_FILE_AB)
+			| ((knights << 6) & NOT_FILE_GH)
+			| ((knights >>> 17) & NOT_FILE_H)
+			| ((knights >>> 15) & NOT_FILE_A)
+			| ((knights >>> 10) & NOT_FILE_GH)
+			| ((knights >>> 6) & NOT_FILE_AB);
+	}
+
+	static long kingAttacksFromSet(long kings) {
+		long sides = ((kings << 1) & NOT_FILE_A) | ((kings >>> 1) & NOT_FILE_H);
+		long row = kings | sides;
+		return sides | (row << 8) | (row >>> 8);
+	}
+
+	static long pawnAttacksFromSet(long pawns, boolean white) {
+		if (white) {
+			return ((pawns << 9) & NOT_FILE_A) | ((pawns << 7) & NOT_FILE_H);
+		} else {
+			return ((pawns >>> 7) & NOT_FILE_A) | ((pawns >>> 9) & NOT_FILE_H);
+		}
+	}
+
+	static long slowRookAttacks(int square, long occupied) {
+		return rayAttacks(square, occupied, 0, 1)
+			| rayAttacks(square, occupied, 0, -1)
+			| rayAttacks(square, occupied, -1, 0)
+			| rayAttacks(square, occupied, 1, 0);
+	}
+
+	static long slowBishopAttacks(int square, long occupied) {
+		return rayAttacks(square, occupied, 1, 1)
+			| rayAttacks(square, occupied, 1, -1)
+			| rayAttacks(square, occupied, -1, -1)
+			| rayAttacks(square, occupied, -1, 1);
+	}
+
+	static long rayAttacks(int square, long occupied, int deltaX, int deltaY) {
+		// Walk in the given direction until the border or the first blocker (which is included)
+		long attacks = 0L;
+		int x = getX(square) + deltaX;
+		int y = getY(square) + deltaY;
+		while (x >= 0 && x < SIZE && y >= 0 && y < SIZE) {
+			long bit = toBit(toSquare(x, y));
+			attacks |= bit;
+			if ((occupied & bit) != 0) {
+				break;
+			}
+			x += deltaX;
+			y += deltaY;
+		}
+		return attacks;
+	}
+
+	private static long getBetween(int from, int to) {
+		final long fromBit = toBit(from);
+		final long toBit = toBit(to);
+		if ((slowRookAttacks(from, 0L) & toBit) != 0) {
+			return slowRookAttacks(from, toBit) & slowRookAttacks(to, fromBit);
+		}
+		if ((slowBishopAttacks(from, 0L) & toBit) != 0) {
+			return slowBishopAttacks(from, toBit) & slowBishopAttacks(to, fromBit);
+		}
+		return 0L;
+	}
+
+	private static long getRookMask(int square) {
+		// Squares whose occupancy matters for a rook: its rays without the borders
+		final int x = getX(square);
+		final int y = getY(square);
+		long mask = 0L;
+		for (int i = 1; i < SIZE - 1; i++) {
+			if (i != x) {
+				mask |= toBit(toSquare(i, y));
+			}
+			if (i != y) {
+				mask |= toBit(toSquare(x, i));
+			}
+		}
+		return mask;
+	}
+
+	private static long getBishopMask(int square) {
+		return slowBishopAttacks(square, 0L) & ~(FILE_A | FILE_H | RANK_1 | RANK_8);
+	}
+
+	private static long[] initMagicTable(int square, long mask, long magic, int shift, boolean isRook) {
+		// Enumerate all the subsets of the mask and store their attacks at the index given by the magic number
+		final long[] table = new long[1 << Long.bitCount(mask)];
+		final boolean[] isFilled = new boolean[table.length];
+		long subset = 0L;
+		do {
+			final long attacks = isRook ? slowRookAttacks(square, subset) : slowBishopAttacks(square, subset);
+			final int index = (int) ((subset * magic) >>> shift);
+			if (isFilled[index] && table[index] != attacks) {
+				throw new RuntimeException("Invalid magic number for square " + square);
+			}
+			table[index] = attacks;
+			isFilled[index] = true;
+			subset = (subset - mask) & mask;
+		} while (subset != 0);
+		return table;
+	}
+}
@@ -1,23 +1,69 @@
 package ch.teemoo.bobby.helpers;
 
+import java.time.Duration;
+
+import ch.teemoo.bobby.models.MoveAnalysis;
+import ch.teemoo.bobby.models.SearchSettings;
+import ch.teemoo.bobby.models.games.Game;
 import ch.teemoo.bobby.models.players.Bot;
 import ch.teemoo.bobby.models.players.ExperiencedBot;
+import ch.teemoo.bobby.models.players.Human;
 import ch.teemoo.bobby.models.players.RandomBot;
 import ch.teemoo.bobby.models.players.TraditionalBot;
 import ch.teemoo.bobby.services.MoveService;
 import ch.teemoo.bobby.services.OpeningService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class BotFactory {
-	private static final int LEVEL_MAX = 2;
+	private final static Logger logger = LoggerFactory.getLogger(BotFactory.class);
+
+	private static final int LEVEL_MAX = 8;
 	private static final int LEVEL_MIN = 0;
-	private static final int TIMEOUT_MAX = 10;
+	private static final int TIMEOUT_MAX = 30;
+	private static final int DEFAULT_MOVE_LATENCY_MILLIS = 2000;
+	private static final int CALIBRATION_MILLIS = 300;
+	// The level is the maximum depth searched, and each level also has a budget of nodes after which the search stops,
+	// so that it does not take much longer in complex positions, and the time it takes can be estimated from the speed
+	// of the machine.
+	private static final long[] MAX_NODES =
+		{2_000, 10_000, 25_000, 50_000, 100_000, 250_000, 500_000, 1_000_000, 2_500_000};
+	// Per level, depth removed by the null move pruning and the late move reductions (0 is off), and number of moves
+	// searched at full depth before the latter
+	private static final int[] NULL_MOVE_REDUCTIONS = {0, 0, 2, 2, 2, 2, 3, 3, 3};
+	private static final int[] LATE_MOVE_REDUCTIONS = {0, 0, 1, 1, 1, 1, 1, 2, 2};
+	private static final int[] FULL_DEPTH_MOVES = {0, 0, 3, 3, 3, 3, 3, 4, 4};
 
 	private final MoveService moveService;
 	private final OpeningService openingService;
+	private final SearchSettings searchSettings;
+	private final boolean selectiveSearch;
+	private final int moveLatencyMillis;
+	private long nodesPerSecond;
 
 	public BotFactory(MoveService moveService, OpeningService openingService) {
+		// The bots search with a single thread, unless another count is set with -Dbobby.threads, search the root
+		// moves one after the other, unless -Dbobby.rootSplit=true is set to search them in parallel, and prune or
+		// reduce the unpromising moves, unless disabled with -Dbobby.selectiveSearch=false. The strongest bot is the one
+		// expected to play in 2 seconds, unless another time is set with -Dbobby.moveLatency (in milliseconds).
+		this(moveService, openingService, Integer.getInteger("bobby.threads", 1), Boolean.getBoolean("bobby.rootSplit"),
+			Boolean.parseBoolean(System.getProperty("bobby.selectiveSearch", "true")),
+			Integer.getInteger("bobby.moveLatency", DEFAULT_MOVE_LATENCY_MILLIS));
+	}
+
+	public BotFactory(MoveService moveService, OpeningService openingService, int threads) {
+		this(moveService, openingService, threads, false, true, DEFAULT_MOVE_LATENCY_MILLIS);
+	}
+
+	public BotFactory(MoveService moveService, OpeningService openingService, int threads, boolean rootSplit,
+		boolean selectiveSearch, int moveLatencyMillis) {
+		checkThreads(threads);
+		checkMoveLatency(moveLatencyMillis);
 		this.moveService = moveService;
 		this.openingService = openingService;
+		this.searchSettings = SearchSettings.DEFAULT.withThreads(threads).withRootSplit(rootSplit);
+		this.selectiveSearch = selectiveSearch;
+		this.moveLatencyMillis = moveLatencyMillis;
 	}
 
 	public Bot getRandomBot() {
@@ -27,17 +73,72 @@ public class BotFactory {
 	public Bot getTraditionalBot(int level, Integer timeout) {
 		checkLevel(level);
 		checkTimeout(timeout);
-		return new TraditionalBot(level,timeout, moveService);
+		return new TraditionalBot(level, timeout, getSearchSettings(level), moveService);
 	}
 
 	public Bot getExperiencedBot(int level, Integer timeout) {
 		checkLevel(level);
 		checkTimeout(timeout);
-		return new ExperiencedBot(level, timeout, moveService, openingService);
+		return new ExperiencedBot(level, timeout, getSearchSettings(level), moveService, openingService);
 	}
 
 	public Bot getStrongestBot() {
-		return getExperiencedBot(LEVEL_MAX, TIMEOUT_MAX);
+		return getExperiencedBot(getStrongestLevel(getNodesPerSecond()), TIMEOUT_MAX);
+	}
+
+	public int getMaxLevel() {
+		return LEVEL_MAX;
+	}
+
+	// Highest level whose nodes budget is searched within the move latency, at the given speed
+	int getStrongestLevel(long nodesPerSecond) {
+		int level = LEVEL_MIN;
+		while (level < LEVEL_MAX && MAX_NODES[level + 1] * 1000 <= nodesPerSecond * moveLatencyMillis) {
+			level++;
+		}
+		return level;
+	}
+
+	// Measures the speed of the machine, if not done yet. It takes about a second, better done once at startup than
+	// when the first strongest bot is needed.
+	public void calibrate() {
+		getNodesPerSecond();
+	}
+
+	private synchronized long getNodesPerSecond() {
+		// Measured once, on the first call, with a move service of its own: the bots searching with the shared one keep
+		// their tables. The search is run twice, the first time only to warm up the JIT. The tables are then cleared,
+		// otherwise most nodes of the second run would be cheap hits of the positions of the first.
+		if (nodesPerSecond == 0) {
+			MoveService calibrationMoveService = new MoveService();
+			measureNodesPerSecond(calibrationMoveService);
+			calibrationMoveService.getTranspositionTable().clear();
+			calibrationMoveService.getEvaluationCache().clear();
+			nodesPerSecond = measureNodesPerSecond(calibrationMoveService);
+			logger.info("Calibration: {} nodes per second, strongest level is {}", nodesPerSecond,
+				getStrongestLevel(nodesPerSecond));
+		}
+		return nodesPerSecond;
+	}
+
+	private long measureNodesPerSecond(MoveService calibrationMoveService) {
+		// On a single thread: the nodes budget is counted by each thread of a parallel search, not for all of them. The
+		// forks of a root split count them together, so it may stay on.
+		Game game = new Game(new Human("white"), new Human("black"));
+		final long start = System.nanoTime();
+		MoveAnalysis moveAnalysis = calibrationMoveService.selectMoveAnalysis(game, LEVEL_MAX,
+			Duration.ofMillis(CALIBRATION_MILLIS), getSearchSettings(LEVEL_MAX).withMaxNodes(0).withThreads(1));
+		final long elapsed = Math.max(System.nanoTime() - start, 1);
+		return Math.max(moveAnalysis.getNodes() * 1_000_000_000L / elapsed, 1);
+	}
+
+	SearchSettings getSearchSettings(int level) {
+		SearchSettings settings = searchSettings.withMaxNodes(MAX_NODES[level]);
+		if (!selectiveSearch) {
+			return settings;
+		}
+		return settings.withNullMoveReduction(NULL_MOVE_REDUCTIONS[level])
+			.withLateMoveReduction(LATE_MOVE_REDUCTIONS[level], FULL_DEPTH_MOVES[level]);
 	}
 
 	private void checkLevel(int level) {
@@ -45,6 +146,18 @@ public class BotFactory {
 		assert level <= LEVEL_MAX;
 	}
 
+	private void checkThreads(int threads) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("At least one thread is needed to search: " + threads);
+		}
+	}
+
+	private void checkMoveLatency(int moveLatencyMillis) {
+		if (moveLatencyMillis < 1) {
+			throw new IllegalArgumentException("Move latency must be positive: " + moveLatencyMillis);
+		}
+	}
+
 	private void checkTimeout(Integer timeout) {
 		if (timeout != null) {
 			assert timeout <= TIMEOUT_MAX;
@@ -0,0 +1,53 @@
+package ch.teemoo.bobby.helpers;
+
+import static ch.teemoo.bobby.helpers.BitBoardHelper.getX;
+import static ch.teemoo.bobby.models.BitBoard.NONE;
+import static ch.teemoo.bobby.models.BitBoard.PIECE_TYPES;
+import static ch.teemoo.bobby.models.Board.SIZE;
+
+import java.util.Random;
+
+import ch.teemoo.bobby.models.Color;
+
+public class ZobristHelper {
+	// Fixed seed, so that a position always gets the same key, even across runs
+	private final static Random RANDOM = new Random(0x5EED_B0BBL);
+	private final static long[][] PIECES = new long[2 * PIECE_TYPES][SIZE * SIZE];
+	private final static long[] CASTLING_RIGHTS = new long[16];
+	private final static long[] EN_PASSANT_FILES = new long[SIZE];
+	private final static long BLACK_TO_PLAY = RANDOM.nextLong();
+
+	static {
+		for (long[] squares: PIECES) {
+			for (int square = 0; square < squares.length; square++) {
+				squares[square] = RANDOM.nextLong();
+			}
+		}
+		// No castling right at all does not change the key
+		for (int rights = 1; rights < CASTLING_RIGHTS.length; rights++) {
+			CASTLING_RIGHTS[rights] = RANDOM.nextLong();
+		}
+		for (int file = 0; file < EN_PASSANT_FILES.length; file++) {
+			EN_PASSANT_FILES[file] = RANDOM.nextLong();
+		}
+	}
+
+	private ZobristHelper() {
+	}
+
+	public static long getPieceKey(int color, int type, int square) {
+		return PIECES[color * PIECE_TYPES + type][square];
+	}
+
+	public static long getCastlingRightsKey(int castlingRights) {
+		return CASTLING_RIGHTS[castlingRights];
+	}
+
+	public static long getEnPassantKey(int enPassantSquare) {
+		return enPassantSquare == NONE ? 0L : EN_PASSANT_FILES[getX(enPassantSquare)];
+	}
+
+	public static long getToPlayKey(Color toPlay) {
+		return toPlay == Color.BLACK ? BLACK_TO_PLAY : 0L;
+	}
+}
@@ -2,6 +2,7 @@ package ch.teemoo.bobby.lichess;
 
 import static ch.teemoo.bobby.helpers.ColorHelper.swap;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
@@ -10,6 +11,7 @@ import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 import ch.teemoo.bobby.helpers.BotFactory;
+import ch.teemoo.bobby.models.games.Clock;
 import ch.teemoo.bobby.models.games.Game;
 import ch.teemoo.bobby.models.moves.Move;
 import ch.teemoo.bobby.models.players.Bot;
@@ -24,6 +26,8 @@ import org.slf4j.LoggerFactory;
 
 public class EventHandler {
 	private final static Logger logger = LoggerFactory.getLogger(EventHandler.class);
+	// Initial FEN sent for the games starting from the initial position
+	private final static String STARTING_POSITION = "startpos";
 
 	private final LichessClient client;
 	private final UniversalChessInterfaceService uciService;
@@ -74,7 +78,9 @@ public class EventHandler {
 	}
 
 	boolean isChallengeAcceptable(Event.ChallengeEvent challengeEvent) {
-		Predicate<Challenge> variantStandard = challenge -> challenge.variant().key() == Enums.GameVariant.standard;
+		// Games from a position are standard games, which do not start from the initial position
+		Predicate<Challenge> variantStandard = challenge -> challenge.variant().key() == Enums.GameVariant.standard
+			|| challenge.variant().key() == Enums.GameVariant.fromPosition;
 
 		return variantStandard.test(challengeEvent.challenge());
 	}
@@ -122,18 +128,34 @@ public class EventHandler {
 		Stream<GameEvent> gameEvents = client.streamGameEvents(event.id());
 
 		gameEvents.forEach(gameEvent -> {
+			// The game is replaced when it starts from a position
+			var currentGame = onlineGameMap.getOrDefault(event.id(), onlineGame);
 			switch (gameEvent.type()) {
-			case gameFull -> startPlayingGame(onlineGame, (GameEvent.Full) gameEvent);
+			case gameFull -> startPlayingGame(currentGame, (GameEvent.Full) gameEvent);
 			case chatLine -> incomingChatLine((GameEvent.Chat) gameEvent);
-			case gameState -> updateGameState(onlineGame, (GameEvent.State) gameEvent);
+			case gameState -> updateGameState(currentGame, (GameEvent.State) gameEvent);
 			}
 		});
 	}
 
 	void startPlayingGame(OnlineGame onlineGame, GameEvent.Full full) {
 		logger.info("Game starting: {}", full);
-		processMovesHistory(onlineGame.game(), full.state().moves());
-		playNextMove(onlineGame);
+		var startedGame = setUpInitialPosition(onlineGame, full.initialFen());
+		processMovesHistory(startedGame.game(), full.state().moves());
+		updateClock(startedGame.game(), full.state());
+		playNextMove(startedGame);
+	}
+
+	OnlineGame setUpInitialPosition(OnlineGame onlineGame, String initialFen) {
+		if (initialFen == null || initialFen.isBlank() || STARTING_POSITION.equals(initialFen)) {
+			return onlineGame;
+		}
+		logger.info("Game {} starts from position {}", onlineGame.id(), initialFen);
+		var game = onlineGame.game();
+		var positionGame = new OnlineGame(onlineGame.id(),
+			new Game(game.getWhitePlayer(), game.getBlackPlayer(), initialFen), onlineGame.bot());
+		onlineGameMap.put(onlineGame.id(), positionGame);
+		return positionGame;
 	}
 
 	void incomingChatLine(GameEvent.Chat chat) {
@@ -147,6 +169,7 @@ public class EventHandler {
 		var game = onlineGame.game();
 
 		processMovesHistory(game, state.moves());
+		updateClock(game, state);
 
 		var status = state.status();
 		switch (status) {
@@ -185,6 +208,14 @@ public class EventHandler {
 		}
 	}
 
+	void updateClock(Game game, GameEvent.State state) {
+		// Times are in milliseconds, and all zero for games without a clock
+		if (state.wtime() > 0 || state.btime() > 0) {
+			game.setClock(new Clock(Duration.ofMillis(state.wtime()), Duration.ofMillis(state.btime()),
+				Duration.ofMillis(state.winc()), Duration.ofMillis(state.binc())));
+		}
+	}
+
 	void applyMove(Game game, Move move) {
 		game.getBoard().doMove(move);
 		game.setToPlay(swap(move.getPiece().getColor()));
@@ -0,0 +1,829 @@
+package ch.teemoo.bobby.models;
+
+import static ch.teemoo.bobby.helpers.BitBoardHelper.getX;
+import static ch.teemoo.bobby.helpers.BitBoardHelper.getY;
+import static ch.teemoo.bobby.helpers.BitBoardHelper.toBit;
+import static ch.teemoo.bobby.helpers.BitBoardHelper.toSquare;
+import static ch.teemoo.bobby.helpers.ColorHelper.swap;
+import static ch.teemoo.bobby.models.Board.SIZE;
+
+import java.util.Arrays;
+import java.util.List;
+
+import ch.teemoo.bobby.helpers.ZobristHelper;
+import ch.teemoo.bobby.models.moves.CastlingMove;
+import ch.teemoo.bobby.models.moves.EnPassantMove;
+import ch.teemoo.bobby.models.moves.Move;
+import ch.teemoo.bobby.models.moves.PackedMove;
+import ch.teemoo.bobby.models.moves.PromotionMove;
+import ch.teemoo.bobby.models.pieces.Bishop;
+import ch.teemoo.bobby.models.pieces.King;
+import ch.teemoo.bobby.models.pieces.Knight;
+import ch.teemoo.bobby.models.pieces.Pawn;
+import ch.teemoo.bobby.models.pieces.Piece;
+import ch.teemoo.bobby.models.pieces.Queen;
+import ch.teemoo.bobby.models.pieces.Rook;
+
+public class BitBoard implements Bitboards {
+	public final static int PAWN = 0;
+	public final static int KNIGHT = 1;
+	public final static int BISHOP = 2;
+	public final static int ROOK = 3;
+	public final static int QUEEN = 4;
+	public final static int KING = 5;
+	public final static int PIECE_TYPES = 6;
+	public final static int NONE = -1;
+	// Same as the values of the pieces, by piece type
+	public final static int[] PIECE_VALUES = {1, 3, 3, 5, 10, 100};
+
+	public final static int WHITE_KING_SIDE = 1;
+	public final static int WHITE_QUEEN_SIDE = 2;
+	public final static int BLACK_KING_SIDE = 4;
+	public final static int BLACK_QUEEN_SIDE = 8;
+
+	// Development of a player in the opening, made of these flags and of the count of moves played (up to one more than
+	// the opening moves), as told by its moves
+	public final static int OPENING_MOVES_COUNT = 5;
+	public final static int MAJOR_PIECE_MOVED = 1;
+	public final static int PIECE_MOVED_TWICE = 2;
+	public final static int CASTLED = 4;
+	public final static int KING_MOVED = 8;
+	public final static int DEVELOPMENT_MOVES_SHIFT = 4;
+
+	private final static int SQUARES = SIZE * SIZE;
+	// Pieces letters in the Forsyth-Edwards Notation (FEN), by piece type, upper case for white
+	private final static String FEN_PIECES = "PNBRQK";
+	private final static String FEN_CASTLING_RIGHTS = "KQkq";
+	private final static int INITIAL_HISTORY_CAPACITY = 128;
+	// Shared piece instances, indexed by color.ordinal() and type
+	private final static Piece[][] PIECES = {
+		{Pawn.WHITE, Knight.WHITE, Bishop.WHITE, Rook.WHITE, Queen.WHITE, King.WHITE},
+		{Pawn.BLACK, Knight.BLACK, Bishop.BLACK, Rook.BLACK, Queen.BLACK, King.BLACK}
+	};
+
+	// One bitboard per color and piece type, indexed by color.ordinal() * PIECE_TYPES + type
+	private final long[] pieces;
+	private final long[] colors;
+	private final int[] types;
+	private Color toPlay;
+	private int castlingRights;
+	private int enPassantSquare;
+	private int plyCount;
+	// Plies since the last capture, pawn move or castling rights change: earlier positions cannot be repeated
+	private int reversiblePlies;
+	// Plies since the last capture or pawn move
+	private int halfMoveClock;
+	// Zobrist key of the position, updated with each piece put or removed, and on each move for the rest of the state
+	private long key;
+	// Zobrist key of the pawns only, updated along with the main key, under which the pawn structure is evaluated
+	private long pawnKey;
+	private boolean isKeyVerified;
+	// Sum of the pieces values, by color
+	private final int[] materials;
+	// Development of the players of the even and odd plies, with the squares their opening moves landed on
+	private final int[] developmentStates;
+	private final long[] landingSquares;
+	// Played moves and what is needed to undo them, indexed by ply
+	private int[] moves;
+	private long[] states;
+	private long[] keys;
+	private int[] capturedTypes;
+	private int[] previousDevelopmentStates;
+	private long[] previousLandingSquares;
+
+	private BitBoard(int historyCapacity) {
+		this.pieces = new long[2 * PIECE_TYPES];
+		this.colors = new long[2];
+		this.types = new int[SQUARES];
+		this.toPlay = Color.WHITE;
+		this.enPassantSquare = NONE;
+		this.moves = new int[historyCapacity];
+		this.states = new long[historyCapacity];
+		this.keys = new long[historyCapacity];
+		this.capturedTypes = new int[historyCapacity];
+		this.materials = new int[2];
+		this.developmentStates = new int[2];
+		this.landingSquares = new long[2];
+		this.previousDevelopmentStates = new int[historyCapacity];
+		this.previousLandingSquares = new long[historyCapacity];
+		Arrays.fill(types, NONE);
+	}
+
+	private BitBoard(BitBoard other) {
+		this.pieces = other.pieces.clone();
+		this.colors = other.colors.clone();
+		this.types = other.types.clone();
+		this.toPlay = other.toPlay;
+		this.castlingRights = other.castlingRights;
+		this.enPassantSquare = other.enPassantSquare;
+		this.plyCount = other.plyCount;
+		this.reversiblePlies = other.reversiblePlies;
+		this.halfMoveClock = other.halfMoveClock;
+		this.key = other.key;
+		this.pawnKey = other.pawnKey;
+		this.isKeyVerified = other.isKeyVerified;
+		this.moves = other.moves.clone();
+		this.states = other.states.clone();
+		this.keys = other.keys.clone();
+		this.capturedTypes = other.capturedTypes.clone();
+		this.materials = other.materials.clone();
+		this.developmentStates = other.developmentStates.clone();
+		this.landingSquares = other.landingSquares.clone();
+		this.previousDevelopmentStates = other.previousDevelopmentStates.clone();
+		this.previousLandingSquares = other.previousLandingSquares.clone();
+	}
+
+	public static BitBoard fromBoard(Board board, Color toPlay, List<Move> history) {
+		BitBoard bitBoard = new BitBoard(history.size() + INITIAL_HISTORY_CAPACITY);
+		for (int x = 0; x < SIZE; x++) {
+			for (int y = 0; y < SIZE; y++) {
+				Piece piece = board.getBoard()[y][x];
+				if (piece != null) {
+					bitBoard.setPiece(toSquare(x, y), piece);
+				}
+			}
+		}
+		bitBoard.toPlay = toPlay;
+		bitBoard.plyCount = history.size();
+		for (int i = 0; i < history.size(); i++) {
+			bitBoard.moves[i] = toPackedMove(history.get(i), board);
+		}
+		bitBoard.castlingRights = board.getCastlingRights();
+		for (int ply = 0; ply < history.size(); ply++) {
+			bitBoard.updateDevelopment(bitBoard.moves[ply], ply & 1);
+		}
+		bitBoard.enPassantSquare = board.getEnPassantSquare();
+		bitBoard.halfMoveClock = board.getHalfMoveClock();
+		bitBoard.key = bitBoard.computeKey();
+		bitBoard.pawnKey = bitBoard.computePawnKey();
+		bitBoard.initPreviousKeys();
+		return bitBoard;
+	}
+
+	// The position is read from the Forsyth-Edwards Notation (FEN). The moves played before are not known: no earlier
+	// position can be repeated, and the development of the players is only told by the count of moves they played.
+	public static BitBoard fromFen(String fen) {
+		final String[] fields = fen == null ? new String[0] : fen.trim().split("\\s+");
+		if (fields.length < 4 || fields.length > 6) {
+			throw new IllegalArgumentException("Unexpected format for FEN: " + fen);
+		}
+		final int fullMoveNumber = fields.length == 6 ? parseFenNumber(fields[5], fen) : 1;
+		final boolean isWhiteToPlay = getFenToPlay(fields[1], fen) == Color.WHITE;
+		final int plyCount = 2 * (Math.max(fullMoveNumber, 1) - 1) + (isWhiteToPlay ? 0 : 1);
+		BitBoard bitBoard = new BitBoard(plyCount + INITIAL_HISTORY_CAPACITY);
+		bitBoard.setFenPieces(fields[0], fen);
+		if (Long.bitCount(bitBoard.getPieces(Color.WHITE, KING)) != 1
+			|| Long.bitCount(bitBoard.getPieces(Color.BLACK, KING)) != 1) {
+			throw new IllegalArgumentException("Each player must have one king in FEN: " + fen);
+		}
+		bitBoard.toPlay = isWhiteToPlay ? Color.WHITE : Color.BLACK;
+		bitBoard.plyCount = plyCount;
+		// Castling rights that do not match the kings and rooks on their initial squares are ignored
+		bitBoard.castlingRights = getFenCastlingRights(fields[2], fen)
+			& getInitialCastlingRights(bitBoard);
+		bitBoard.enPassantSquare = getFenEnPassantSquare(fields[3], isWhiteToPlay, fen);
+		bitBoard.halfMoveClock = fields.length >= 5 ? parseFenNumber(fields[4], fen) : 0;
+		for (int parity = 0; parity < 2; parity++) {
+			final int movesCount = Math.min((plyCount + 1 - parity) / 2, OPENING_MOVES_COUNT + 1);
+			bitBoard.developmentStates[parity] = movesCount << DEVELOPMENT_MOVES_SHIFT;
+		}
+		bitBoard.key = bitBoard.computeKey();
+		bitBoard.pawnKey = bitBoard.computePawnKey();
+		return bitBoard;
+	}
+
+	public String toFen() {
+		StringBuilder builder = new StringBuilder();
+		for (int y = SIZE - 1; y >= 0; y--) {
+			int emptySquares = 0;
+			for (int x = 0; x < SIZE; x++) {
+				final int square = toSquare(x, y);
+				if (types[square] == NONE) {
+					emptySquares++;
+					continue;
+				}
+				if (emptySquares > 0) {
+					builder.append(emptySquares);
+					emptySquares = 0;
+				}
+				final char letter = FEN_PIECES.charAt(types[square]);
+				builder.append(getColor(square) == Color.WHITE ? letter : Character.toLowerCase(letter));
+			}
+			if (emptySquares > 0) {
+				builder.append(emptySquares);
+			}
+			if (y > 0) {
+				builder.append('/');
+			}
+		}
+		builder.append(' ').append(toPlay == Color.WHITE ? 'w' : 'b').append(' ');
+		if (castlingRights == 0) {
+			builder.append('-');
+		}
+		for (int i = 0; i < FEN_CASTLING_RIGHTS.length(); i++) {
+			if ((castlingRights & (1 << i)) != 0) {
+				builder.append(FEN_CASTLING_RIGHTS.charAt(i));
+			}
+		}
+		builder.append(' ');
+		if (enPassantSquare == NONE) {
+			builder.append('-');
+		} else {
+			builder.append((char) ('a' + getX(enPassantSquare))).append(getY(enPassantSquare) + 1);
+		}
+		return builder.append(' ').append(halfMoveClock).append(' ').append(plyCount / 2 + 1).toString();
+	}
+
+	private void setFenPieces(String placement, String fen) {
+		final String[] ranks = placement.split("/", -1);
+		if (ranks.length != SIZE) {
+			throw new IllegalArgumentException("Unexpected count of ranks in FEN: " + fen);
+		}
+		for (int i = 0; i < SIZE; i++) {
+			final int y = SIZE - 1 - i;
+			int x = 0;
+			for (char c : ranks[i].toCharArray()) {
+				if (c >= '1' && c <= '8') {
+					x += c - '0';
+					continue;
+				}
+				final int type = FEN_PIECES.indexOf(Character.toUpperCase(c));
+				if (type < 0 || x >= SIZE) {
+					throw new IllegalArgumentException("Unexpected rank " + ranks[i] + " in FEN: " + fen);
+				}
+				final Color color = Character.isUpperCase(c) ? Color.WHITE : Color.BLACK;
+				setPiece(toSquare(x, y), createPiece(type, color));
+				x++;
+			}
+			if (x != SIZE) {
+				throw new IllegalArgumentException("Unexpected rank " + ranks[i] + " in FEN: " + fen);
+			}
+		}
+	}
+
+	private static Color getFenToPlay(String field, String fen) {
+		switch (field) {
+			case "w":
+				return Color.WHITE;
+			case "b":
+				return Color.BLACK;
+			default:
+				throw new IllegalArgumentException("Unexpected color to play in FEN: " + fen);
+		}
+	}
+
+	private static int getFenCastlingRights(String field, String fen) {
+		if (field.equals("-")) {
+			return 0;
+		}
+		int rights = 0;
+		for (char c : field.toCharArray()) {
+			final int index = FEN_CASTLING_RIGHTS.indexOf(c);
+			if (index < 0) {
+				throw new IllegalArgumentException("Unexpected castling rights in FEN: " + fen);
+			}
+			rights |= 1 << index;
+		}
+		return rights;
+	}
+
+	private static int getFenEnPassantSquare(String field, boolean isWhiteToPlay, String fen) {
+		if (field.equals("-")) {
+			return NONE;
+		}
+		// The square is behind a pawn of the player who just played, that moved two forward
+		final int expectedY = isWhiteToPlay ? 5 : 2;
+		if (field.length() != 2 || field.charAt(0) < 'a' || field.charAt(0) > 'h'
+			|| field.charAt(1) - '1' != expectedY) {
+			throw new IllegalArgumentException("Unexpected en passant square in FEN: " + fen);
+		}
+		return toSquare(field.charAt(0) - 'a', expectedY);
+	}
+
+	private static int parseFenNumber(String field, String fen) {
+		try {
+			final int number = Integer.parseInt(field);
+			if (number >= 0) {
+				return number;
+			}
+		} catch (NumberFormatException e) {
+			// Reported below
+		}
+		throw new IllegalArgumentException("Unexpected move number in FEN: " + fen);
+	}
+
+	private void initPreviousKeys() {
+		// Only the previous positions that can be repeated are of interest: they are found by moving back the pieces of
+		// the last reversible moves
+		BitBoard previous = copy();
+		int ply = plyCount - 1;
+		while (ply >= 0 && previous.undoReversibleMove(moves[ply])) {
+			previous.enPassantSquare = getEnPassantSquare(previous, ply);
+			keys[ply] = previous.computeKey();
+			ply--;
+		}
+		reversiblePlies = plyCount - 1 - ply;
+	}
+
+	private boolean undoReversibleMove(int move) {
+		final int from = PackedMove.getFrom(move);
+		final int to = PackedMove.getTo(move);
+		if (PackedMove.isTaking(move) || PackedMove.getFlag(move) != PackedMove.NORMAL || types[to] == NONE
+			|| types[to] == PAWN || types[from] != NONE
+			|| (getCastlingRightsLostBy(from) | getCastlingRightsLostBy(to)) != 0) {
+			return false;
+		}
+		final int type = types[to];
+		final int color = getColor(to).ordinal();
+		removePiece(to);
+		setPiece(from, type, color);
+		toPlay = swap(toPlay);
+		return true;
+	}
+
+	private static int getEnPassantSquare(BitBoard bitBoard, int ply) {
+		// Only right after a pawn moved two forward
+		if (ply == 0) {
+			return NONE;
+		}
+		final int lastMove = bitBoard.moves[ply - 1];
+		final int from = PackedMove.getFrom(lastMove);
+		final int to = PackedMove.getTo(lastMove);
+		if (PackedMove.getPieceType(lastMove) == PAWN && Math.abs(to - from) == 2 * SIZE) {
+			return (from + to) / 2;
+		}
+		return NONE;
+	}
+
+	public Board toBoard() {
+		Piece[][] board = new Piece[SIZE][SIZE];
+		for (int square = 0; square < SQUARES; square++) {
+			board[getY(square)][getX(square)] = getPiece(square);
+		}
+		return new Board(board, castlingRights, enPassantSquare, halfMoveClock);
+	}
+
+	public BitBoard copy() {
+		return new BitBoard(this);
+	}
+
+	public long getPieces(Color color, int type) {
+		return pieces[color.ordinal() * PIECE_TYPES + type];
+	}
+
+	public long getPieces(Color color) {
+		return colors[color.ordinal()];
+	}
+
+	public long getOccupied() {
+		return colors[0] | colors[1];
+	}
+
+	public int getType(int square) {
+		return types[square];
+	}
+
+	public Piece getPiece(int square) {
+		return types[square] == NONE ? null : createPiece(types[square], getColor(square));
+	}
+
+	public Color getColor(int square) {
+		return (colors[Color.WHITE.ordinal()] & toBit(square)) != 0 ? Color.WHITE : Color.BLACK;
+	}
+
+	public int getKingSquare(Color color) {
+		long king = getPieces(color, KING);
+		return king == 0 ? NONE : Long.numberOfTrailingZeros(king);
+	}
+
+	public Color getToPlay() {
+		return toPlay;
+	}
+
+	public int getCastlingRights() {
+		return castlingRights;
+	}
+
+	public boolean hasCastlingRight(int castlingRight) {
+		return (castlingRights & castlingRight) != 0;
+	}
+
+	public int getEnPassantSquare() {
+		return enPassantSquare;
+	}
+
+	public int getPlyCount() {
+		return plyCount;
+	}
+
+	public int getHalfMoveClock() {
+		return halfMoveClock;
+	}
+
+	public long getKey() {
+		return key;
+	}
+
+	public long getPawnKey() {
+		return pawnKey;
+	}
+
+	// When enabled, the key is recomputed from scratch after each move and compared with the incremental one
+	public void setKeyVerified(boolean isKeyVerified) {
+		this.isKeyVerified = isKeyVerified;
+	}
+
+	public boolean isThreefoldRepetition() {
+		int repetitions = 0;
+		for (int ply = plyCount - 2; ply >= plyCount - reversiblePlies; ply -= 2) {
+			if (keys[ply] == key && ++repetitions == 2) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public int getMaterial(Color color) {
+		return materials[color.ordinal()];
+	}
+
+	// Development of the player who plays the plies of the given parity
+	public int getDevelopmentState(int parity) {
+		return developmentStates[parity];
+	}
+
+	public void doMove(Move move) {
+		doMove(toPackedMove(move));
+	}
+
+	public void doMove(int move) {
+		if (plyCount == moves.length) {
+			growHistory();
+		}
+		final int from = PackedMove.getFrom(move);
+		final int to = PackedMove.getTo(move);
+		final int flag = PackedMove.getFlag(move);
+		final int color = toPlay.ordinal();
+		states[plyCount] = castlingRights | ((enPassantSquare + 1) << 4) | (reversiblePlies << 11)
+			| ((long) halfMoveClock << 32);
+		keys[plyCount] = key;
+		key ^= ZobristHelper.getCastlingRightsKey(castlingRights) ^ ZobristHelper.getEnPassantKey(enPassantSquare);
+		final int parity = plyCount & 1;
+		previousDevelopmentStates[plyCount] = developmentStates[parity];
+		previousLandingSquares[plyCount] = landingSquares[parity];
+		updateDevelopment(move, parity);
+
+		removePiece(from);
+		final int capturedSquare = flag == PackedMove.EN_PASSANT ? getEnPassantCapturedSquare(to) : to;
+		// Taken from the board, as the captured type of the moves built from a notation is only a guess
+		final int capturedType = types[capturedSquare];
+		capturedTypes[plyCount] = capturedType;
+		if (capturedType != NONE) {
+			removePiece(capturedSquare);
+		}
+		if (flag == PackedMove.PROMOTION) {
+			setPiece(to, PackedMove.getPromotedType(move), color);
+		} else {
+			setPiece(to, PackedMove.getPieceType(move), color);
+		}
+		if (flag == PackedMove.CASTLING) {
+			final int rookFrom = getCastlingRookFrom(to);
+			final int rookTo = getCastlingRookTo(to);
+			setPiece(rookTo, ROOK, color);
+			removePiece(rookFrom);
+		}
+
+		final int previousCastlingRights = castlingRights;
+		castlingRights &= ~(getCastlingRightsLostBy(from) | getCastlingRightsLostBy(to));
+		if (PackedMove.getPieceType(move) == PAWN && Math.abs(to - from) == 2 * SIZE) {
+			enPassantSquare = (from + to) / 2;
+		} else {
+			enPassantSquare = NONE;
+		}
+		if (capturedType != NONE || PackedMove.getPieceType(move) == PAWN) {
+			halfMoveClock = 0;
+		} else {
+			halfMoveClock++;
+		}
+		if (capturedType != NONE || PackedMove.getPieceType(move) == PAWN || castlingRights != previousCastlingRights) {
+			reversiblePlies = 0;
+		} else {
+			reversiblePlies++;
+		}
+		moves[plyCount] = move;
+		plyCount++;
+		toPlay = swap(toPlay);
+		key ^= ZobristHelper.getCastlingRightsKey(castlingRights) ^ ZobristHelper.getEnPassantKey(enPassantSquare)
+			^ ZobristHelper.getToPlayKey(Color.BLACK);
+		if (isKeyVerified) {
+			verifyKey();
+		}
+	}
+
+	public void undoMove(int move) {
+		plyCount--;
+		toPlay = swap(toPlay);
+		final int from = PackedMove.getFrom(move);
+		final int to = PackedMove.getTo(move);
+		final int flag = PackedMove.getFlag(move);
+		final int color = toPlay.ordinal();
+		final long state = states[plyCount];
+		castlingRights = (int) (state & 0xF);
+		enPassantSquare = (int) ((state >> 4) & 0x7F) - 1;
+		reversiblePlies = (int) ((state >>> 11) & 0x1FFFFF);
+		halfMoveClock = (int) (state >>> 32);
+		developmentStates[plyCount & 1] = previousDevelopmentStates[plyCount];
+		landingSquares[plyCount & 1] = previousLandingSquares[plyCount];
+
+		if (flag == PackedMove.CASTLING) {
+			final int rookFrom = getCastlingRookFrom(to);
+			final int rookTo = getCastlingRookTo(to);
+			setPiece(rookFrom, ROOK, color);
+			removePiece(rookTo);
+		}
+		removePiece(to);
+		setPiece(from, PackedMove.getPieceType(move), color);
+		final int capturedType = capturedTypes[plyCount];
+		if (capturedType != NONE) {
+			final int capturedSquare = flag == PackedMove.EN_PASSANT ? getEnPassantCapturedSquare(to) : to;
+			setPiece(capturedSquare, capturedType, 1 - color);
+		}
+		key = keys[plyCount];
+		if (isKeyVerified) {
+			verifyKey();
+		}
+	}
+
+	// Passes the turn, which is not a legal move: the search uses it to tell whether the position is already so good
+	// that the opponent cannot recover even with a free move. Repetitions are not looked for across it.
+	public void doNullMove() {
+		if (plyCount == moves.length) {
+			growHistory();
+		}
+		states[plyCount] = castlingRights | ((enPassantSquare + 1) << 4) | (reversiblePlies << 11)
+			| ((long) halfMoveClock << 32);
+		keys[plyCount] = key;
+		key ^= ZobristHelper.getEnPassantKey(enPassantSquare) ^ ZobristHelper.getToPlayKey(Color.BLACK);
+		enPassantSquare = NONE;
+		reversiblePlies = 0;
+		moves[plyCount] = PackedMove.NULL;
+		plyCount++;
+		toPlay = swap(toPlay);
+		if (isKeyVerified) {
+			verifyKey();
+		}
+	}
+
+	public void undoNullMove() {
+		plyCount--;
+		toPlay = swap(toPlay);
+		final long state = states[plyCount];
+		enPassantSquare = (int) ((state >> 4) & 0x7F) - 1;
+		reversiblePlies = (int) ((state >>> 11) & 0x1FFFFF);
+		key = keys[plyCount];
+	}
+
+	public boolean isLastMoveNull() {
+		return plyCount > 0 && moves[plyCount - 1] == PackedMove.NULL;
+	}
+
+	private void updateDevelopment(int move, int parity) {
+		// In the opening, a major piece should not be used and a piece should not be moved twice, which is told by a
+		// move starting from a square where a previous opening move landed. These mistakes do not matter anymore once
+		// the opening is over. Castling is always good, but any other king move drops the right for it.
+		int state = developmentStates[parity];
+		final int movesCount = state >>> DEVELOPMENT_MOVES_SHIFT;
+		final int type = PackedMove.getPieceType(move);
+		final boolean isCastling = PackedMove.getFlag(move) == PackedMove.CASTLING;
+		if (movesCount < OPENING_MOVES_COUNT && !isCastling && type != PAWN) {
+			if (type == QUEEN || type == ROOK || type == KING) {
+				state |= MAJOR_PIECE_MOVED;
+			}
+			if ((landingSquares[parity] & toBit(PackedMove.getFrom(move))) != 0) {
+				state |= PIECE_MOVED_TWICE;
+			}
+			landingSquares[parity] |= toBit(PackedMove.getTo(move));
+		}
+		if (isCastling) {
+			state |= CASTLED;
+		}
+		if (type == KING) {
+			state |= KING_MOVED;
+		}
+		if (movesCount <= OPENING_MOVES_COUNT) {
+			state += 1 << DEVELOPMENT_MOVES_SHIFT;
+			if (movesCount == OPENING_MOVES_COUNT) {
+				state &= ~(MAJOR_PIECE_MOVED | PIECE_MOVED_TWICE);
+			}
+		}
+		developmentStates[parity] = state;
+	}
+
+	long computeKey() {
+		long computedKey = ZobristHelper.getCastlingRightsKey(castlingRights)
+			^ ZobristHelper.getEnPassantKey(enPassantSquare) ^ ZobristHelper.getToPlayKey(toPlay);
+		for (int square = 0; square < SQUARES; square++) {
+			if (types[square] != NONE) {
+				computedKey ^= ZobristHelper.getPieceKey(getColor(square).ordinal(), types[square], square);
+			}
+		}
+		return computedKey;
+	}
+
+	long computePawnKey() {
+		long computedKey = 0L;
+		for (int color = 0; color < 2; color++) {
+			long pawns = pieces[color * PIECE_TYPES + PAWN];
+			while (pawns != 0L) {
+				computedKey ^= ZobristHelper.getPieceKey(color, PAWN, Long.numberOfTrailingZeros(pawns));
+				pawns &= pawns - 1;
+			}
+		}
+		return computedKey;
+	}
+
+	private void verifyKey() {
+		if (key != computeKey()) {
+			throw new RuntimeException("Incremental key differs from the computed one after move " + plyCount);
+		}
+		if (pawnKey != computePawnKey()) {
+			throw new RuntimeException("Incremental pawn key differs from the computed one after move " + plyCount);
+		}
+	}
+
+	public static int toPackedMove(Move move) {
+		return toPackedMove(move, null);
+	}
+
+	private static int toPackedMove(Move move, Board board) {
+		final int from = toSquare(move.getFromX(), move.getFromY());
+		final int to = toSquare(move.getToX(), move.getToY());
+		final int capturedType = move.isTaking() ? getType(move.getTookPiece()) : NONE;
+		if (move.getPiece() == null && board != null) {
+			// Moves built from a notation do not know their piece, the best guess is the piece now on the target square
+			final int pieceType = board.getPiece(move.getToX(), move.getToY()).map(BitBoard::getType).orElse(PAWN);
+			return PackedMove.of(from, to, pieceType, capturedType);
+		}
+		int packedMove;
+		if (move instanceof EnPassantMove) {
+			packedMove = PackedMove.of(from, to, PAWN, capturedType, PackedMove.EN_PASSANT, 0);
+		} else if (move instanceof CastlingMove) {
+			packedMove = PackedMove.of(from, to, KING, capturedType, PackedMove.CASTLING, 0);
+		} else if (move instanceof PromotionMove) {
+			packedMove = PackedMove.of(from, to, PAWN, capturedType, PackedMove.PROMOTION,
+				getType(((PromotionMove) move).getPromotedPiece()));
+		} else {
+			packedMove = PackedMove.of(from, to, getType(move.getPiece()), capturedType);
+		}
+		return move.isChecking() ? PackedMove.withChecking(packedMove) : packedMove;
+	}
+
+	// Materializes a packed move that is about to be played on this position
+	public Move toMove(int packedMove) {
+		final int from = PackedMove.getFrom(packedMove);
+		final int to = PackedMove.getTo(packedMove);
+		final int flag = PackedMove.getFlag(packedMove);
+		final Piece piece = getPiece(from);
+		Move move = new Move(piece, getX(from), getY(from), getX(to), getY(to));
+		move.setChecking(PackedMove.isChecking(packedMove));
+		switch (flag) {
+			case PackedMove.EN_PASSANT:
+				final int capturedSquare = getEnPassantCapturedSquare(to);
+				move.setTookPiece(getPiece(capturedSquare));
+				return new EnPassantMove(move, getX(capturedSquare), getY(capturedSquare));
+			case PackedMove.CASTLING:
+				final int rookFrom = getCastlingRookFrom(to);
+				final int rookTo = getCastlingRookTo(to);
+				CastlingMove castlingMove = new CastlingMove(piece, getX(from), getY(from), getX(to), getY(to),
+					getPiece(rookFrom), getX(rookFrom), getY(rookFrom), getX(rookTo), getY(rookTo));
+				castlingMove.setChecking(move.isChecking());
+				return castlingMove;
+			case PackedMove.PROMOTION:
+				move.setTookPiece(getPiece(to));
+				return new PromotionMove(move, createPiece(PackedMove.getPromotedType(packedMove), piece.getColor()));
+			default:
+				move.setTookPiece(getPiece(to));
+				return move;
+		}
+	}
+
+	public static int getType(Piece piece) {
+		if (piece instanceof Pawn) {
+			return PAWN;
+		} else if (piece instanceof Knight) {
+			return KNIGHT;
+		} else if (piece instanceof Bishop) {
+			return BISHOP;
+		} else if (piece instanceof Rook) {
+			return ROOK;
+		} else if (piece instanceof Queen) {
+			return QUEEN;
+		} else if (piece instanceof King) {
+			return KING;
+		}
+		throw new RuntimeException("Unexpected piece type");
+	}
+
+	private static Piece createPiece(int type, Color color) {
+		return PIECES[color.ordinal()][type];
+	}
+
+	private void setPiece(int square, Piece piece) {
+		setPiece(square, getType(piece), piece.getColor().ordinal());
+	}
+
+	private void setPiece(int square, int type, int color) {
+		final long bit = toBit(square);
+		pieces[color * PIECE_TYPES + type] |= bit;
+		colors[color] |= bit;
+		types[square] = type;
+		materials[color] += PIECE_VALUES[type];
+		final long pieceKey = ZobristHelper.getPieceKey(color, type, square);
+		key ^= pieceKey;
+		if (type == PAWN) {
+			pawnKey ^= pieceKey;
+		}
+	}
+
+	private void removePiece(int square) {
+		final long bit = toBit(square);
+		final int color = (colors[0] & bit) != 0 ? 0 : 1;
+		final long pieceKey = ZobristHelper.getPieceKey(color, types[square], square);
+		key ^= pieceKey;
+		if (types[square] == PAWN) {
+			pawnKey ^= pieceKey;
+		}
+		materials[color] -= PIECE_VALUES[types[square]];
+		pieces[color * PIECE_TYPES + types[square]] &= ~bit;
+		colors[color] &= ~bit;
+		types[square] = NONE;
+	}
+
+	private void growHistory() {
+		final int capacity = moves.length * 2;
+		moves = Arrays.copyOf(moves, capacity);
+		states = Arrays.copyOf(states, capacity);
+		keys = Arrays.copyOf(keys, capacity);
+		capturedTypes = Arrays.copyOf(capturedTypes, capacity);
+		previousDevelopmentStates = Arrays.copyOf(previousDevelopmentStates, capacity);
+		previousLandingSquares = Arrays.copyOf(previousLandingSquares, capacity);
+	}
+
+	private int getEnPassantCapturedSquare(int to) {
+		// The pawn taken en passant is just behind the target square, from the player point of view
+		return toPlay == Color.WHITE ? to - SIZE : to + SIZE;
+	}
+
+	private static int getCastlingRookFrom(int kingTo) {
+		return getX(kingTo) == 6 ? kingTo + 1 : kingTo - 2;
+	}
+
+	private static int getCastlingRookTo(int kingTo) {
+		return getX(kingTo) == 6 ? kingTo - 1 : kingTo + 1;
+	}
+
+	static int getCastlingRightsLostBy(int square) {
+		// Any move from or to the initial square of a king or a rook drops the related castling rights
+		switch (square) {
+			case 4:
+				return WHITE_KING_SIDE | WHITE_QUEEN_SIDE;
+			case 0:
+				return WHITE_QUEEN_SIDE;
+			case 7:
+				return WHITE_KING_SIDE;
+			case 60:
+				return BLACK_KING_SIDE | BLACK_QUEEN_SIDE;
+			case 56:
+				return BLACK_QUEEN_SIDE;
+			case 63:
+				return BLACK_KING_SIDE;
+			default:
+				return 0;
+		}
+	}
+
+	private static int getInitialCastlingRights(BitBoard bitBoard) {
+		int rights = 0;
+		if (isInitialSquare(bitBoard, 4, KING, Color.WHITE)) {
+			if (isInitialSquare(bitBoard, 7, ROOK, Color.WHITE)) {
+				rights |= WHITE_KING_SIDE;
+			}
+			if (isInitialSquare(bitBoard, 0, ROOK, Color.WHITE)) {
+				rights |= WHITE_QUEEN_SIDE;
+			}
+		}
+		if (isInitialSquare(bitBoard, 60, KING, Color.BLACK)) {
+			if (isInitialSquare(bitBoard, 63, ROOK, Color.BLACK)) {
+				rights |= BLACK_KING_SIDE;
+			}
+			if (isInitialSquare(bitBoard, 56, ROOK, Color.BLACK)) {
+				rights |= BLACK_QUEEN_SIDE;
+			}
+		}
+		return rights;
+	}
+
+	private static boolean isInitialSquare(BitBoard bitBoard, int square, int type, Color color) {
+		return (bitBoard.getPieces(color, type) & toBit(square)) != 0;
+	}
+}
@@ -0,0 +1,12 @@
+package ch.teemoo.bobby.models;
+
+// Squares of the pieces, one bit per square, so that what they attack is found with the attack tables
+public interface Bitboards {
+	long getPieces(Color color, int type);
+
+	long getPieces(Color color);
+
+	long getOccupied();
+
+	int getKingSquare(Color color);
+}
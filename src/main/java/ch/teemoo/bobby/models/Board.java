@@ -1,5 +1,16 @@
 package ch.teemoo.bobby.models;
 
+import static ch.teemoo.bobby.helpers.BitBoardHelper.toBit;
+import static ch.teemoo.bobby.helpers.BitBoardHelper.toSquare;
+import static ch.teemoo.bobby.models.BitBoard.BLACK_KING_SIDE;
+import static ch.teemoo.bobby.models.BitBoard.BLACK_QUEEN_SIDE;
+import static ch.teemoo.bobby.models.BitBoard.NONE;
+import static ch.teemoo.bobby.models.BitBoard.PIECE_TYPES;
+import static ch.teemoo.bobby.models.BitBoard.WHITE_KING_SIDE;
+import static ch.teemoo.bobby.models.BitBoard.WHITE_QUEEN_SIDE;
+import static ch.teemoo.bobby.models.BitBoard.getCastlingRightsLostBy;
+
+import java.util.Arrays;
 import java.util.Optional;
 
 import ch.teemoo.bobby.models.moves.CastlingMove;
@@ -9,19 +20,55 @@ import ch.teemoo.bobby.models.moves.PromotionMove;
 import ch.teemoo.bobby.models.pieces.*;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
-public class Board {
+public class Board implements Bitboards {
     public final static int SIZE = 8;
+    private final static int INITIAL_STATES_CAPACITY = 64;
 
     private final Piece[][] board;
+    // Part of the position which is not told by the pieces, so that the moves do not depend on the history
+    private int castlingRights;
+    private int enPassantSquare;
+    private int halfMoveClock;
+    // Square of the king of each color, kept along the moves instead of being searched for
+    private final int[] kingSquares;
+    // Same bitboards as in BitBoard, by color and type and by color, kept along the moves so that the attacks of the
+    // pieces are found with the precomputed tables
+    private final long[] pieces;
+    private final long[] colors;
+    // States before each move played, to restore them when undoing the moves
+    private int[] states;
+    private int statesCount;
 
     //fixme: do not store pieces array (mutable internal representation)
     @SuppressFBWarnings("EI_EXPOSE_REP")
     public Board(Piece[][] board) {
-        this.board = board;
+        this(board, NONE, NONE, 0);
+        this.castlingRights = getInitialCastlingRights();
     }
 
     public Board(String representation) {
-        this.board = fromString(representation);
+        this(fromString(representation));
+    }
+
+    Board(Piece[][] board, int castlingRights, int enPassantSquare, int halfMoveClock) {
+        this.board = board;
+        this.castlingRights = castlingRights;
+        this.enPassantSquare = enPassantSquare;
+        this.halfMoveClock = halfMoveClock;
+        this.states = new int[INITIAL_STATES_CAPACITY];
+        this.kingSquares = new int[] {NONE, NONE};
+        this.pieces = new long[2 * PIECE_TYPES];
+        this.colors = new long[2];
+        for (int y = 0; y < SIZE; y++) {
+            for (int x = 0; x < SIZE; x++) {
+                if (board[y][x] instanceof King) {
+                    kingSquares[board[y][x].getColor().ordinal()] = toSquare(x, y);
+                }
+                if (board[y][x] != null) {
+                    toggleBits(x, y, board[y][x]);
+                }
+            }
+        }
     }
 
     //fixme: do not expose pieces array (mutable internal representation)
@@ -34,6 +81,38 @@ public class Board {
         return Optional.ofNullable(board[y][x]);
     }
 
+    public int getKingSquare(Color color) {
+        return kingSquares[color.ordinal()];
+    }
+
+    public long getPieces(Color color, int type) {
+        return pieces[color.ordinal() * PIECE_TYPES + type];
+    }
+
+    public long getPieces(Color color) {
+        return colors[color.ordinal()];
+    }
+
+    public long getOccupied() {
+        return colors[0] | colors[1];
+    }
+
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    public boolean hasCastlingRight(int castlingRight) {
+        return (castlingRights & castlingRight) != 0;
+    }
+
+    public int getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    public int getHalfMoveClock() {
+        return halfMoveClock;
+    }
+
     public String toString() {
         StringBuilder builder = new StringBuilder();
         for (int i = SIZE - 1; i >= 0; i--) {
@@ -52,19 +131,24 @@ public class Board {
     }
 
     public Board copy() {
-        Board clone = new Board(new Piece[SIZE][SIZE]);
-        for (int i = 0; i < SIZE; i++) {
-            for (int j = 0; j < SIZE; j++) {
-                Optional<Piece> piece = getPiece(i, j);
-                if (piece.isPresent()) {
-                    clone.setPiece(i, j, piece.get().copy());
-                }
-            }
+        // The pieces are shared, only the squares are copied
+        Piece[][] squares = new Piece[SIZE][];
+        for (int y = 0; y < SIZE; y++) {
+            squares[y] = board[y].clone();
         }
+        Board clone = new Board(squares, castlingRights, enPassantSquare, halfMoveClock);
+        clone.states = Arrays.copyOf(states, states.length);
+        clone.statesCount = statesCount;
         return clone;
     }
 
     public void doMove(Move move) {
+        if (statesCount == states.length) {
+            states = Arrays.copyOf(states, states.length * 2);
+        }
+        states[statesCount++] = castlingRights | ((enPassantSquare + 1) << 4) | (halfMoveClock << 11);
+        updateState(move);
+
         removePiece(move.getFromX(), move.getFromY());
         Piece piece = move.getPiece();
         if (move instanceof PromotionMove) {
@@ -83,6 +167,14 @@ public class Board {
     }
 
     public void undoMove(Move move) {
+        // A move played before this board was set up leaves the state as it is
+        if (statesCount > 0) {
+            final int state = states[--statesCount];
+            castlingRights = state & 0xF;
+            enPassantSquare = ((state >> 4) & 0x7F) - 1;
+            halfMoveClock = state >>> 11;
+        }
+
         removePiece(move.getToX(), move.getToY());
         Piece piece = move.getPiece();
         setPiece(move.getFromX(), move.getFromY(), piece);
@@ -102,17 +194,73 @@ public class Board {
         }
     }
 
+    private void updateState(Move move) {
+        final int from = toSquare(move.getFromX(), move.getFromY());
+        final int to = toSquare(move.getToX(), move.getToY());
+        castlingRights &= ~(getCastlingRightsLostBy(from) | getCastlingRightsLostBy(to));
+        final boolean isPawnMove = move.getPiece() instanceof Pawn;
+        if (isPawnMove && Math.abs(to - from) == 2 * SIZE) {
+            enPassantSquare = (from + to) / 2;
+        } else {
+            enPassantSquare = NONE;
+        }
+        if (isPawnMove || board[move.getToY()][move.getToX()] != null) {
+            halfMoveClock = 0;
+        } else {
+            halfMoveClock++;
+        }
+    }
+
+    private int getInitialCastlingRights() {
+        int rights = 0;
+        if (board[0][4] == King.WHITE) {
+            rights |= board[0][7] == Rook.WHITE ? WHITE_KING_SIDE : 0;
+            rights |= board[0][0] == Rook.WHITE ? WHITE_QUEEN_SIDE : 0;
+        }
+        if (board[7][4] == King.BLACK) {
+            rights |= board[7][7] == Rook.BLACK ? BLACK_KING_SIDE : 0;
+            rights |= board[7][0] == Rook.BLACK ? BLACK_QUEEN_SIDE : 0;
+        }
+        return rights;
+    }
+
     private void setPiece(int x, int y, Piece piece) {
+        clearKingSquare(x, y);
+        if (board[y][x] != null) {
+            toggleBits(x, y, board[y][x]);
+        }
         board[y][x] = piece;
+        toggleBits(x, y, piece);
+        if (piece instanceof King) {
+            kingSquares[piece.getColor().ordinal()] = toSquare(x, y);
+        }
     }
 
     private Optional<Piece> removePiece(int x, int y) {
         Optional<Piece> toRemove = getPiece(x, y);
+        clearKingSquare(x, y);
+        if (board[y][x] != null) {
+            toggleBits(x, y, board[y][x]);
+        }
         board[y][x] = null;
         return toRemove;
     }
 
-    private Piece[][] fromString(String value) {
+    private void toggleBits(int x, int y, Piece piece) {
+        final long bit = toBit(toSquare(x, y));
+        pieces[piece.getColor().ordinal() * PIECE_TYPES + BitBoard.getType(piece)] ^= bit;
+        colors[piece.getColor().ordinal()] ^= bit;
+    }
+
+    private void clearKingSquare(int x, int y) {
+        // A king can only be taken when trying moves which are not valid, it is then missing until the move is undone
+        Piece piece = board[y][x];
+        if (piece instanceof King && kingSquares[piece.getColor().ordinal()] == toSquare(x, y)) {
+            kingSquares[piece.getColor().ordinal()] = NONE;
+        }
+    }
+
+    private static Piece[][] fromString(String value) {
         Piece[][] pieces = new Piece[SIZE][SIZE];
         String[] lines = value.split("\n");
         assert lines.length == SIZE;
@@ -0,0 +1,85 @@
+package ch.teemoo.bobby.models;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+public class EvaluationCache {
+	public final static int DEFAULT_SIZE_MB = 8;
+	public final static int MISSING = Integer.MIN_VALUE;
+
+	// Each entry is made of two longs: the key and the score
+	private final static int ENTRY_BYTES = 16;
+	private final static int MAX_ENTRIES = 1 << 30;
+	// Set in the stored data, so that a score of 0 is told apart from an empty entry
+	private final static long PRESENT = 1L << 32;
+
+	// As in the transposition table, the key is stored xor-ed with the data, so that the threads can share the cache
+	// without any lock: an entry made of the key of one position and the score of another is not found
+	private final long[] keys;
+	private final long[] data;
+	private final int mask;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	public EvaluationCache(int sizeMb) {
+		if (sizeMb <= 0) {
+			throw new IllegalArgumentException("Evaluation cache size must be positive: " + sizeMb);
+		}
+		final long entries = Long.highestOneBit((long) sizeMb * 1024 * 1024 / ENTRY_BYTES);
+		final int size = (int) Math.min(entries, MAX_ENTRIES);
+		this.keys = new long[size];
+		this.data = new long[size];
+		this.mask = size - 1;
+	}
+
+	public int getSize() {
+		return keys.length;
+	}
+
+	// Returns the score stored for this key, or MISSING if there is none
+	public int probe(long key) {
+		final int index = (int) key & mask;
+		final long entryData = data[index];
+		if ((keys[index] ^ entryData) == key && entryData != 0) {
+			hits.increment();
+			return (int) entryData;
+		}
+		misses.increment();
+		return MISSING;
+	}
+
+	// The last evaluated position always replaces the one stored at the same index
+	public void store(long key, int score) {
+		final int index = (int) key & mask;
+		final long newData = PRESENT | (score & 0xFFFFFFFFL);
+		data[index] = newData;
+		keys[index] = key ^ newData;
+	}
+
+	public void clear() {
+		Arrays.fill(keys, 0L);
+		Arrays.fill(data, 0L);
+		resetStats();
+	}
+
+	// The scores are kept, only the hits and misses are counted again
+	public void resetStats() {
+		hits.reset();
+		misses.reset();
+	}
+
+	public long getHits() {
+		return hits.sum();
+	}
+
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	public double getHitRate() {
+		final long hitsCount = getHits();
+		final long probes = hitsCount + getMisses();
+		return probes == 0 ? 0 : (double) hitsCount / probes;
+	}
+}
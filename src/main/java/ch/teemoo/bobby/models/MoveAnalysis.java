@@ -1,11 +1,15 @@
 package ch.teemoo.bobby.models;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import ch.teemoo.bobby.models.moves.Move;
 
 public class MoveAnalysis {
 	private final Move move;
 	private int score;
 	private MoveAnalysis nextProbableMove;
+	private long nodes;
 
 	public MoveAnalysis(Move move) {
 		this.move = move;
@@ -30,4 +34,22 @@ public class MoveAnalysis {
 	public void setNextProbableMove(MoveAnalysis nextProbableMove) {
 		this.nextProbableMove = nextProbableMove;
 	}
+
+	// This move followed by the expected replies of both players
+	public List<Move> getPrincipalVariation() {
+		List<Move> moves = new ArrayList<>();
+		for (MoveAnalysis moveAnalysis = this; moveAnalysis != null; moveAnalysis = moveAnalysis.nextProbableMove) {
+			moves.add(moveAnalysis.getMove());
+		}
+		return moves;
+	}
+
+	// Number of positions searched to find this move
+	public long getNodes() {
+		return nodes;
+	}
+
+	public void setNodes(long nodes) {
+		this.nodes = nodes;
+	}
 }
@@ -0,0 +1,77 @@
+package ch.teemoo.bobby.models;
+
+// How a bot searches, apart from the depth and the time it is given
+public record SearchSettings(int threads, int quiescenceNodes, int nullMoveReduction, int lateMoveReduction,
+	int fullDepthMoves, long maxNodes, boolean rootSplit) {
+	public final static int DEFAULT_QUIESCENCE_NODES = 500;
+	public final static SearchSettings DEFAULT = new SearchSettings(1, DEFAULT_QUIESCENCE_NODES, 0, 0, 0, 0L, false);
+
+	public SearchSettings {
+		if (threads < 1) {
+			throw new IllegalArgumentException("At least one thread is needed to search: " + threads);
+		}
+		if (quiescenceNodes < 0) {
+			throw new IllegalArgumentException("Quiescence nodes budget cannot be negative: " + quiescenceNodes);
+		}
+		if (nullMoveReduction < 0 || lateMoveReduction < 0 || fullDepthMoves < 0) {
+			throw new IllegalArgumentException("Reductions cannot be negative: " + nullMoveReduction + ", "
+				+ lateMoveReduction + ", " + fullDepthMoves);
+		}
+		if (maxNodes < 0) {
+			throw new IllegalArgumentException("Nodes budget cannot be negative: " + maxNodes);
+		}
+	}
+
+	public SearchSettings withThreads(int threads) {
+		return new SearchSettings(threads, quiescenceNodes, nullMoveReduction, lateMoveReduction, fullDepthMoves,
+			maxNodes, rootSplit);
+	}
+
+	// Maximum number of nodes searched after each leaf to resolve the captures, 0 to evaluate the leaves as they are
+	public SearchSettings withQuiescenceNodes(int quiescenceNodes) {
+		return new SearchSettings(threads, quiescenceNodes, nullMoveReduction, lateMoveReduction, fullDepthMoves,
+			maxNodes, rootSplit);
+	}
+
+	// Depth removed from the search after passing the turn, 0 to never try it
+	public SearchSettings withNullMoveReduction(int nullMoveReduction) {
+		return new SearchSettings(threads, quiescenceNodes, nullMoveReduction, lateMoveReduction, fullDepthMoves,
+			maxNodes, rootSplit);
+	}
+
+	// Depth removed from the search of the quiet moves ordered after the given number of moves, 0 to search all of
+	// them at full depth
+	public SearchSettings withLateMoveReduction(int lateMoveReduction, int fullDepthMoves) {
+		return new SearchSettings(threads, quiescenceNodes, nullMoveReduction, lateMoveReduction, fullDepthMoves,
+			maxNodes, rootSplit);
+	}
+
+	// Nodes searched after which the search stops as if the time was over, 0 for no limit. Like the time, the budget
+	// is only checked once the first depth is completed.
+	public SearchSettings withMaxNodes(long maxNodes) {
+		return new SearchSettings(threads, quiescenceNodes, nullMoveReduction, lateMoveReduction, fullDepthMoves,
+			maxNodes, rootSplit);
+	}
+
+	// Whether the root moves are searched in parallel, each one by its own task on the pool of the move service
+	public SearchSettings withRootSplit(boolean rootSplit) {
+		return new SearchSettings(threads, quiescenceNodes, nullMoveReduction, lateMoveReduction, fullDepthMoves,
+			maxNodes, rootSplit);
+	}
+
+	public boolean isQuiescence() {
+		return quiescenceNodes > 0;
+	}
+
+	public boolean isNullMovePruning() {
+		return nullMoveReduction > 0;
+	}
+
+	public boolean isLateMoveReduction() {
+		return lateMoveReduction > 0;
+	}
+
+	public boolean hasNodesLimit() {
+		return maxNodes > 0;
+	}
+}
@@ -0,0 +1,126 @@
+package ch.teemoo.bobby.models;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+public class TranspositionTable {
+	public final static int DEFAULT_SIZE_MB = 64;
+
+	public final static int EXACT = 1;
+	public final static int LOWER_BOUND = 2;
+	public final static int UPPER_BOUND = 3;
+
+	// Each entry is made of two longs: the key and the data
+	private final static int ENTRY_BYTES = 16;
+	private final static int MAX_ENTRIES = 1 << 30;
+
+	// Data layout: move (0-23), score (24-39), depth (40-47), bound (48-49), age (50-57)
+	private final static long MOVE_MASK = 0xFFFFFFL;
+	private final static int SCORE_SHIFT = 24;
+	private final static int DEPTH_SHIFT = 40;
+	private final static int BOUND_SHIFT = 48;
+	private final static int AGE_SHIFT = 50;
+
+	// The key is stored xor-ed with the data, so that an entry written concurrently by another thread (and so made of
+	// the key of one entry and the data of another) is detected and ignored, without any lock
+	private final long[] keys;
+	private final long[] data;
+	private final int mask;
+	private int age;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder collisions = new LongAdder();
+
+	public TranspositionTable(int sizeMb) {
+		if (sizeMb <= 0) {
+			throw new IllegalArgumentException("Transposition table size must be positive: " + sizeMb);
+		}
+		final long entries = Long.highestOneBit((long) sizeMb * 1024 * 1024 / ENTRY_BYTES);
+		final int size = (int) Math.min(entries, MAX_ENTRIES);
+		this.keys = new long[size];
+		this.data = new long[size];
+		this.mask = size - 1;
+	}
+
+	public int getSize() {
+		return keys.length;
+	}
+
+	// Returns the data of the entry stored for this key, or 0 if there is none
+	public long probe(long key) {
+		final int index = (int) key & mask;
+		final long entryData = data[index];
+		if ((keys[index] ^ entryData) == key && entryData != 0) {
+			hits.increment();
+			return entryData;
+		}
+		if (entryData == 0) {
+			misses.increment();
+		} else {
+			collisions.increment();
+		}
+		return 0L;
+	}
+
+	public void store(long key, int depth, int bound, int score, int move) {
+		final int index = (int) key & mask;
+		final long entryData = data[index];
+		// Deeper entries are more valuable, unless they were stored for another position in a previous search
+		if (entryData != 0 && (keys[index] ^ entryData) != key && getAge(entryData) == age
+			&& getDepth(entryData) > depth) {
+			return;
+		}
+		final long newData = (move & MOVE_MASK)
+			| ((score & 0xFFFFL) << SCORE_SHIFT)
+			| ((long) depth << DEPTH_SHIFT)
+			| ((long) bound << BOUND_SHIFT)
+			| ((long) age << AGE_SHIFT);
+		data[index] = newData;
+		keys[index] = key ^ newData;
+	}
+
+	public void newSearch() {
+		age = (age + 1) & 0xFF;
+	}
+
+	public void clear() {
+		Arrays.fill(keys, 0L);
+		Arrays.fill(data, 0L);
+		hits.reset();
+		misses.reset();
+		collisions.reset();
+	}
+
+	public long getHits() {
+		return hits.sum();
+	}
+
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	public long getCollisions() {
+		return collisions.sum();
+	}
+
+	public static int getMove(long entryData) {
+		return (int) (entryData & MOVE_MASK);
+	}
+
+	public static int getScore(long entryData) {
+		return (short) (entryData >>> SCORE_SHIFT);
+	}
+
+	public static int getDepth(long entryData) {
+		return (int) (entryData >>> DEPTH_SHIFT) & 0xFF;
+	}
+
+	public static int getBound(long entryData) {
+		return (int) (entryData >>> BOUND_SHIFT) & 0x3;
+	}
+
+	private static int getAge(long entryData) {
+		return (int) (entryData >>> AGE_SHIFT) & 0xFF;
+	}
+}
@@ -0,0 +1,36 @@
+package ch.teemoo.bobby.models.games;
+
+import java.time.Duration;
+
+import ch.teemoo.bobby.models.Color;
+
+public record Clock(Duration whiteTime, Duration blackTime, Duration whiteIncrement, Duration blackIncrement) {
+    // Moves still expected to be played, at least, when the remaining time is split between them
+    private final static int MIN_MOVES_TO_GO = 20;
+    private final static int EXPECTED_MOVES = 45;
+    // Kept for the network and the moves processing, so that the clock never runs out because of them
+    private final static Duration SAFETY_MARGIN = Duration.ofMillis(150);
+    private final static Duration MIN_BUDGET = Duration.ofMillis(10);
+
+    public Duration getTime(Color color) {
+        return color == Color.WHITE ? whiteTime : blackTime;
+    }
+
+    public Duration getIncrement(Color color) {
+        return color == Color.WHITE ? whiteIncrement : blackIncrement;
+    }
+
+    public Duration getMoveBudget(Color color, int movesPlayed) {
+        // Share the remaining time between the moves still to play, and spend most of the increment on each one
+        final Duration available = getTime(color).minus(SAFETY_MARGIN);
+        final int movesToGo = Math.max(MIN_MOVES_TO_GO, EXPECTED_MOVES - movesPlayed);
+        Duration budget = available.dividedBy(movesToGo).plus(getIncrement(color).multipliedBy(3).dividedBy(4));
+
+        // Never bet more than half of what is left on a single move
+        final Duration max = available.dividedBy(2);
+        if (budget.compareTo(max) > 0) {
+            budget = max;
+        }
+        return budget.compareTo(MIN_BUDGET) < 0 ? MIN_BUDGET : budget;
+    }
+}
@@ -5,6 +5,7 @@ import static ch.teemoo.bobby.models.Board.SIZE;
 import java.util.ArrayList;
 import java.util.List;
 
+import ch.teemoo.bobby.models.BitBoard;
 import ch.teemoo.bobby.models.Board;
 import ch.teemoo.bobby.models.Color;
 import ch.teemoo.bobby.models.moves.Move;
@@ -22,9 +23,12 @@ public class Game {
     final Player blackPlayer;
     final Board board;
     final List<Move> history;
+    // Position the game started from when it is not the initial one, null otherwise
+    final String initialFen;
     Color toPlay;
     GameState state;
     String opening;
+    Clock clock;
 
     public Game(Player whitePlayer, Player blackPlayer) {
         this.whitePlayer = whitePlayer;
@@ -33,6 +37,19 @@ public class Game {
         this.history = new ArrayList<>();
         this.state = GameState.IN_PROGRESS;
         this.board = new Board(getInitialPiecesPositions());
+        this.initialFen = null;
+    }
+
+    public Game(Player whitePlayer, Player blackPlayer, String initialFen) {
+        // The moves played before the position are not known, the history only holds those played from it
+        BitBoard bitBoard = BitBoard.fromFen(initialFen);
+        this.whitePlayer = whitePlayer;
+        this.blackPlayer = blackPlayer;
+        this.toPlay = bitBoard.getToPlay();
+        this.history = new ArrayList<>();
+        this.state = GameState.IN_PROGRESS;
+        this.board = bitBoard.toBoard();
+        this.initialFen = initialFen;
     }
 
     public Player getWhitePlayer() {
@@ -51,6 +68,10 @@ public class Game {
         return history;
     }
 
+    public String getInitialFen() {
+        return initialFen;
+    }
+
     public Color getToPlay() {
         return toPlay;
     }
@@ -75,6 +96,15 @@ public class Game {
         this.opening = opening;
     }
 
+    // Only known when the game is played with a clock, null otherwise
+    public Clock getClock() {
+        return clock;
+    }
+
+    public void setClock(Clock clock) {
+        this.clock = clock;
+    }
+
     public void addMoveToHistory(Move move) {
         this.history.add(move);
     }
@@ -113,39 +143,39 @@ public class Game {
 
     private Piece[][] getInitialPiecesPositions() {
         Piece[][] pos = new Piece[SIZE][SIZE];
-        pos[0][0] = new Rook(Color.WHITE);
-        pos[0][1] = new Knight(Color.WHITE);
-        pos[0][2] = new Bishop(Color.WHITE);
-        pos[0][3] = new Queen(Color.WHITE);
-        pos[0][4] = new King(Color.WHITE);
-        pos[0][5] = new Bishop(Color.WHITE);
-        pos[0][6] = new Knight(Color.WHITE);
-        pos[0][7] = new Rook(Color.WHITE);
-        pos[1][0] = new Pawn(Color.WHITE);
-        pos[1][1] = new Pawn(Color.WHITE);
-        pos[1][2] = new Pawn(Color.WHITE);
-        pos[1][3] = new Pawn(Color.WHITE);
-        pos[1][4] = new Pawn(Color.WHITE);
-        pos[1][5] = new Pawn(Color.WHITE);
-        pos[1][6] = new Pawn(Color.WHITE);
-        pos[1][7] = new Pawn(Color.WHITE);
-
-        pos[7][0] = new Rook(Color.BLACK);
-        pos[7][1] = new Knight(Color.BLACK);
-        pos[7][2] = new Bishop(Color.BLACK);
-        pos[7][3] = new Queen(Color.BLACK);
-        pos[7][4] = new King(Color.BLACK);
-        pos[7][5] = new Bishop(Color.BLACK);
-        pos[7][6] = new Knight(Color.BLACK);
-        pos[7][7] = new Rook(Color.BLACK);
-        pos[6][0] = new Pawn(Color.BLACK);
-        pos[6][1] = new Pawn(Color.BLACK);
-        pos[6][2] = new Pawn(Color.BLACK);
-        pos[6][3] = new Pawn(Color.BLACK);
-        pos[6][4] = new Pawn(Color.BLACK);
-        pos[6][5] = new Pawn(Color.BLACK);
-        pos[6][6] = new Pawn(Color.BLACK);
-        pos[6][7] = new Pawn(Color.BLACK);
+        pos[0][0] = Rook.WHITE;
+        pos[0][1] = Knight.WHITE;
+        pos[0][2] = Bishop.WHITE;
+        pos[0][3] = Queen.WHITE;
+        pos[0][4] = King.WHITE;
+        pos[0][5] = Bishop.WHITE;
+        pos[0][6] = Knight.WHITE;
+        pos[0][7] = Rook.WHITE;
+        pos[1][0] = Pawn.WHITE;
+        pos[1][1] = Pawn.WHITE;
+        pos[1][2] = Pawn.WHITE;
+        pos[1][3] = Pawn.WHITE;
+        pos[1][4] = Pawn.WHITE;
+        pos[1][5] = Pawn.WHITE;
+        pos[1][6] = Pawn.WHITE;
+        pos[1][7] = Pawn.WHITE;
+
+        pos[7][0] = Rook.BLACK;
+        pos[7][1] = Knight.BLACK;
+        pos[7][2] = Bishop.BLACK;
+        pos[7][3] = Queen.BLACK;
+        pos[7][4] = King.BLACK;
+        pos[7][5] = Bishop.BLACK;
+        pos[7][6] = Knight.BLACK;
+        pos[7][7] = Rook.BLACK;
+        pos[6][0] = Pawn.BLACK;
+        pos[6][1] = Pawn.BLACK;
+        pos[6][2] = Pawn.BLACK;
+        pos[6][3] = Pawn.BLACK;
+        pos[6][4] = Pawn.BLACK;
+        pos[6][5] = Pawn.BLACK;
+        pos[6][6] = Pawn.BLACK;
+        pos[6][7] = Pawn.BLACK;
 
         return pos;
     }
@@ -143,7 +143,7 @@ public class Move {
 
 		if (takingChar == 'x') {
 			//fixme: do not know here what piece is on the board at this place but we must mark the move as taking
-			move.setTookPiece(new Pawn(color == Color.WHITE ? Color.BLACK : Color.WHITE));
+			move.setTookPiece(Pawn.of(color == Color.WHITE ? Color.BLACK : Color.WHITE));
 		}
 
 		return move;
@@ -0,0 +1,74 @@
+package ch.teemoo.bobby.models.moves;
+
+public class PackedMove {
+	public final static int NORMAL = 0;
+	public final static int EN_PASSANT = 1;
+	public final static int CASTLING = 2;
+	public final static int PROMOTION = 3;
+	// Passing the turn, only played by the search: no move goes from a square to itself
+	public final static int NULL = 0;
+
+	// Bits layout: from (0-5), to (6-11), piece type (12-14), captured type + 1 (15-17), promoted type (18-20),
+	// flag (21-22), checking (23)
+	private final static int SQUARE_MASK = 0x3F;
+	private final static int TYPE_MASK = 0x7;
+	private final static int FLAG_MASK = 0x3;
+	private final static int TO_SHIFT = 6;
+	private final static int PIECE_SHIFT = 12;
+	private final static int CAPTURED_SHIFT = 15;
+	private final static int PROMOTED_SHIFT = 18;
+	private final static int FLAG_SHIFT = 21;
+	private final static int CHECKING = 1 << 23;
+
+	private PackedMove() {
+	}
+
+	public static int of(int from, int to, int pieceType, int capturedType) {
+		return from | (to << TO_SHIFT) | (pieceType << PIECE_SHIFT) | ((capturedType + 1) << CAPTURED_SHIFT);
+	}
+
+	public static int of(int from, int to, int pieceType, int capturedType, int flag, int promotedType) {
+		return of(from, to, pieceType, capturedType) | (flag << FLAG_SHIFT) | (promotedType << PROMOTED_SHIFT);
+	}
+
+	public static int getFrom(int move) {
+		return move & SQUARE_MASK;
+	}
+
+	public static int getTo(int move) {
+		return (move >>> TO_SHIFT) & SQUARE_MASK;
+	}
+
+	public static int getPieceType(int move) {
+		return (move >>> PIECE_SHIFT) & TYPE_MASK;
+	}
+
+	// Returns -1 when the move does not take any piece
+	public static int getCapturedType(int move) {
+		return ((move >>> CAPTURED_SHIFT) & TYPE_MASK) - 1;
+	}
+
+	public static boolean isTaking(int move) {
+		return ((move >>> CAPTURED_SHIFT) & TYPE_MASK) != 0;
+	}
+
+	public static int getPromotedType(int move) {
+		return (move >>> PROMOTED_SHIFT) & TYPE_MASK;
+	}
+
+	public static int getFlag(int move) {
+		return (move >>> FLAG_SHIFT) & FLAG_MASK;
+	}
+
+	public static boolean isChecking(int move) {
+		return (move & CHECKING) != 0;
+	}
+
+	public static int withChecking(int move) {
+		return move | CHECKING;
+	}
+
+	public static int withoutChecking(int move) {
+		return move & ~CHECKING;
+	}
+}
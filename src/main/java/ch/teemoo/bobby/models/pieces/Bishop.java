@@ -3,7 +3,10 @@ package ch.teemoo.bobby.models.pieces;
 import ch.teemoo.bobby.models.Color;
 
 public class Bishop extends Piece {
-    public Bishop(Color color) {
+    public final static Bishop WHITE = new Bishop(Color.WHITE);
+    public final static Bishop BLACK = new Bishop(Color.BLACK);
+
+    private Bishop(Color color) {
         super(color, 3);
     }
 
@@ -16,8 +19,7 @@ public class Bishop extends Piece {
         }
     }
 
-    @Override
-    public Piece copy() {
-        return new Bishop(color);
+    public static Bishop of(Color color) {
+        return color == Color.WHITE ? WHITE : BLACK;
     }
 }
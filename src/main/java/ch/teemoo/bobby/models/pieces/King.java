@@ -3,7 +3,10 @@ package ch.teemoo.bobby.models.pieces;
 import ch.teemoo.bobby.models.Color;
 
 public class King extends Piece {
-    public King(Color color) {
+    public final static King WHITE = new King(Color.WHITE);
+    public final static King BLACK = new King(Color.BLACK);
+
+    private King(Color color) {
         super(color, 100);
     }
 
@@ -16,8 +19,7 @@ public class King extends Piece {
         }
     }
 
-    @Override
-    public Piece copy() {
-        return new King(color);
-	}
+    public static King of(Color color) {
+        return color == Color.WHITE ? WHITE : BLACK;
+    }
 }
@@ -3,7 +3,10 @@ package ch.teemoo.bobby.models.pieces;
 import ch.teemoo.bobby.models.Color;
 
 public class Knight extends Piece {
-    public Knight(Color color) {
+    public final static Knight WHITE = new Knight(Color.WHITE);
+    public final static Knight BLACK = new Knight(Color.BLACK);
+
+    private Knight(Color color) {
         super(color, 3);
     }
 
@@ -16,8 +19,7 @@ public class Knight extends Piece {
         }
     }
 
-    @Override
-    public Piece copy() {
-        return new Knight(color);
-	}
+    public static Knight of(Color color) {
+        return color == Color.WHITE ? WHITE : BLACK;
+    }
 }
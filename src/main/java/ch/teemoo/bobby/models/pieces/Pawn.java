@@ -3,7 +3,10 @@ package ch.teemoo.bobby.models.pieces;
 import ch.teemoo.bobby.models.Color;
 
 public class Pawn extends Piece {
-    public Pawn(Color color) {
+    public final static Pawn WHITE = new Pawn(Color.WHITE);
+    public final static Pawn BLACK = new Pawn(Color.BLACK);
+
+    private Pawn(Color color) {
         super(color, 1);
     }
 
@@ -16,8 +19,7 @@ public class Pawn extends Piece {
         }
     }
 
-    @Override
-    public Piece copy() {
-        return new Pawn(color);
-	}
+    public static Pawn of(Color color) {
+        return color == Color.WHITE ? WHITE : BLACK;
+    }
 }
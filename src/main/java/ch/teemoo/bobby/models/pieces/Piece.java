@@ -2,11 +2,12 @@ package ch.teemoo.bobby.models.pieces;
 
 import ch.teemoo.bobby.models.Color;
 
+// Immutable: a single instance per type and color is shared, so that the pieces can be compared by identity
 public abstract class Piece {
     final protected Color color;
     final protected int value;
 
-    public Piece(Color color, int value) {
+    Piece(Color color, int value) {
         this.color = color;
         this.value = value;
     }
@@ -25,46 +26,44 @@ public abstract class Piece {
         return this.color + " " + this.getClass().getSimpleName();
     }
 
-    public abstract Piece copy();
-
     public static Piece fromUnicodeChar(char c) {
         Piece piece;
         switch (c) {
             case '♜':
-                piece = new Rook(Color.BLACK);
+                piece = Rook.BLACK;
                 break;
             case '♞':
-                piece = new Knight(Color.BLACK);
+                piece = Knight.BLACK;
                 break;
             case '♝':
-                piece = new Bishop(Color.BLACK);
+                piece = Bishop.BLACK;
                 break;
             case '♛':
-                piece = new Queen(Color.BLACK);
+                piece = Queen.BLACK;
                 break;
             case '♚':
-                piece = new King(Color.BLACK);
+                piece = King.BLACK;
                 break;
             case '♟':
-                piece = new Pawn(Color.BLACK);
+                piece = Pawn.BLACK;
                 break;
             case '♖':
-                piece = new Rook(Color.WHITE);
+                piece = Rook.WHITE;
                 break;
             case '♘':
-                piece = new Knight(Color.WHITE);
+                piece = Knight.WHITE;
                 break;
             case '♗':
-                piece = new Bishop(Color.WHITE);
+                piece = Bishop.WHITE;
                 break;
             case '♕':
-                piece = new Queen(Color.WHITE);
+                piece = Queen.WHITE;
                 break;
             case '♔':
-                piece = new King(Color.WHITE);
+                piece = King.WHITE;
                 break;
             case '♙':
-                piece = new Pawn(Color.WHITE);
+                piece = Pawn.WHITE;
                 break;
             default:
                 throw new IllegalArgumentException("Unexpected piece unicode: " + c);
@@ -3,7 +3,10 @@ package ch.teemoo.bobby.models.pieces;
 import ch.teemoo.bobby.models.Color;
 
 public class Queen extends Piece {
-    public Queen(Color color) {
+    public final static Queen WHITE = new Queen(Color.WHITE);
+    public final static Queen BLACK = new Queen(Color.BLACK);
+
+    private Queen(Color color) {
         super(color, 10);
     }
 
@@ -16,8 +19,7 @@ public class Queen extends Piece {
         }
     }
 
-    @Override
-    public Piece copy() {
-        return new Queen(color);
-	}
+    public static Queen of(Color color) {
+        return color == Color.WHITE ? WHITE : BLACK;
+    }
 }
@@ -3,7 +3,10 @@ package ch.teemoo.bobby.models.pieces;
 import ch.teemoo.bobby.models.Color;
 
 public class Rook extends Piece {
-    public Rook(Color color) {
+    public final static Rook WHITE = new Rook(Color.WHITE);
+    public final static Rook BLACK = new Rook(Color.BLACK);
+
+    private Rook(Color color) {
         super(color, 5);
     }
 
@@ -16,8 +19,7 @@ public class Rook extends Piece {
         }
     }
 
-    @Override
-    public Piece copy() {
-        return new Rook(color);
-	}
+    public static Rook of(Color color) {
+        return color == Color.WHITE ? WHITE : BLACK;
+    }
 }
@@ -3,6 +3,7 @@ package ch.teemoo.bobby.models.players;
 import java.util.List;
 import java.util.Random;
 
+import ch.teemoo.bobby.models.SearchSettings;
 import ch.teemoo.bobby.models.games.Game;
 import ch.teemoo.bobby.models.moves.Move;
 import ch.teemoo.bobby.services.MoveService;
@@ -13,11 +14,20 @@ public class ExperiencedBot extends TraditionalBot {
     private final OpeningService openingService;
 
     public ExperiencedBot(int level, Integer timeout, MoveService moveService, OpeningService openingService) {
-        super(level, timeout, moveService);
+        this(level, timeout, SearchSettings.DEFAULT, moveService, openingService);
+    }
+
+    public ExperiencedBot(int level, Integer timeout, SearchSettings searchSettings, MoveService moveService,
+        OpeningService openingService) {
+        super(level, timeout, searchSettings, moveService);
         this.openingService = openingService;
     }
 
     public Move selectMove(Game game) {
+        // The openings are only known from the initial position
+        if (game.getInitialFen() != null) {
+            return super.selectMove(game);
+        }
         List<Move> openingMoves = openingService.findPossibleMovesForHistory(game.getHistory());
         if (openingMoves.isEmpty()) {
             return super.selectMove(game);
@@ -10,16 +10,24 @@ import ch.teemoo.bobby.services.MoveService;
 public class RandomBot extends Bot {
     private final static Random RANDOM = new Random();
 
+    private final Random random;
+
     public RandomBot(MoveService moveService) {
+        this(moveService, RANDOM);
+    }
+
+    // With a seeded random, the same moves are played again
+    public RandomBot(MoveService moveService, Random random) {
         super(moveService);
+        this.random = random;
     }
 
     public Move selectMove(Game game) {
-        List<Move> moves = moveService.computeAllMoves(game.getBoard(), game.getToPlay(), game.getHistory(), true);
-        return moves.get(RANDOM.nextInt(moves.size()));
+        List<Move> moves = moveService.computeAllMoves(game.getBoard(), game.getToPlay(), true);
+        return moves.get(random.nextInt(moves.size()));
     }
 
     public boolean isDrawAcceptable(Game game) {
-        return RANDOM.nextBoolean();
+        return random.nextBoolean();
     }
 }
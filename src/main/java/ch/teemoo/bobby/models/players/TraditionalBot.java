@@ -1,7 +1,9 @@
 package ch.teemoo.bobby.models.players;
 
-import java.time.LocalDateTime;
+import java.time.Duration;
 
+import ch.teemoo.bobby.models.SearchSettings;
+import ch.teemoo.bobby.models.games.Clock;
 import ch.teemoo.bobby.models.games.Game;
 import ch.teemoo.bobby.models.moves.Move;
 import ch.teemoo.bobby.services.MoveService;
@@ -9,11 +11,17 @@ import ch.teemoo.bobby.services.MoveService;
 public class TraditionalBot extends Bot {
     protected final int level;
     protected final Integer timeout;
+    protected final SearchSettings searchSettings;
 
     public TraditionalBot(int level, Integer timeout, MoveService moveService) {
+        this(level, timeout, SearchSettings.DEFAULT, moveService);
+    }
+
+    public TraditionalBot(int level, Integer timeout, SearchSettings searchSettings, MoveService moveService) {
         super(moveService);
         this.level = level;
         this.timeout = timeout;
+        this.searchSettings = searchSettings;
     }
 
     @Override
@@ -22,11 +30,20 @@ public class TraditionalBot extends Bot {
     }
 
     public Move selectMove(Game game) {
-        LocalDateTime computationTimeout = null;
-        if (timeout != null) {
-            computationTimeout = LocalDateTime.now().plusSeconds(timeout);
+        return moveService.selectMove(game, level, getTimeBudget(game), searchSettings);
+    }
+
+    Duration getTimeBudget(Game game) {
+        // The search stops at the first limit reached: the timeout of the bot, or its share of the game clock
+        Duration budget = timeout == null ? null : Duration.ofSeconds(timeout);
+        Clock clock = game.getClock();
+        if (clock != null) {
+            Duration clockBudget = clock.getMoveBudget(game.getToPlay(), game.getHistory().size() / 2);
+            if (budget == null || clockBudget.compareTo(budget) < 0) {
+                budget = clockBudget;
+            }
         }
-        return moveService.selectMove(game, level, computationTimeout);
+        return budget;
     }
 
     public boolean isDrawAcceptable(Game game) {
@@ -0,0 +1,98 @@
+package ch.teemoo.bobby.services;
+
+import static ch.teemoo.bobby.helpers.BitBoardHelper.between;
+import static ch.teemoo.bobby.helpers.BitBoardHelper.bishopAttacks;
+import static ch.teemoo.bobby.helpers.BitBoardHelper.knightAttacks;
+import static ch.teemoo.bobby.helpers.BitBoardHelper.pawnAttacks;
+import static ch.teemoo.bobby.helpers.BitBoardHelper.rookAttacks;
+import static ch.teemoo.bobby.helpers.BitBoardHelper.toBit;
+import static ch.teemoo.bobby.helpers.ColorHelper.swap;
+import static ch.teemoo.bobby.models.BitBoard.BISHOP;
+import static ch.teemoo.bobby.models.BitBoard.KING;
+import static ch.teemoo.bobby.models.BitBoard.KNIGHT;
+import static ch.teemoo.bobby.models.BitBoard.NONE;
+import static ch.teemoo.bobby.models.BitBoard.PAWN;
+import static ch.teemoo.bobby.models.BitBoard.QUEEN;
+import static ch.teemoo.bobby.models.BitBoard.ROOK;
+import static ch.teemoo.bobby.models.Board.SIZE;
+
+import ch.teemoo.bobby.models.Bitboards;
+import ch.teemoo.bobby.models.Color;
+
+// Checks and pins of the king of a player, computed once per position, so that the moves of the other pieces can be
+// told legal without being played. The king moves and the en-passant moves are not covered.
+class LegalityMasks {
+	// Destinations which stop the check(s): all squares but the opponent king when not in check, none in double check
+	private final long checkMask;
+	private final long pinned;
+	// Line along which each pinned piece may still move, indexed by square, only allocated when a piece is pinned
+	private final long[] pinRays;
+
+	private LegalityMasks(long checkMask, long pinned, long[] pinRays) {
+		this.checkMask = checkMask;
+		this.pinned = pinned;
+		this.pinRays = pinRays;
+	}
+
+	static LegalityMasks of(Bitboards board, Color color) {
+		final int kingSquare = board.getKingSquare(color);
+		final Color opponentColor = swap(color);
+		final long own = board.getPieces(color);
+		final long opponents = board.getPieces(opponentColor);
+		final long opponentKing = board.getPieces(opponentColor, KING);
+		final long opponentPawns = board.getPieces(opponentColor, PAWN);
+		final long opponentKnights = board.getPieces(opponentColor, KNIGHT);
+		final long opponentQueens = board.getPieces(opponentColor, QUEEN);
+		final long opponentDiagonals = board.getPieces(opponentColor, BISHOP) | opponentQueens;
+		final long opponentStraights = board.getPieces(opponentColor, ROOK) | opponentQueens;
+		if (kingSquare == NONE || opponentKing == 0L) {
+			// Without both kings, no move is valid
+			return new LegalityMasks(0L, 0L, null);
+		}
+
+		final long occupied = own | opponents;
+		final long checkers = (pawnAttacks(kingSquare, color == Color.WHITE) & opponentPawns)
+			| (knightAttacks(kingSquare) & opponentKnights)
+			| (bishopAttacks(kingSquare, occupied) & opponentDiagonals)
+			| (rookAttacks(kingSquare, occupied) & opponentStraights);
+		long checkMask;
+		if (checkers == 0L) {
+			checkMask = ~0L;
+		} else if (Long.bitCount(checkers) == 1) {
+			// Either take the checking piece or block its line
+			checkMask = checkers | between(kingSquare, Long.numberOfTrailingZeros(checkers));
+		} else {
+			checkMask = 0L;
+		}
+		checkMask &= ~opponentKing;
+
+		// Sliders seen from the king through the own pieces only: those with exactly one own piece in between pin it
+		long pinners = (bishopAttacks(kingSquare, opponents) & opponentDiagonals)
+			| (rookAttacks(kingSquare, opponents) & opponentStraights);
+		long pinned = 0L;
+		long[] pinRays = null;
+		while (pinners != 0L) {
+			final int pinnerSquare = Long.numberOfTrailingZeros(pinners);
+			pinners &= pinners - 1;
+			final long line = between(kingSquare, pinnerSquare);
+			final long blockers = line & own;
+			if (Long.bitCount(blockers) == 1) {
+				pinned |= blockers;
+				if (pinRays == null) {
+					pinRays = new long[SIZE * SIZE];
+				}
+				pinRays[Long.numberOfTrailingZeros(blockers)] = line | toBit(pinnerSquare);
+			}
+		}
+		return new LegalityMasks(checkMask, pinned, pinRays);
+	}
+
+	boolean allows(int from, int to) {
+		return (getTargets(from) & toBit(to)) != 0;
+	}
+
+	// Destinations allowed to the piece on the given square, which must not be the king
+	long getTargets(int from) {
+		return (pinned & toBit(from)) == 0 ? checkMask : checkMask & pinRays[from];
+	}
+}
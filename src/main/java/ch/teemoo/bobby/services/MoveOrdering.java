@@ -0,0 +1,106 @@
+package ch.teemoo.bobby.services;
+
+import static ch.teemoo.bobby.models.Board.SIZE;
+import static ch.teemoo.bobby.models.BitBoard.PAWN;
+import static ch.teemoo.bobby.models.BitBoard.PIECE_VALUES;
+
+import ch.teemoo.bobby.models.moves.PackedMove;
+
+// Orders the moves so that the best ones are searched first and most of the others are cut off: the move stored in the
+// transposition table, then the captures by most valuable victim and least valuable attacker (MVV-LVA), then the quiet
+// moves that caused a cutoff at the same ply (killers), and finally the other quiet moves by history of cutoffs.
+class MoveOrdering {
+	private final static int HASH_MOVE_SCORE = Integer.MAX_VALUE;
+	private final static int CAPTURE_SCORE = 1 << 28;
+	private final static int KILLER_SCORE = 1 << 27;
+	private final static int KILLERS_PER_PLY = 2;
+	// When a history score reaches this, all of them are halved, so that they never reach the killers
+	private final static int MAX_HISTORY_SCORE = 1 << 20;
+
+	private final int[][] scores;
+	private final int[][] killers;
+	// Per color, indexed by from and to squares
+	private final int[][] history = new int[2][SIZE * SIZE * SIZE * SIZE];
+
+	MoveOrdering(int plies, int maxMoves) {
+		this.scores = new int[plies][maxMoves];
+		this.killers = new int[plies][KILLERS_PER_PLY];
+	}
+
+	void scoreMoves(int[] moves, int movesCount, int ply, int hashMove, int color) {
+		final int[] plyScores = scores[ply];
+		final int[] plyKillers = killers[ply];
+		for (int i = 0; i < movesCount; i++) {
+			final int move = moves[i];
+			if (move == hashMove) {
+				plyScores[i] = HASH_MOVE_SCORE;
+			} else if (!isQuiet(move)) {
+				plyScores[i] = CAPTURE_SCORE + (getGain(move) << 8) - PIECE_VALUES[PackedMove.getPieceType(move)];
+			} else if (move == plyKillers[0]) {
+				plyScores[i] = KILLER_SCORE;
+			} else if (move == plyKillers[1]) {
+				plyScores[i] = KILLER_SCORE - 1;
+			} else {
+				plyScores[i] = history[color][getFromTo(move)];
+			}
+		}
+	}
+
+	// Moves the best of the remaining moves to the given index and returns it
+	int selectMove(int[] moves, int movesCount, int index, int ply) {
+		final int[] plyScores = scores[ply];
+		int best = index;
+		for (int i = index + 1; i < movesCount; i++) {
+			if (plyScores[i] > plyScores[best]) {
+				best = i;
+			}
+		}
+		final int move = moves[best];
+		moves[best] = moves[index];
+		moves[index] = move;
+		final int score = plyScores[best];
+		plyScores[best] = plyScores[index];
+		plyScores[index] = score;
+		return move;
+	}
+
+	void addCutoff(int move, int ply, int depth, int color) {
+		// Captures are already searched first, only quiet moves need to be remembered
+		if (!isQuiet(move)) {
+			return;
+		}
+		final int[] plyKillers = killers[ply];
+		if (plyKillers[0] != move) {
+			plyKillers[1] = plyKillers[0];
+			plyKillers[0] = move;
+		}
+		final int[] colorHistory = history[color];
+		final int fromTo = getFromTo(move);
+		colorHistory[fromTo] += depth * depth + 1;
+		if (colorHistory[fromTo] >= MAX_HISTORY_SCORE) {
+			for (int i = 0; i < colorHistory.length; i++) {
+				colorHistory[i] /= 2;
+			}
+		}
+	}
+
+	boolean isKiller(int move, int ply) {
+		return move == killers[ply][0] || move == killers[ply][1];
+	}
+
+	static boolean isQuiet(int move) {
+		return !PackedMove.isTaking(move) && PackedMove.getFlag(move) != PackedMove.PROMOTION;
+	}
+
+	private static int getGain(int move) {
+		int gain = PackedMove.isTaking(move) ? PIECE_VALUES[PackedMove.getCapturedType(move)] : 0;
+		if (PackedMove.getFlag(move) == PackedMove.PROMOTION) {
+			gain += PIECE_VALUES[PackedMove.getPromotedType(move)] - PIECE_VALUES[PAWN];
+		}
+		return gain;
+	}
+
+	private static int getFromTo(int move) {
+		return PackedMove.getFrom(move) * SIZE * SIZE + PackedMove.getTo(move);
+	}
+}
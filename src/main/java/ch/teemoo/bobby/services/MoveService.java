@@ -2,30 +2,69 @@ package ch.teemoo.bobby.services;
 
 import static java.util.stream.Collectors.toList;
 
+import static ch.teemoo.bobby.helpers.BitBoardHelper.RANK_1;
+import static ch.teemoo.bobby.helpers.BitBoardHelper.RANK_8;
+import static ch.teemoo.bobby.helpers.BitBoardHelper.bishopAttacks;
+import static ch.teemoo.bobby.helpers.BitBoardHelper.getX;
+import static ch.teemoo.bobby.helpers.BitBoardHelper.getY;
+import static ch.teemoo.bobby.helpers.BitBoardHelper.kingAttacks;
+import static ch.teemoo.bobby.helpers.BitBoardHelper.knightAttacks;
+import static ch.teemoo.bobby.helpers.BitBoardHelper.pawnAttacks;
+import static ch.teemoo.bobby.helpers.BitBoardHelper.queenAttacks;
+import static ch.teemoo.bobby.helpers.BitBoardHelper.rookAttacks;
+import static ch.teemoo.bobby.helpers.BitBoardHelper.toBit;
+import static ch.teemoo.bobby.helpers.BitBoardHelper.toSquare;
 import static ch.teemoo.bobby.helpers.ColorHelper.swap;
+import static ch.teemoo.bobby.models.BitBoard.BISHOP;
+import static ch.teemoo.bobby.models.BitBoard.CASTLED;
+import static ch.teemoo.bobby.models.BitBoard.DEVELOPMENT_MOVES_SHIFT;
+import static ch.teemoo.bobby.models.BitBoard.KING;
+import static ch.teemoo.bobby.models.BitBoard.KING_MOVED;
+import static ch.teemoo.bobby.models.BitBoard.KNIGHT;
+import static ch.teemoo.bobby.models.BitBoard.MAJOR_PIECE_MOVED;
+import static ch.teemoo.bobby.models.BitBoard.NONE;
+import static ch.teemoo.bobby.models.BitBoard.PAWN;
+import static ch.teemoo.bobby.models.BitBoard.PIECE_MOVED_TWICE;
+import static ch.teemoo.bobby.models.BitBoard.PIECE_VALUES;
+import static ch.teemoo.bobby.models.BitBoard.QUEEN;
+import static ch.teemoo.bobby.models.BitBoard.ROOK;
 import static ch.teemoo.bobby.models.Board.SIZE;
 
-import java.time.LocalDateTime;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
-import java.util.Set;
-import java.util.function.Function;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
+import ch.teemoo.bobby.models.BitBoard;
+import ch.teemoo.bobby.models.Bitboards;
 import ch.teemoo.bobby.models.Board;
 import ch.teemoo.bobby.models.Color;
+import ch.teemoo.bobby.models.EvaluationCache;
 import ch.teemoo.bobby.models.games.Game;
 import ch.teemoo.bobby.models.games.GameState;
 import ch.teemoo.bobby.models.MoveAnalysis;
 import ch.teemoo.bobby.models.Position;
+import ch.teemoo.bobby.models.SearchSettings;
+import ch.teemoo.bobby.models.TranspositionTable;
 import ch.teemoo.bobby.models.moves.CastlingMove;
 import ch.teemoo.bobby.models.moves.EnPassantMove;
 import ch.teemoo.bobby.models.moves.Move;
+import ch.teemoo.bobby.models.moves.PackedMove;
 import ch.teemoo.bobby.models.moves.PromotionMove;
 import ch.teemoo.bobby.models.pieces.Bishop;
 import ch.teemoo.bobby.models.pieces.King;
@@ -46,31 +85,99 @@ public class MoveService {
 	public final static int NEUTRAL = 0;
 	public final static int DRAW_PENALTY = -20;
 
-	public final static int OPENING_MOVES_COUNT = 5;
+	public final static int OPENING_MOVES_COUNT = BitBoard.OPENING_MOVES_COUNT;
 	public final static int MID_GAME_MOVES_COUNT = 20;
 	public final static int OPENING_MISTAKE_PENALTY = -5;
 	public final static int KING_MOVE_MISTAKE_PENALTY = -10;
 	public final static int CASTLING_BONUS = 15;
 
 	private final static int MAX_MOVE = SIZE - 1;
-	private final static int[][] heatmapCenter = generateCenteredHeatmap();
+	// Half-move clock at which the game is drawn, as no pawn moved and nothing was taken for so many plies
+	private final static int DRAW_50_MOVES_PLIES = 50;
+	// Upper bound of the moves count in any position
+	private final static int MAX_MOVES = 256;
+	// Captures sequences are not searched deeper than this after the leaves
+	private final static int MAX_QUIESCENCE_PLIES = 16;
+	// Margin for what a capture may gain on top of the value of the taken piece, e.g. with a better position
+	private final static int DELTA_MARGIN = 20;
+	// Bound of the scores in the search, that can be negated without overflow
+	private final static int INFINITY = Integer.MAX_VALUE;
+	// Half width of the first window the root is searched with around the score of the previous depth
+	private final static int ASPIRATION_WINDOW = 20;
+	private final static int DEVELOPMENT_STATE_BITS = 7;
+	// Heatmaps by square, for the center and around each king square
+	private final static int[] CENTER_HEATMAP = toSquareHeatmap(generateCenteredHeatmap());
+	private final static int[][] KING_ZONE_HEATMAPS = generateKingZoneHeatmaps();
+
+	// Pool the root moves are searched on in parallel, when the search settings ask for it
+	private final ForkJoinPool rootPool;
+	private TranspositionTable transpositionTable;
+	private EvaluationCache evaluationCache;
+	// The memory budget of the pawn structure table can be set with -Dbobby.pawntable.mb
+	private final PawnStructure pawnStructure =
+		new PawnStructure(Integer.getInteger("bobby.pawntable.mb", PawnStructure.DEFAULT_TABLE_SIZE_MB));
+	private ExecutorService helperExecutor;
+
+	public MoveService() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	public MoveService(ForkJoinPool rootPool) {
+		this.rootPool = rootPool;
+	}
+
+	public synchronized TranspositionTable getTranspositionTable() {
+		// Allocated on first use only, the memory budget can be set with -Dbobby.tt.mb
+		if (transpositionTable == null) {
+			transpositionTable =
+				new TranspositionTable(Integer.getInteger("bobby.tt.mb", TranspositionTable.DEFAULT_SIZE_MB));
+		}
+		return transpositionTable;
+	}
+
+	public synchronized EvaluationCache getEvaluationCache() {
+		// Allocated on first use only, the memory budget can be set with -Dbobby.evalcache.mb
+		if (evaluationCache == null) {
+			evaluationCache =
+				new EvaluationCache(Integer.getInteger("bobby.evalcache.mb", EvaluationCache.DEFAULT_SIZE_MB));
+		}
+		return evaluationCache;
+	}
+
+	private synchronized ExecutorService getHelperExecutor() {
+		// Threads are created on demand for parallel searches, and do not prevent the application from exiting
+		if (helperExecutor == null) {
+			helperExecutor = Executors.newCachedThreadPool(runnable -> {
+				Thread thread = new Thread(runnable, "search-helper");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		return helperExecutor;
+	}
+
+	public List<Move> computeAllMoves(Board board, Color color, boolean withAdditionalInfo) {
+		return computeAllMoves(board, color, withAdditionalInfo, false);
+	}
 
-	public List<Move> computeAllMoves(Board board, Color color, List<Move> history, boolean withAdditionalInfo) {
-		return computeAllMoves(board, color, history, withAdditionalInfo, false);
+	public List<Move> computeAllMoves(Board board, Color color, boolean withAdditionalInfo, boolean takingMovesOnly) {
+		return computeBoardMoves(board, color, withAdditionalInfo, false, takingMovesOnly);
 	}
 
-	public List<Move> computeAllMoves(Board board, Color color, List<Move> history, boolean withAdditionalInfo,
+	public List<Move> computeMoves(Board board, Piece piece, int posX, int posY, boolean withAdditionalInfo,
 		boolean takingMovesOnly) {
-		return computeBoardMoves(board, color, history, withAdditionalInfo, false, takingMovesOnly);
+		final LegalityMasks legalityMasks = withAdditionalInfo ? LegalityMasks.of(board, piece.getColor()) : null;
+		return computeMoves(board, piece, posX, posY, legalityMasks, withAdditionalInfo, takingMovesOnly);
 	}
 
-	public List<Move> computeMoves(Board board, Piece piece, int posX, int posY, List<Move> history,
-		boolean withAdditionalInfo, boolean takingMovesOnly) {
+	// Only the legal moves when the legality masks are given, with the checking info on demand
+	private List<Move> computeMoves(Board board, Piece piece, int posX, int posY, LegalityMasks legalityMasks,
+		boolean withChecking, boolean takingMovesOnly) {
 		List<Move> moves = new ArrayList<>();
 		final Color color = piece.getColor();
 
 		if (piece instanceof Pawn) {
-			moves.addAll(computePawnMoves(piece, posX, posY, board, history, takingMovesOnly));
+			moves.addAll(computePawnMoves(piece, posX, posY, board, takingMovesOnly));
 		} else if (piece instanceof Knight) {
 			moves.addAll(computeLShapeMoves(piece, posX, posY, board));
 		} else if (piece instanceof Bishop) {
@@ -81,33 +188,46 @@ public class MoveService {
 			moves.addAll(computeStraightMoves(piece, posX, posY, board));
 			moves.addAll(computeDiagonalMoves(piece, posX, posY, board));
 		} else if (piece instanceof King) {
-			moves.addAll(computeStraightMoves(piece, posX, posY, board, 1));
-			moves.addAll(computeDiagonalMoves(piece, posX, posY, board, 1));
+			moves.addAll(computeKingMoves(piece, posX, posY, board));
 			if (!takingMovesOnly) {
-				moves.addAll(computeCastlingMoves(piece, posX, posY, board, history));
+				moves.addAll(computeCastlingMoves(piece, posX, posY, board));
 			}
 		} else {
 			throw new RuntimeException("Unexpected piece type");
 		}
 
-		if (withAdditionalInfo) {
-			return moves.stream().filter(move -> {
-				board.doMove(move);
-
-				// Checking opponent's king
-				move.setChecking(isInCheck(board, swap(color)));
-
-				boolean valid = isValidSituation(board, color);
-				board.undoMove(move);
-				return valid;
-			}).collect(toList());
-		} else {
+		if (legalityMasks == null) {
 			return moves;
 		}
+		List<Move> legalMoves = new ArrayList<>(moves.size());
+		for (Move move : moves) {
+			if (isLegal(board, move, legalityMasks)) {
+				if (withChecking) {
+					// Checking opponent's king
+					board.doMove(move);
+					move.setChecking(isInCheck(board, swap(color)));
+					board.undoMove(move);
+				}
+				legalMoves.add(move);
+			}
+		}
+		return legalMoves;
+	}
+
+	private boolean isLegal(Board board, Move move, LegalityMasks legalityMasks) {
+		if (move.getPiece() instanceof King || move instanceof EnPassantMove) {
+			// The masks do not tell whether the king goes to an attacked square, nor whether taking en passant
+			// uncovers a check on the rank: these few moves are simply tried
+			board.doMove(move);
+			boolean valid = isValidSituation(board, move.getPiece().getColor());
+			board.undoMove(move);
+			return valid;
+		}
+		return legalityMasks.allows(toSquare(move.getFromX(), move.getFromY()), toSquare(move.getToX(), move.getToY()));
 	}
 
 	public GameState getGameState(Board board, Color colorToPlay, List<Move> history) {
-		if (!canMove(board, colorToPlay, history)) {
+		if (!canMove(board, colorToPlay)) {
 			if (isInCheck(board, colorToPlay)) {
 				// Checkmate
 				return GameState.LOSS;
@@ -117,27 +237,44 @@ public class MoveService {
 			}
 		}
 
-		if (history.size() >= 10) {
-			Move move6 = history.get(history.size()-1);
-			Move move4 = history.get(history.size()-5);
-			Move move2 = history.get(history.size()-9);
-			Move move5 = history.get(history.size()-2);
-			Move move3 = history.get(history.size()-6);
-			Move move1 = history.get(history.size()-10);
-			if (move6.equals(move4) && move6.equals(move2) && move5.equals(move3) && move5.equals(move1)) {
-				// Threefold repetition
-				return GameState.DRAW_THREEFOLD;
-			}
+		if (board.getHalfMoveClock() >= DRAW_50_MOVES_PLIES) {
+			// 50-move (no pawn moved, no capture)
+			return GameState.DRAW_50_MOVES;
+		}
+
+		if (BitBoard.fromBoard(board, colorToPlay, history).isThreefoldRepetition()) {
+			// Threefold repetition
+			return GameState.DRAW_THREEFOLD;
 		}
 
-		if (history.size() >= 50) {
-			List<Move> last50Moves = history.subList(history.size() - 50, history.size() - 1);
-			if (last50Moves.stream().noneMatch(move -> move.isTaking() || move.getPiece() instanceof Pawn)) {
-				// 50-move (no pawn moved, no capture)
-				return GameState.DRAW_50_MOVES;
+		return GameState.IN_PROGRESS;
+	}
+
+	GameState getGameState(BitBoard bitBoard) {
+		return getGameState(bitBoard, new int[MAX_MOVES]);
+	}
+
+	private GameState getGameState(BitBoard bitBoard, int[] movesBuffer) {
+		if (!canMove(bitBoard, movesBuffer)) {
+			if (isInCheck(bitBoard, bitBoard.getToPlay())) {
+				// Checkmate
+				return GameState.LOSS;
+			} else {
+				// Stalemate
+				return GameState.DRAW_STALEMATE;
 			}
 		}
 
+		if (bitBoard.getHalfMoveClock() >= DRAW_50_MOVES_PLIES) {
+			// 50-move (no pawn moved, no capture)
+			return GameState.DRAW_50_MOVES;
+		}
+
+		if (bitBoard.isThreefoldRepetition()) {
+			// Threefold repetition
+			return GameState.DRAW_THREEFOLD;
+		}
+
 		return GameState.IN_PROGRESS;
 	}
 
@@ -156,112 +293,592 @@ public class MoveService {
 		return opponentScore + DRAW_PENALTY > score;
 	}
 
-	public Move selectMove(Game game, int depth, LocalDateTime computationTimeout) {
-		MoveAnalysis moveAnalysis =
-			selectMove(game.getBoard(), game.getToPlay(), game.getHistory(), depth, true, computationTimeout);
-		return moveAnalysis.getMove();
+	public Move selectMove(Game game, int depth, Duration timeBudget) {
+		return selectMove(game, depth, timeBudget, SearchSettings.DEFAULT);
 	}
 
-	private MoveAnalysis selectMove(Board board, Color color, List<Move> history, int depth, boolean isTopDepth,
-		LocalDateTime computationTimeout) {
-		// Evaluate each move given the points of the pieces and the checkmate possibility, then select highest
+	public Move selectMove(Game game, int depth, Duration timeBudget, SearchSettings settings) {
+		return selectMoveAnalysis(game, depth, timeBudget, settings).getMove();
+	}
+
+	public MoveAnalysis selectMoveAnalysis(Game game, int depth, Duration timeBudget) {
+		return selectMoveAnalysis(game, depth, timeBudget, SearchSettings.DEFAULT);
+	}
+
+	static BitBoard toBitBoard(Game game) {
+		if (game.getInitialFen() == null) {
+			return BitBoard.fromBoard(game.getBoard(), game.getToPlay(), game.getHistory());
+		}
+		// The moves are replayed from the position the game started from, which tells how far the game is
+		BitBoard bitBoard = BitBoard.fromFen(game.getInitialFen());
+		for (Move move : game.getHistory()) {
+			bitBoard.doMove(BitBoard.toPackedMove(move));
+		}
+		return bitBoard;
+	}
+
+	public MoveAnalysis selectMoveAnalysis(Game game, int depth, Duration timeBudget, SearchSettings settings) {
+		// The search runs on a bitboard, where moves are packed in ints and played then undone in place. Move objects
+		// are only created for the root moves.
+		final long start = System.nanoTime();
+		BitBoard bitBoard = toBitBoard(game);
+		TranspositionTable transpositionTable = getTranspositionTable();
+		transpositionTable.newSearch();
+		EvaluationCache evaluationCache = getEvaluationCache();
+		// The pawn structures are kept from a search to the next, the hit rate is the one of this search
+		pawnStructure.getTable().resetStats();
+
+		// Lazy SMP: helper threads search the same position on their own copy of the board, in another move order and
+		// with shifted depths. Their results are ignored, but they fill the shared transposition table, where the main
+		// search finds positions already searched.
+		final int threads = settings.threads();
+		// One moves buffer per ply, the last one is used to check whether the game is over at the leaves
+		final int plies = depth + 2 + (settings.isQuiescence() ? MAX_QUIESCENCE_PLIES : 0);
+		AtomicBoolean stopped = new AtomicBoolean();
+		List<SearchContext> contexts = new ArrayList<>(threads);
+		List<Future<?>> helpers = new ArrayList<>(threads - 1);
+		for (int threadIndex = 1; threadIndex < threads; threadIndex++) {
+			SearchContext helperContext = new SearchContext(plies, MAX_MOVES, transpositionTable,
+				evaluationCache, settings, threadIndex, stopped);
+			BitBoard helperBitBoard = bitBoard.copy();
+			final int firstDepth = Math.min(1 + threadIndex % 2, depth);
+			contexts.add(helperContext);
+			helpers.add(getHelperExecutor().submit(
+				() -> iterativeDeepening(helperBitBoard, depth, firstDepth, start, null, helperContext)));
+		}
+
+		SearchContext context = new SearchContext(plies, MAX_MOVES, transpositionTable, evaluationCache, settings,
+			0, stopped);
+		contexts.add(0, context);
+		MoveAnalysis moveAnalysis = iterativeDeepening(bitBoard, depth, 0, start, timeBudget, context);
+		stopped.set(true);
+		for (Future<?> helper: helpers) {
+			getResult(helper);
+		}
+
+		final long elapsed = Math.max(System.nanoTime() - start, 1);
+		moveAnalysis.setNodes(contexts.stream().mapToLong(SearchContext::getNodes).sum());
+		addPrincipalVariation(bitBoard, moveAnalysis, context.getCompletedDepth() + 1, context);
+		logger.debug("Depth {} completed, searched {} nodes in {} ms, transposition table: {} hits, {} misses, {} "
+				+ "collisions", context.getCompletedDepth(), moveAnalysis.getNodes(),
+			Duration.ofNanos(elapsed).toMillis(), transpositionTable.getHits(), transpositionTable.getMisses(),
+			transpositionTable.getCollisions());
+		if (logger.isDebugEnabled()) {
+			logger.debug("Evaluation cache: {} hits, {} misses, {}% hit rate", evaluationCache.getHits(),
+				evaluationCache.getMisses(), Math.round(100 * evaluationCache.getHitRate()));
+			logger.debug("Pawn structure table: {}% hit rate in this search",
+				Math.round(100 * pawnStructure.getTable().getHitRate()));
+			logger.debug("Principal variation: {}", moveAnalysis.getPrincipalVariation().stream()
+				.map(Move::getBasicNotation).collect(Collectors.joining(" ")));
+			logger.debug("First move cutoff rate: {}%", Math.round(100 * context.getFirstMoveCutoffRate()));
+			for (SearchContext threadContext: contexts) {
+				logger.debug("Thread {}: {} nodes, {} nodes/s", threadContext.getThreadIndex(), threadContext.getNodes(),
+					threadContext.getNodes() * 1_000_000_000L / elapsed);
+			}
+		}
+		return moveAnalysis;
+	}
+
+	private MoveAnalysis iterativeDeepening(BitBoard bitBoard, int depth, int firstDepth, long start,
+		Duration timeBudget, SearchContext context) {
+		// Iterative deepening: the depths are searched one after the other, so that when the time is over, the best
+		// move of the last completed depth can be played. The first one is fast and always completed.
+		MoveAnalysis moveAnalysis = selectMove(bitBoard, firstDepth, context);
+		context.setCompletedDepth(firstDepth);
+		if (timeBudget != null) {
+			context.setDeadline(start + timeBudget.toNanos());
+		}
+		final long maxNodes = context.getSettings().maxNodes();
+		context.setMaxNodes(maxNodes);
+		for (int iterationDepth = firstDepth + 1; iterationDepth <= depth; iterationDepth++) {
+			// Each depth takes several times longer than the previous one, so it would not be completed anyway
+			if ((timeBudget != null && System.nanoTime() - start > timeBudget.toNanos() / 2)
+				|| (maxNodes != 0 && context.getNodes() > maxNodes / 2)) {
+				break;
+			}
+			MoveAnalysis iterationMoveAnalysis = selectMove(bitBoard, iterationDepth, context);
+			if (context.isTimeoutReached()) {
+				break;
+			}
+			moveAnalysis = iterationMoveAnalysis;
+			context.setCompletedDepth(iterationDepth);
+		}
+		return moveAnalysis;
+	}
 
-		List<Move> moves = computeAllMoves(board, color, history,true);
+	private void addPrincipalVariation(BitBoard bitBoard, MoveAnalysis moveAnalysis, int plies,
+		SearchContext context) {
+		// The expected replies are the best moves stored in the transposition table for the positions along the way.
+		// An entry may have been replaced in the meantime, the variation then stops there.
+		final int[] playedMoves = new int[plies];
+		playedMoves[0] = PackedMove.withoutChecking(BitBoard.toPackedMove(moveAnalysis.getMove()));
+		bitBoard.doMove(playedMoves[0]);
+		int playedCount = 1;
+		MoveAnalysis lastMoveAnalysis = moveAnalysis;
+		while (playedCount < plies) {
+			final long entry = context.getTranspositionTable().probe(getSearchKey(bitBoard));
+			final int move = entry == 0 ? 0
+				: findLegalMove(bitBoard, TranspositionTable.getMove(entry), context.getMovesBuffer(0));
+			if (move == 0) {
+				break;
+			}
+			final Color color = bitBoard.getToPlay();
+			final Move nextMove = bitBoard.toMove(move);
+			bitBoard.doMove(move);
+			playedMoves[playedCount++] = move;
+			nextMove.setChecking(isInCheck(bitBoard, swap(color)));
+			MoveAnalysis nextMoveAnalysis = new MoveAnalysis(nextMove);
+			nextMoveAnalysis.setScore(-lastMoveAnalysis.getScore());
+			lastMoveAnalysis.setNextProbableMove(nextMoveAnalysis);
+			lastMoveAnalysis = nextMoveAnalysis;
+		}
+		for (int i = playedCount - 1; i >= 0; i--) {
+			bitBoard.undoMove(playedMoves[i]);
+		}
+	}
 
+	private int findLegalMove(BitBoard bitBoard, int move, int[] movesBuffer) {
+		if (move == 0) {
+			return 0;
+		}
+		final int movesCount = computeAllMoves(bitBoard, movesBuffer);
+		for (int i = 0; i < movesCount; i++) {
+			if (PackedMove.withoutChecking(movesBuffer[i]) == PackedMove.withoutChecking(move)) {
+				return movesBuffer[i];
+			}
+		}
+		return 0;
+	}
+
+	private <T> T getResult(Future<T> future) {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Interrupted while waiting for a search thread", e);
+		} catch (ExecutionException e) {
+			throw new RuntimeException("Search thread failed", e.getCause());
+		}
+	}
+
+	private MoveAnalysis selectMove(BitBoard bitBoard, int depth, SearchContext context) {
+		// Evaluate each move given the points of the pieces and the checkmate possibility, then select highest
+		final Color color = bitBoard.getToPlay();
 		final Color opponentColor = swap(color);
-		final Position opponentKingPosition = findKingPosition(board, opponentColor)
-				.orElseThrow(() -> new RuntimeException("King expected here"));
-		final Position myKingOriginalPosition = findKingPosition(board, color)
-				.orElseThrow(() -> new RuntimeException("King expected here"));
+		final int[] moves = context.getMovesBuffer(0);
+		final int movesCount = computeAllMoves(bitBoard, moves);
+		if (context.isHelper()) {
+			// Helper threads of a parallel search start with different moves, so that they do not all search the same
+			// positions at the same time
+			shuffle(moves, movesCount, new Random(context.getThreadIndex() * 31L + depth));
+		} else {
+			// The best move of the previous depth first, then the same order as in the rest of the search
+			final MoveOrdering moveOrdering = context.getMoveOrdering();
+			moveOrdering.scoreMoves(moves, movesCount, 0, context.getRootBestMove(), color.ordinal());
+			for (int i = 0; i < movesCount; i++) {
+				moveOrdering.selectMove(moves, movesCount, i, 0);
+			}
+		}
 
-		Map<MoveAnalysis, Integer> moveScores = moves.stream().map(
-			move -> computeMoveAnalysis(board, color, history, depth, opponentColor, opponentKingPosition,
-				myKingOriginalPosition, move, computationTimeout))
-			.collect(Collectors.toMap(Function.identity(), MoveAnalysis::getScore));
+		final Map<MoveAnalysis, Integer> moveScores;
+		if (context.getSettings().rootSplit() && !context.isHelper() && depth >= 1) {
+			moveScores = searchRootMovesInParallel(bitBoard, moves, movesCount, depth, context);
+		} else {
+			moveScores = searchRootMoves(bitBoard, moves, movesCount, depth, context);
+		}
+		if (context.isTimeoutReached()) {
+			// Not all the moves were searched, the caller ignores this result
+			return null;
+		}
 
-		if (isTopDepth) {
-			logger.debug(moveScores.entrySet().stream()
-					.sorted(Collections.reverseOrder(Map.Entry.comparingByValue())).map(e -> e.getKey().getMove().toString() + "=" + e.getValue().toString()).collect(
-							Collectors.joining(", ")));
+		if (context.isHelper()) {
+			return null;
 		}
-		return getBestMove(moveScores);
+		logger.debug(moveScores.entrySet().stream()
+				.sorted(Collections.reverseOrder(Map.Entry.comparingByValue())).map(e -> e.getKey().getMove().toString() + "=" + e.getValue().toString()).collect(
+						Collectors.joining(", ")));
+		MoveAnalysis bestMove = getBestMove(moveScores);
+		context.setRootBestMove(PackedMove.withoutChecking(BitBoard.toPackedMove(bestMove.getMove())),
+			bestMove.getScore());
+		return bestMove;
 	}
 
-	private MoveAnalysis computeMoveAnalysis(Board board, Color color, List<Move> history, int depth,
-		Color opponentColor, Position opponentKingPosition, Position myKingOriginalPosition, Move move,
-		LocalDateTime computationTimeout) {
-		MoveAnalysis moveAnalysis = new MoveAnalysis(move);
+	private Map<MoveAnalysis, Integer> searchRootMoves(BitBoard bitBoard, int[] moves, int movesCount, int depth,
+		SearchContext context) {
+		final Color color = bitBoard.getToPlay();
+		final Color opponentColor = swap(color);
+		Map<MoveAnalysis, Integer> moveScores = new HashMap<>();
+		int bestScore = -INFINITY;
+		for (int i = 0; i < movesCount; i++) {
+			final Move move = bitBoard.toMove(moves[i]);
+			bitBoard.doMove(moves[i]);
+			move.setChecking(isInCheck(bitBoard, opponentColor));
+			MoveAnalysis moveAnalysis = new MoveAnalysis(move);
+			int score = computeRootScore(bitBoard, color, depth, moves[i], bestScore, context);
+			moveAnalysis.setScore(score);
+			bestScore = Math.max(bestScore, score);
+			moveScores.put(moveAnalysis, moveAnalysis.getScore());
+			bitBoard.undoMove(moves[i]);
+			if (context.isTimeoutReached()) {
+				break;
+			}
+		}
+		return moveScores;
+	}
 
-		if (computationTimeout != null && computationTimeout.isBefore(LocalDateTime.now())) {
-			// Timeout reached, returning default values for the move
-			return moveAnalysis;
+	private Map<MoveAnalysis, Integer> searchRootMovesInParallel(BitBoard bitBoard, int[] moves, int movesCount,
+		int depth, SearchContext context) {
+		// Root split: each root move is searched by its own task, on a copy of the board where the move is played and
+		// with its own search context. Only the transposition table, the best score so far and the nodes count checked
+		// against the budget are shared.
+		final Color color = bitBoard.getToPlay();
+		final Color opponentColor = swap(color);
+		final AtomicInteger bestScore = new AtomicInteger(-INFINITY);
+		List<Callable<MoveAnalysis>> tasks = new ArrayList<>(movesCount);
+		List<SearchContext> taskContexts = new ArrayList<>(movesCount);
+		final AtomicLong nodes = new AtomicLong(context.getNodes());
+		for (int i = 0; i < movesCount; i++) {
+			final int packedMove = moves[i];
+			final Move move = bitBoard.toMove(packedMove);
+			bitBoard.doMove(packedMove);
+			move.setChecking(isInCheck(bitBoard, opponentColor));
+			final BitBoard taskBitBoard = bitBoard.copy();
+			final SearchContext taskContext = context.fork(nodes);
+			taskContexts.add(taskContext);
+			tasks.add(() -> {
+				MoveAnalysis moveAnalysis = new MoveAnalysis(move);
+				// Same windows as above, with the best score known when the task starts
+				moveAnalysis.setScore(
+					computeRootScore(taskBitBoard, color, depth, packedMove, bestScore.get(), taskContext));
+				bestScore.accumulateAndGet(moveAnalysis.getScore(), Math::max);
+				return moveAnalysis;
+			});
+			bitBoard.undoMove(moves[i]);
 		}
 
-		Position myKingPosition = myKingOriginalPosition;
-		if (move.getPiece() instanceof King) {
-			myKingPosition = new Position(move.getToX(), move.getToY());
+		Map<MoveAnalysis, Integer> moveScores = new HashMap<>();
+		for (Future<MoveAnalysis> task: rootPool.invokeAll(tasks)) {
+			MoveAnalysis moveAnalysis = getResult(task);
+			moveScores.put(moveAnalysis, moveAnalysis.getScore());
 		}
-		Board boardAfter = board.copy();
-		boardAfter.doMove(move);
-		history.add(move);
-		final GameState gameState = getGameState(boardAfter, opponentColor, history);
+		taskContexts.forEach(context::join);
+		return moveScores;
+	}
 
-		int score = evaluateBoard(boardAfter, color, color, gameState, opponentKingPosition, myKingPosition, history);
-		moveAnalysis.setScore(score);
-		if (score >= BEST) {
-			history.remove(move);
-			return moveAnalysis;
+	private int computeRootScore(BitBoard bitBoard, Color color, int depth, int move, int bestScore,
+		SearchContext context) {
+		if (move == context.getRootBestMove() && context.hasRootScore()) {
+			// Aspiration window: the best move of the previous depth is expected to keep about the same score, and a
+			// narrow window cuts more moves. When the score falls outside, the window is widened and the move searched
+			// again.
+			final int expectedScore = context.getRootScore();
+			int window = ASPIRATION_WINDOW;
+			int alpha = expectedScore - window;
+			int beta = expectedScore + window;
+			while (true) {
+				final int score = computeScore(bitBoard, color, depth, 1, alpha, beta, context);
+				if (context.isTimeoutReached() || (score > alpha && score < beta)) {
+					return score;
+				}
+				window *= 4;
+				if (score <= alpha) {
+					alpha = window > BEST ? -INFINITY : expectedScore - window;
+				} else {
+					beta = window > BEST ? INFINITY : expectedScore + window;
+				}
+			}
+		}
+		if (bestScore == -INFINITY) {
+			return computeScore(bitBoard, color, depth, 1, -INFINITY, INFINITY, context);
+		}
+		// Moves as good as the best one must get their exact score, so that one of them is randomly chosen. A worse
+		// move only needs to be proven worse with a null window: its score is then an upper bound. The leaves are
+		// evaluated at once, they are not worth a null window search first.
+		if (depth == 0) {
+			return computeScore(bitBoard, color, depth, 1, bestScore - 1, INFINITY, context);
 		}
+		final int score = computeScore(bitBoard, color, depth, 1, bestScore - 1, bestScore, context);
+		if (score < bestScore) {
+			return score;
+		}
+		return computeScore(bitBoard, color, depth, 1, bestScore - 1, INFINITY, context);
+	}
 
-		// Compute the probable next move for the opponent and see if our current move is a real benefit in the end
-		if (depth >= 1 && gameState.isInProgress()) {
-			MoveAnalysis opponentMoveAnalysis =
-				selectMove(boardAfter, opponentColor, history, depth - 1, false, computationTimeout);
-			moveAnalysis.setScore(-opponentMoveAnalysis.getScore());
+	private void shuffle(int[] moves, int movesCount, Random random) {
+		for (int i = movesCount - 1; i > 0; i--) {
+			final int j = random.nextInt(i + 1);
+			final int move = moves[i];
+			moves[i] = moves[j];
+			moves[j] = move;
 		}
-		history.remove(move);
-		return moveAnalysis;
 	}
 
-	Optional<Position> findKingPosition(Board board, Color color) {
-		for (int x = 0; x < SIZE; x++) {
-			for (int y = 0; y < SIZE; y++) {
-				Optional<Piece> pieceOpt = board.getPiece(x, y);
-				if (pieceOpt.isPresent()) {
-					Piece piece = pieceOpt.get();
-					if (piece instanceof King && piece.getColor() == color) {
-						return Optional.of(new Position(x, y));
+	private int selectScore(BitBoard bitBoard, int depth, int ply, int alpha, int beta, SearchContext context) {
+		// Negamax with alpha-beta bounds: once a move is good enough for the opponent to avoid this position, the other
+		// moves do not need to be searched. The returned score is then a bound, and so is the one stored.
+		final TranspositionTable transpositionTable = context.getTranspositionTable();
+		final long key = getSearchKey(bitBoard);
+		final long entry = transpositionTable.probe(key);
+		final int hashMove = entry == 0 ? 0 : TranspositionTable.getMove(entry);
+		if (entry != 0 && TranspositionTable.getDepth(entry) >= depth) {
+			final int entryScore = TranspositionTable.getScore(entry);
+			switch (TranspositionTable.getBound(entry)) {
+				case TranspositionTable.EXACT:
+					return entryScore;
+				case TranspositionTable.LOWER_BOUND:
+					if (entryScore >= beta) {
+						return entryScore;
+					}
+					break;
+				case TranspositionTable.UPPER_BOUND:
+					if (entryScore <= alpha) {
+						return entryScore;
+					}
+					break;
+			}
+		}
+
+		// The moves are legal, so without any the game is over: checkmate or stalemate
+		final Color color = bitBoard.getToPlay();
+		final int[] moves = context.getMovesBuffer(ply);
+		final int movesCount = computeAllMoves(bitBoard, moves);
+		if (movesCount == 0) {
+			final Color lastPlayer = swap(color);
+			final GameState gameState = isInCheck(bitBoard, color) ? GameState.LOSS : GameState.DRAW_STALEMATE;
+			return -evaluateBoard(bitBoard, lastPlayer, lastPlayer, gameState);
+		}
+
+		final SearchSettings settings = context.getSettings();
+		final boolean inCheck = (settings.isNullMovePruning() || settings.isLateMoveReduction())
+			&& isInCheck(bitBoard, color);
+		if (settings.isNullMovePruning() && isNullMoveAllowed(bitBoard, color, depth, alpha, beta, inCheck, settings)) {
+			// Null move pruning: when the opponent, given a free move and searched less deep, still cannot bring the
+			// score below beta, a real move will not either
+			bitBoard.doNullMove();
+			final int score = computeScore(bitBoard, color, depth - settings.nullMoveReduction(), ply + 1, beta - 1,
+				beta, context);
+			bitBoard.undoNullMove();
+			if (score >= beta && !context.isTimeoutReached()) {
+				return beta;
+			}
+		}
+
+		final MoveOrdering moveOrdering = context.getMoveOrdering();
+		moveOrdering.scoreMoves(moves, movesCount, ply, hashMove, color.ordinal());
+
+		final int originalAlpha = alpha;
+		int bestScore = -INFINITY;
+		int bestMove = 0;
+		int searchedMoves = 0;
+		for (int i = 0; i < movesCount; i++) {
+			final int move = moveOrdering.selectMove(moves, movesCount, i, ply);
+			bitBoard.doMove(move);
+			searchedMoves++;
+			int score;
+			if (searchedMoves == 1) {
+				score = computeScore(bitBoard, color, depth, ply + 1, alpha, beta, context);
+			} else {
+				score = alpha + 1;
+				if (isLateMoveReduced(bitBoard, color, move, depth, ply, searchedMoves, inCheck, context)) {
+					// Late move reduction: the quiet moves ordered last are unlikely to be good, so they are first
+					// searched less deep, and fully only when they turn out to be better than expected
+					score = computeScore(bitBoard, color, depth - settings.lateMoveReduction(), ply + 1, alpha,
+						alpha + 1, context);
+				}
+				if (score > alpha) {
+					// Principal variation search: the first move is expected to be the best one, so the next ones
+					// are only proven worse with a null window, and searched again with the full window when they
+					// are not
+					score = computeScore(bitBoard, color, depth, ply + 1, alpha, alpha + 1, context);
+					if (score > alpha && score < beta) {
+						score = computeScore(bitBoard, color, depth, ply + 1, alpha, beta, context);
 					}
 				}
 			}
+			if (score > bestScore) {
+				bestScore = score;
+				bestMove = move;
+				alpha = Math.max(alpha, score);
+			}
+			bitBoard.undoMove(move);
+			if (context.isTimeoutReached()) {
+				break;
+			}
+			if (alpha >= beta) {
+				moveOrdering.addCutoff(move, ply, depth, color.ordinal());
+				context.addCutoff(searchedMoves == 1);
+				break;
+			}
 		}
-		return Optional.empty();
+
+		// A score computed after the timeout may be wrong, so it is not kept
+		if (!context.isTimeoutReached()) {
+			final int bound;
+			if (bestScore <= originalAlpha) {
+				bound = TranspositionTable.UPPER_BOUND;
+			} else if (bestScore >= beta) {
+				bound = TranspositionTable.LOWER_BOUND;
+			} else {
+				bound = TranspositionTable.EXACT;
+			}
+			transpositionTable.store(key, depth, bound, bestScore, bestMove);
+		}
+		return bestScore;
 	}
 
-	int evaluateBoard(Board board, Color colorToEvaluate, Color lastPlayer, GameState gameState, Position opponentKingPosition, Position myKingPosition, List<Move> history) {
-		if (!gameState.isInProgress()) {
-			int gameStateScore = NEUTRAL;
-			// Game is over
-			if (gameState.isLost()) {
-				if (lastPlayer == colorToEvaluate) {
-					// Opponent is checkmate, that is the best move to do!
-					gameStateScore = BEST;
-				} else {
-					// I am checkmate, that is the worst move to do!
-					gameStateScore = WORST;
+	private boolean isNullMoveAllowed(BitBoard bitBoard, Color color, int depth, int alpha, int beta,
+		boolean inCheck, SearchSettings settings) {
+		// Only to prove that a null window node fails high, never twice in a row and never in check. Without any piece
+		// but pawns, passing may be the best move (zugzwang), so it cannot be trusted.
+		return beta - alpha == 1 && beta < BEST && depth >= settings.nullMoveReduction() && !inCheck
+			&& !bitBoard.isLastMoveNull()
+			&& (bitBoard.getPieces(color) & ~bitBoard.getPieces(color, PAWN) & ~bitBoard.getPieces(color, KING)) != 0L;
+	}
+
+	private boolean isLateMoveReduced(BitBoard bitBoard, Color color, int move, int depth, int ply, int searchedMoves,
+		boolean inCheck, SearchContext context) {
+		// Called once the move is played: the moves escaping or giving a check are never reduced
+		final SearchSettings settings = context.getSettings();
+		return settings.isLateMoveReduction() && searchedMoves > settings.fullDepthMoves()
+			&& depth >= settings.lateMoveReduction() && !inCheck && MoveOrdering.isQuiet(move)
+			&& !context.getMoveOrdering().isKiller(move, ply) && !isInCheck(bitBoard, swap(color));
+	}
+
+	private int computeScore(BitBoard bitBoard, Color color, int depth, int ply, int alpha, int beta,
+		SearchContext context) {
+		context.incrementNodes();
+		if (depth >= 1) {
+			// Compute the probable next move for the opponent and see if our current move is a real benefit in the end.
+			// The next search generates the moves anyway and finds checkmate and stalemate from them, only the draws
+			// by rule are checked before the transposition table is looked up.
+			if (bitBoard.getHalfMoveClock() >= DRAW_50_MOVES_PLIES || bitBoard.isThreefoldRepetition()) {
+				final GameState gameState = getGameState(bitBoard, context.getMovesBuffer(ply));
+				if (!gameState.isInProgress()) {
+					return evaluateBoard(bitBoard, color, color, gameState);
 				}
-			} else if (gameState.isDraw()) {
-				// Let us be aggressive, a draw is not a good move, we want to win
-				gameStateScore += DRAW_PENALTY;
 			}
-			return gameStateScore;
+			return -selectScore(bitBoard, depth - 1, ply, -beta, -alpha, context);
+		}
+
+		final GameState gameState = getGameState(bitBoard, context.getMovesBuffer(ply));
+		int score = gameState.isInProgress() ? evaluateBoard(bitBoard, color, context)
+			: evaluateBoard(bitBoard, color, color, gameState);
+		if (score < BEST && gameState.isInProgress()) {
+			if (context.isQuiescence()) {
+				// At the horizon, the position may be in the middle of an exchange: play the captures until it is quiet
+				context.startQuiescence();
+				score = -selectQuiescenceScore(bitBoard, -score, ply, -beta, -alpha, context);
+			}
+		}
+		return score;
+	}
+
+	private int evaluateBoard(BitBoard bitBoard, Color lastPlayer, SearchContext context) {
+		// A game in progress is evaluated for the last player, so the key of the position, where the player to play is,
+		// tells which side the cached score is for
+		final EvaluationCache evaluationCache = context.getEvaluationCache();
+		final long key = getSearchKey(bitBoard);
+		int score = evaluationCache.probe(key);
+		if (score == EvaluationCache.MISSING) {
+			score = evaluateBoard(bitBoard, lastPlayer, lastPlayer, GameState.IN_PROGRESS);
+			evaluationCache.store(key, score);
+		}
+		return score;
+	}
+
+	private int selectQuiescenceScore(BitBoard bitBoard, int standPat, int ply, int alpha, int beta,
+		SearchContext context) {
+		// The player to play does not have to take anything, so the score of the position as it is (the stand pat) is
+		// a lower bound. Then only the captures that may improve it are searched.
+		if (standPat >= beta || ply >= context.getMaxPly() || !context.hasQuiescenceNodesLeft()) {
+			return standPat;
+		}
+		alpha = Math.max(alpha, standPat);
+
+		final Color color = bitBoard.getToPlay();
+		final int[] moves = context.getMovesBuffer(ply);
+		final int movesCount = computeAllMoves(bitBoard, moves, true);
+		final MoveOrdering moveOrdering = context.getMoveOrdering();
+		moveOrdering.scoreMoves(moves, movesCount, ply, 0, color.ordinal());
+
+		int bestScore = standPat;
+		for (int i = 0; i < movesCount && !context.isTimeoutReached(); i++) {
+			final int move = moveOrdering.selectMove(moves, movesCount, i, ply);
+			// Delta pruning: skip the captures that cannot raise the score up to alpha, even with a margin
+			int gain = PIECE_VALUES[PackedMove.getCapturedType(move)];
+			if (PackedMove.getFlag(move) == PackedMove.PROMOTION) {
+				gain += PIECE_VALUES[PackedMove.getPromotedType(move)] - PIECE_VALUES[PAWN];
+			}
+			if (standPat + 10 * gain + DELTA_MARGIN <= alpha) {
+				continue;
+			}
+
+			bitBoard.doMove(move);
+			context.incrementQuiescenceNodes();
+			final int childStandPat = -evaluateBoard(bitBoard, color, context);
+			final int score = -selectQuiescenceScore(bitBoard, childStandPat, ply + 1, -beta, -alpha, context);
+			if (score > bestScore) {
+				bestScore = score;
+				alpha = Math.max(alpha, score);
+			}
+			bitBoard.undoMove(move);
+			if (alpha >= beta) {
+				break;
+			}
+		}
+		return bestScore;
+	}
+
+	Optional<Position> findKingPosition(Board board, Color color) {
+		final int kingSquare = board.getKingSquare(color);
+		if (kingSquare == NONE) {
+			return Optional.empty();
+		}
+		return Optional.of(new Position(getX(kingSquare), getY(kingSquare)));
+	}
+
+	int evaluateBoard(Board board, Color colorToEvaluate, Color lastPlayer, GameState gameState, Position opponentKingPosition, Position myKingPosition, List<Move> history) {
+		if (!gameState.isInProgress()) {
+			return getGameStateScore(colorToEvaluate, lastPlayer, gameState);
 		}
 
 		int piecesScore = getPiecesScore(board, colorToEvaluate);
 		int heatScore = getHeatScore(board, colorToEvaluate, opponentKingPosition, myKingPosition, history);
 		int developmentScore = getDevelopmentScore(colorToEvaluate, history);
+		int pawnStructureScore = getPawnStructureScore(board, colorToEvaluate);
 
-		return 10 * piecesScore + heatScore + developmentScore;
+		return 10 * piecesScore + heatScore + developmentScore + pawnStructureScore;
+	}
+
+	int evaluateBoard(BitBoard bitBoard, Color colorToEvaluate, Color lastPlayer, GameState gameState) {
+		if (!gameState.isInProgress()) {
+			return getGameStateScore(colorToEvaluate, lastPlayer, gameState);
+		}
+
+		int piecesScore = getPiecesScore(bitBoard, colorToEvaluate);
+		int heatScore = getHeatScore(bitBoard, colorToEvaluate);
+		int developmentScore = getDevelopmentScore(bitBoard, colorToEvaluate);
+		int pawnStructureScore = pawnStructure.evaluate(bitBoard, colorToEvaluate);
+
+		return 10 * piecesScore + heatScore + developmentScore + pawnStructureScore;
+	}
+
+	private int getGameStateScore(Color colorToEvaluate, Color lastPlayer, GameState gameState) {
+		int gameStateScore = NEUTRAL;
+		// Game is over
+		if (gameState.isLost()) {
+			if (lastPlayer == colorToEvaluate) {
+				// Opponent is checkmate, that is the best move to do!
+				gameStateScore = BEST;
+			} else {
+				// I am checkmate, that is the worst move to do!
+				gameStateScore = WORST;
+			}
+		} else if (gameState.isDraw()) {
+			// Let us be aggressive, a draw is not a good move, we want to win
+			gameStateScore += DRAW_PENALTY;
+		}
+		return gameStateScore;
 	}
 
 	private int getPiecesScore(Board board, Color color) {
@@ -271,32 +888,113 @@ public class MoveService {
 		return piecesValue-opponentPiecesValue;
 	}
 
+	private int getPawnStructureScore(Board board, Color color) {
+		long whitePawns = 0L;
+		long blackPawns = 0L;
+		for (int y = 0; y < Board.SIZE; y++) {
+			for (int x = 0; x < Board.SIZE; x++) {
+				final Piece piece = board.getBoard()[y][x];
+				if (piece == Pawn.WHITE) {
+					whitePawns |= toBit(toSquare(x, y));
+				} else if (piece == Pawn.BLACK) {
+					blackPawns |= toBit(toSquare(x, y));
+				}
+			}
+		}
+		final int score = PawnStructure.computeScore(whitePawns, blackPawns);
+		return color == Color.WHITE ? score : -score;
+	}
+
 	int getHeatScore(Board board, Color color, Position opponentKingPosition, Position myKingPosition,
 		List<Move> history) {
-		// Should focus the fire on the center of the board and around the opponent's king
-		List<Move> allMoves = computeAllMoves(board, color, history,false, true);
+		// Should focus the fire on the center of the board and around the opponent's king. The squares attacked by
+		// each piece are found with the attack tables, without generating the moves.
+		final int attackingRate = history.size() < MID_GAME_MOVES_COUNT ? 0 : 1;
+		final Color opponentColor = swap(color);
+		int myHeatScore = getHeat(board, color, getEnPassantSquare(board, color),
+			toSquare(opponentKingPosition.getX(), opponentKingPosition.getY()), attackingRate);
+		int opponentHeatScore = getHeat(board, opponentColor, getEnPassantSquare(board, opponentColor),
+			toSquare(myKingPosition.getX(), myKingPosition.getY()), attackingRate);
+		return myHeatScore - opponentHeatScore;
+	}
 
-		final int centerControllingRate = 1;
-		final int attackingRate;
-		if (history.size() < MID_GAME_MOVES_COUNT) {
-			attackingRate = 0;
-		} else {
-			attackingRate = 1;
-		}
-		int[][] heatmapOpponentKing = getHeatmapAroundLocation(opponentKingPosition.getX(), opponentKingPosition.getY());
-		int myHeatScore = allMoves.stream().mapToInt(m ->
-			centerControllingRate * heatmapCenter[m.getToX()][m.getToY()]
-			+ attackingRate * heatmapOpponentKing[m.getToX()][m.getToY()]
-		).sum();
-		List<Move> allOpponentMoves = computeAllMoves(board, swap(color), history,false, true);
-		int[][] heatmapMyKing = getHeatmapAroundLocation(myKingPosition.getX(), myKingPosition.getY());
-		int opponentHeatScore = allOpponentMoves.stream().mapToInt(m ->
-			centerControllingRate * heatmapCenter[m.getToX()][m.getToY()]
-			+ attackingRate * heatmapMyKing[m.getToX()][m.getToY()]
-		).sum();
+	int getHeatScore(BitBoard bitBoard, Color color) {
+		// Same as above, the plies played telling whether it is the middle game
+		final int attackingRate = bitBoard.getPlyCount() < MID_GAME_MOVES_COUNT ? 0 : 1;
+		final Color opponentColor = swap(color);
+		final int enPassantSquare = bitBoard.getEnPassantSquare();
+		int myHeatScore = getHeat(bitBoard, color, color == bitBoard.getToPlay() ? enPassantSquare : NONE,
+			bitBoard.getKingSquare(opponentColor), attackingRate);
+		int opponentHeatScore = getHeat(bitBoard, opponentColor,
+			opponentColor == bitBoard.getToPlay() ? enPassantSquare : NONE, bitBoard.getKingSquare(color),
+			attackingRate);
 		return myHeatScore - opponentHeatScore;
 	}
 
+	// The board does not tell who is to play, but the rank of the en-passant square tells who may take there
+	private static int getEnPassantSquare(Board board, Color color) {
+		final int enPassantSquare = board.getEnPassantSquare();
+		if (enPassantSquare != NONE && getY(enPassantSquare) == (color == Color.WHITE ? SIZE - 3 : 2)) {
+			return enPassantSquare;
+		}
+		return NONE;
+	}
+
+	// Heat of the squares attacked by the pieces of one color. The en-passant square is NONE unless its pawns may
+	// take there.
+	private int getHeat(Bitboards bitboards, Color color, int enPassantSquare, int opponentKingSquare,
+		int attackingRate) {
+		final long notOwn = ~bitboards.getPieces(color);
+		final long occupied = bitboards.getOccupied();
+		int heat = 0;
+		for (int type = PAWN; type <= KING; type++) {
+			long pieces = bitboards.getPieces(color, type);
+			while (pieces != 0) {
+				final int from = Long.numberOfTrailingZeros(pieces);
+				pieces &= pieces - 1;
+				switch (type) {
+					case PAWN:
+						final boolean isWhite = color == Color.WHITE;
+						final long attacks = pawnAttacks(from, isWhite);
+						// A promotion counts once per possible promoted piece
+						final int promotionFactor = (attacks & (isWhite ? RANK_8 : RANK_1)) != 0 ? 4 : 1;
+						heat += promotionFactor * getHeat(attacks, opponentKingSquare, attackingRate);
+						if (enPassantSquare != NONE && (attacks & toBit(enPassantSquare)) != 0) {
+							heat += getHeat(toBit(enPassantSquare), opponentKingSquare, attackingRate);
+						}
+						break;
+					case KNIGHT:
+						heat += getHeat(knightAttacks(from) & notOwn, opponentKingSquare, attackingRate);
+						break;
+					case BISHOP:
+						heat += getHeat(bishopAttacks(from, occupied) & notOwn, opponentKingSquare, attackingRate);
+						break;
+					case ROOK:
+						heat += getHeat(rookAttacks(from, occupied) & notOwn, opponentKingSquare, attackingRate);
+						break;
+					case QUEEN:
+						heat += getHeat(queenAttacks(from, occupied) & notOwn,
+							opponentKingSquare, attackingRate);
+						break;
+					default:
+						heat += getHeat(kingAttacks(from) & notOwn, opponentKingSquare, attackingRate);
+				}
+			}
+		}
+		return heat;
+	}
+
+	private int getHeat(long squares, int opponentKingSquare, int attackingRate) {
+		final int[] heatmapOpponentKing = KING_ZONE_HEATMAPS[opponentKingSquare];
+		int heat = 0;
+		while (squares != 0) {
+			final int square = Long.numberOfTrailingZeros(squares);
+			squares &= squares - 1;
+			heat += CENTER_HEATMAP[square] + attackingRate * heatmapOpponentKing[square];
+		}
+		return heat;
+	}
+
 	int getDevelopmentScore(Color color, List<Move> history) {
 		// Development strategy is key to avoid being late compared the opponent
 		int myDevelopmentScore = getDevelopmentBonus(
@@ -306,19 +1004,59 @@ public class MoveService {
 		return myDevelopmentScore - opponentDevelopmentScore;
 	}
 
+	int getDevelopmentScore(BitBoard bitBoard, Color color) {
+		final boolean isLastMoveMine = bitBoard.getToPlay() != color;
+		final int plyCount = bitBoard.getPlyCount();
+		final int firstMyPly = (plyCount - (isLastMoveMine ? 1 : 0)) % 2;
+		return getDevelopmentBonus(bitBoard, firstMyPly) - getDevelopmentBonus(bitBoard, 1 - firstMyPly);
+	}
+
+	private int getDevelopmentBonus(BitBoard bitBoard, int firstPly) {
+		final int state = bitBoard.getDevelopmentState(firstPly);
+		int bonus = 0;
+		if ((state & MAJOR_PIECE_MOVED) != 0) {
+			bonus += OPENING_MISTAKE_PENALTY;
+		}
+		if ((state & PIECE_MOVED_TWICE) != 0) {
+			bonus += OPENING_MISTAKE_PENALTY;
+		}
+		if ((state & CASTLED) != 0) {
+			bonus += CASTLING_BONUS;
+		} else if ((state & KING_MOVED) != 0) {
+			bonus += KING_MOVE_MISTAKE_PENALTY;
+		}
+		return bonus;
+	}
+
+	long getSearchKey(BitBoard bitBoard) {
+		// Besides the position, the evaluation depends on the development of both players and on the game phase, which
+		// must be part of the key for a stored score to be reused
+		final long context = bitBoard.getDevelopmentState(0)
+			| (bitBoard.getDevelopmentState(1) << DEVELOPMENT_STATE_BITS)
+			| ((long) Math.min(bitBoard.getPlyCount(), MID_GAME_MOVES_COUNT) << (2 * DEVELOPMENT_STATE_BITS));
+		return bitBoard.getKey() ^ (context * 0x9E3779B97F4A7C15L);
+	}
+
 	int getDevelopmentBonus(List<Move> myHistory) {
 		int bonus = 0;
 		if (myHistory.size() <= OPENING_MOVES_COUNT) {
 			// Still in the opening
-			List<Piece> openingPieces = myHistory.stream().filter(m -> !(m instanceof CastlingMove)).map(Move::getPiece)
-				.filter(p -> !(p instanceof Pawn)).collect(toList());
+			List<Move> openingMoves = myHistory.stream().filter(m -> !(m instanceof CastlingMove))
+				.filter(m -> !(m.getPiece() instanceof Pawn)).collect(toList());
 			// Should not use a major piece for now
-			if (openingPieces.stream().anyMatch(p -> p instanceof Queen || p instanceof Rook || p instanceof King)) {
+			if (openingMoves.stream().map(Move::getPiece)
+				.anyMatch(p -> p instanceof Queen || p instanceof Rook || p instanceof King)) {
 				bonus += OPENING_MISTAKE_PENALTY;
 			}
-			// Should not move twice the same piece
-			Set<Piece> distinctOpeningPieces = new HashSet<>(openingPieces);
-			if (distinctOpeningPieces.size() != openingPieces.size()) {
+			// Should not move twice the same piece, which is told by a move starting where a previous one landed, as
+			// the pieces of a same type and color are the same instance
+			long landingSquares = 0L;
+			boolean isPieceMovedTwice = false;
+			for (Move move : openingMoves) {
+				isPieceMovedTwice |= (landingSquares & toBit(toSquare(move.getFromX(), move.getFromY()))) != 0;
+				landingSquares |= toBit(toSquare(move.getToX(), move.getToY()));
+			}
+			if (isPieceMovedTwice) {
 				bonus += OPENING_MISTAKE_PENALTY;
 			}
 		}
@@ -347,6 +1085,10 @@ public class MoveService {
 		return sum;
 	}
 
+	private int getPiecesScore(BitBoard bitBoard, Color color) {
+		return bitBoard.getMaterial(color) - bitBoard.getMaterial(swap(color));
+	}
+
 	MoveAnalysis getBestMove(Map<MoveAnalysis, Integer> moveScores) {
 		return getMaxScoreWithRandomChoice(moveScores)
 				.orElseThrow(() -> new RuntimeException("At least one move must be done"));
@@ -372,13 +1114,26 @@ public class MoveService {
 		return Optional.of(bestMoves.get(RANDOM.nextInt(bestMoves.size())));
 	}
 
-	boolean canMove(Board board, Color color, List<Move> history) {
-		List<Move> moves = computeBoardMoves(board, color, history,true, true, false);
+	boolean canMove(Board board, Color color) {
+		// The checking info is not needed here
+		List<Move> moves = computeBoardMoves(board, color, true, false, true, false);
 		return !moves.isEmpty();
 	}
 
-	List<Move> computeBoardMoves(Board board, Color color, List<Move> history, boolean withAdditionalInfo,
+	private boolean canMove(BitBoard bitBoard, int[] movesBuffer) {
+		return computeAllMoves(bitBoard, movesBuffer) > 0;
+	}
+
+	List<Move> computeBoardMoves(Board board, Color color, boolean withAdditionalInfo,
 		boolean returnFirstPieceMoves, boolean takingMovesOnly) {
+		return computeBoardMoves(board, color, withAdditionalInfo, withAdditionalInfo, returnFirstPieceMoves,
+			takingMovesOnly);
+	}
+
+	private List<Move> computeBoardMoves(Board board, Color color, boolean legalOnly, boolean withChecking,
+		boolean returnFirstPieceMoves, boolean takingMovesOnly) {
+		// Checks and pins are found once for all the pieces
+		final LegalityMasks legalityMasks = legalOnly ? LegalityMasks.of(board, color) : null;
 		List<Move> moves = new ArrayList<>();
 		List<PiecePosition> piecePositions = new ArrayList<>();
 		for (int i = 0; i < SIZE; i++) {
@@ -394,7 +1149,7 @@ public class MoveService {
 
 		for (PiecePosition piecePosition: piecePositions) {
 			List<Move> pieceMoves = computeMoves(board, piecePosition.getPiece(), piecePosition.getPosition().getX(),
-				piecePosition.getPosition().getY(), history, withAdditionalInfo, takingMovesOnly);
+				piecePosition.getPosition().getY(), legalityMasks, withChecking, takingMovesOnly);
 			if (!pieceMoves.isEmpty() && returnFirstPieceMoves) {
 				return pieceMoves;
 			}
@@ -404,7 +1159,11 @@ public class MoveService {
 	}
 
 	boolean isInCheck(Board board, Color color) {
-		final Position kingPosition = findKingPosition(board, color).orElseThrow(() -> new RuntimeException("King not found"));
+		final int kingSquare = board.getKingSquare(color);
+		if (kingSquare == NONE) {
+			throw new RuntimeException("King not found");
+		}
+		final Position kingPosition = new Position(getX(kingSquare), getY(kingSquare));
 
 		return isInStraightCheck(board, kingPosition, color)
 			|| isInDiagonalCheck(board, kingPosition, color)
@@ -412,8 +1171,238 @@ public class MoveService {
 			|| isInPawnCheck(board, kingPosition, color);
 	}
 
-	List<Move> computePawnMoves(Piece piece, int posX, int posY, Board board, List<Move> history,
-		boolean takingMovesOnly) {
+	boolean isInCheck(BitBoard bitBoard, Color color) {
+		final int kingSquare = bitBoard.getKingSquare(color);
+		if (kingSquare == NONE) {
+			throw new RuntimeException("King not found");
+		}
+		return isAttacked(bitBoard, kingSquare, swap(color), bitBoard.getOccupied());
+	}
+
+	boolean isAttacked(BitBoard bitBoard, int square, Color attackerColor, long occupied) {
+		// Pieces attacking a square are found from the square itself, with the reverse attacks of each kind of piece
+		if ((pawnAttacks(square, attackerColor != Color.WHITE) & bitBoard.getPieces(attackerColor, PAWN)) != 0
+			|| (knightAttacks(square) & bitBoard.getPieces(attackerColor, KNIGHT)) != 0
+			|| (kingAttacks(square) & bitBoard.getPieces(attackerColor, KING)) != 0) {
+			return true;
+		}
+		final long queens = bitBoard.getPieces(attackerColor, QUEEN);
+		return (bishopAttacks(square, occupied) & (bitBoard.getPieces(attackerColor, BISHOP) | queens)) != 0
+			|| (rookAttacks(square, occupied) & (bitBoard.getPieces(attackerColor, ROOK) | queens)) != 0;
+	}
+
+	public int computeAllMoves(BitBoard bitBoard, int[] moves) {
+		return computeAllMoves(bitBoard, moves, false);
+	}
+
+	// Count of the leaf nodes of the legal moves tree up to the given depth, to check the moves generation
+	public long perft(BitBoard bitBoard, int depth) {
+		return perft(bitBoard, depth, new int[depth + 1][MAX_MOVES]);
+	}
+
+	// Same as perft, split by root move in UCI notation
+	public Map<String, Long> divide(BitBoard bitBoard, int depth) {
+		if (depth < 1) {
+			throw new IllegalArgumentException("Depth must be at least 1");
+		}
+		final int[][] movesBuffers = new int[depth + 1][MAX_MOVES];
+		final int[] moves = movesBuffers[depth];
+		final int movesCount = computeAllMoves(bitBoard, moves);
+		Map<String, Long> nodesByMove = new LinkedHashMap<>();
+		for (int i = 0; i < movesCount; i++) {
+			final String notation = bitBoard.toMove(moves[i]).getUciNotation();
+			bitBoard.doMove(moves[i]);
+			nodesByMove.put(notation, perft(bitBoard, depth - 1, movesBuffers));
+			bitBoard.undoMove(moves[i]);
+		}
+		return nodesByMove;
+	}
+
+	private long perft(BitBoard bitBoard, int depth, int[][] movesBuffers) {
+		if (depth == 0) {
+			return 1;
+		}
+		final int[] moves = movesBuffers[depth];
+		final int movesCount = computeAllMoves(bitBoard, moves);
+		if (depth == 1) {
+			// The moves are legal, they do not need to be played to be counted
+			return movesCount;
+		}
+		long nodes = 0;
+		for (int i = 0; i < movesCount; i++) {
+			bitBoard.doMove(moves[i]);
+			nodes += perft(bitBoard, depth - 1, movesBuffers);
+			bitBoard.undoMove(moves[i]);
+		}
+		return nodes;
+	}
+
+	public int computeAllMoves(BitBoard bitBoard, int[] moves, boolean takingMovesOnly) {
+		// Legal moves of the player to play, most valuable pieces first. Checks and pins are found once, so that only
+		// the king and en-passant moves have to be looked at one by one.
+		final Color color = bitBoard.getToPlay();
+		final LegalityMasks legalityMasks = LegalityMasks.of(bitBoard, color);
+		final long targets = takingMovesOnly ? bitBoard.getPieces(swap(color)) : ~bitBoard.getPieces(color);
+		final long occupied = bitBoard.getOccupied();
+		int count = 0;
+		for (int type = KING; type >= PAWN; type--) {
+			long pieces = bitBoard.getPieces(color, type);
+			while (pieces != 0) {
+				final int from = Long.numberOfTrailingZeros(pieces);
+				pieces &= pieces - 1;
+				switch (type) {
+					case PAWN:
+						count = computePawnMoves(bitBoard, color, from, legalityMasks.getTargets(from),
+							takingMovesOnly, moves, count);
+						break;
+					case KNIGHT:
+						count = addMoves(bitBoard, from, KNIGHT,
+							knightAttacks(from) & targets & legalityMasks.getTargets(from), moves, count);
+						break;
+					case BISHOP:
+						count = addMoves(bitBoard, from, BISHOP,
+							bishopAttacks(from, occupied) & targets & legalityMasks.getTargets(from), moves, count);
+						break;
+					case ROOK:
+						count = addMoves(bitBoard, from, ROOK,
+							rookAttacks(from, occupied) & targets & legalityMasks.getTargets(from), moves, count);
+						break;
+					case QUEEN:
+						count = addMoves(bitBoard, from, QUEEN,
+							queenAttacks(from, occupied) & targets & legalityMasks.getTargets(from), moves, count);
+						break;
+					default:
+						count = addKingMoves(bitBoard, color, from, kingAttacks(from) & targets, moves, count);
+						if (!takingMovesOnly) {
+							count = computeCastlingMoves(bitBoard, color, from, moves, count);
+						}
+				}
+			}
+		}
+		return count;
+	}
+
+	private int addMoves(BitBoard bitBoard, int from, int type, long targets, int[] moves, int count) {
+		while (targets != 0) {
+			final int to = Long.numberOfTrailingZeros(targets);
+			targets &= targets - 1;
+			moves[count++] = PackedMove.of(from, to, type, bitBoard.getType(to));
+		}
+		return count;
+	}
+
+	private int addKingMoves(BitBoard bitBoard, Color color, int from, long targets, int[] moves, int count) {
+		// The king must not go to an attacked square, including one behind it on the line of a checking slider
+		final Color opponentColor = swap(color);
+		final long occupiedWithoutKing = bitBoard.getOccupied() & ~toBit(from);
+		while (targets != 0) {
+			final int to = Long.numberOfTrailingZeros(targets);
+			targets &= targets - 1;
+			if (!isAttacked(bitBoard, to, opponentColor, occupiedWithoutKing)) {
+				moves[count++] = PackedMove.of(from, to, KING, bitBoard.getType(to));
+			}
+		}
+		return count;
+	}
+
+	private int computePawnMoves(BitBoard bitBoard, Color color, int from, long legalTargets, boolean takingMovesOnly,
+		int[] moves, int count) {
+		final boolean isWhite = color == Color.WHITE;
+		final int forward = isWhite ? SIZE : -SIZE;
+		final int initialY = isWhite ? 1 : 6;
+		final long occupied = bitBoard.getOccupied();
+
+		// try one forward, then two forward if initial position (no taking)
+		final int oneForward = from + forward;
+		if (!takingMovesOnly && (occupied & toBit(oneForward)) == 0) {
+			if ((legalTargets & toBit(oneForward)) != 0) {
+				count = addPawnMove(from, oneForward, NONE, PackedMove.NORMAL, moves, count);
+			}
+			final int twoForward = oneForward + forward;
+			if (getY(from) == initialY && (occupied & toBit(twoForward)) == 0
+				&& (legalTargets & toBit(twoForward)) != 0) {
+				count = addPawnMove(from, twoForward, NONE, PackedMove.NORMAL, moves, count);
+			}
+		}
+
+		// forward diagonal is only for taking
+		final long attacks = pawnAttacks(from, isWhite);
+		long targets = attacks & bitBoard.getPieces(swap(color)) & legalTargets;
+		while (targets != 0) {
+			final int to = Long.numberOfTrailingZeros(targets);
+			targets &= targets - 1;
+			count = addPawnMove(from, to, bitBoard.getType(to), PackedMove.NORMAL, moves, count);
+		}
+
+		// en-passant move, only possible right after the opponent pawn moved two forward. Since two pawns leave the
+		// same rank at once, it is played to know whether it uncovers the king.
+		final int enPassantSquare = bitBoard.getEnPassantSquare();
+		if (enPassantSquare != NONE && (attacks & toBit(enPassantSquare)) != 0) {
+			final int move = PackedMove.of(from, enPassantSquare, PAWN, PAWN, PackedMove.EN_PASSANT, 0);
+			bitBoard.doMove(move);
+			if (!isInCheck(bitBoard, color)) {
+				moves[count++] = move;
+			}
+			bitBoard.undoMove(move);
+		}
+		return count;
+	}
+
+	private int addPawnMove(int from, int to, int capturedType, int flag, int[] moves, int count) {
+		if ((toBit(to) & (RANK_1 | RANK_8)) != 0) {
+			// promotion special moves
+			moves[count++] = PackedMove.of(from, to, PAWN, capturedType, PackedMove.PROMOTION, QUEEN);
+			moves[count++] = PackedMove.of(from, to, PAWN, capturedType, PackedMove.PROMOTION, KNIGHT);
+			moves[count++] = PackedMove.of(from, to, PAWN, capturedType, PackedMove.PROMOTION, BISHOP);
+			moves[count++] = PackedMove.of(from, to, PAWN, capturedType, PackedMove.PROMOTION, ROOK);
+		} else {
+			moves[count++] = PackedMove.of(from, to, PAWN, capturedType, flag, 0);
+		}
+		return count;
+	}
+
+	private int computeCastlingMoves(BitBoard bitBoard, Color color, int kingSquare, int[] moves, int count) {
+		final boolean isWhite = color == Color.WHITE;
+		final int kingSideRight = isWhite ? BitBoard.WHITE_KING_SIDE : BitBoard.BLACK_KING_SIDE;
+		final int queenSideRight = isWhite ? BitBoard.WHITE_QUEEN_SIDE : BitBoard.BLACK_QUEEN_SIDE;
+		if ((bitBoard.getCastlingRights() & (kingSideRight | queenSideRight)) == 0
+			|| isAttacked(bitBoard, kingSquare, swap(color), bitBoard.getOccupied())) {
+			return count;
+		}
+		if (bitBoard.hasCastlingRight(queenSideRight) && isCastlingAllowed(bitBoard, color, kingSquare, 2, 0)) {
+			moves[count++] = PackedMove.of(kingSquare, kingSquare - 2, KING, NONE, PackedMove.CASTLING, 0);
+		}
+		if (bitBoard.hasCastlingRight(kingSideRight) && isCastlingAllowed(bitBoard, color, kingSquare, 6, 7)) {
+			moves[count++] = PackedMove.of(kingSquare, kingSquare + 2, KING, NONE, PackedMove.CASTLING, 0);
+		}
+		return count;
+	}
+
+	private boolean isCastlingAllowed(BitBoard bitBoard, Color color, int kingSquare, int kingToX, int rookFromX) {
+		final int y = getY(kingSquare);
+		if ((bitBoard.getPieces(color, ROOK) & toBit(toSquare(rookFromX, y))) == 0) {
+			return false;
+		}
+
+		// Check room between rook and king
+		final long occupied = bitBoard.getOccupied();
+		for (int x = Math.min(rookFromX, getX(kingSquare)) + 1; x < Math.max(getX(kingSquare), rookFromX); x++) {
+			if ((occupied & toBit(toSquare(x, y))) != 0) {
+				return false;
+			}
+		}
+
+		// Check that king does not cross fire during move
+		final long occupiedWithoutKing = occupied & ~toBit(kingSquare);
+		for (int x = Math.min(kingToX, getX(kingSquare) + 1); x < Math.max(getX(kingSquare), kingToX + 1); x++) {
+			if (isAttacked(bitBoard, toSquare(x, y), swap(color), occupiedWithoutKing)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	List<Move> computePawnMoves(Piece piece, int posX, int posY, Board board, boolean takingMovesOnly) {
 		List<Move> moves = new ArrayList<>();
 		final Color color = piece.getColor();
 		// color matters for pawns since they cannot go back
@@ -446,28 +1435,26 @@ public class MoveService {
 		Optional<Move> move4 = getAllowedMove(piece, posX, posY, 1, factor, board, !takingMovesOnly);
 		move4.ifPresent(moves::add);
 
-		// en-passant moves
-		if (!history.isEmpty()) {
-			Move lastMove = history.get(history.size() - 1);
-			if (lastMove.getPiece() instanceof Pawn && lastMove.getFromY() - lastMove.getToY() == (2 * factor)
-				&& lastMove.getToY() == posY && (lastMove.getToX() == posX - 1 || lastMove.getToX() == posX + 1)) {
-				EnPassantMove move =
-					new EnPassantMove(new Move(piece, posX, posY, lastMove.getToX(), posY + factor), lastMove.getToX(),
-						lastMove.getToY());
-				move.setTookPiece(board.getPiece(lastMove.getToX(), lastMove.getToY())
-					.orElseThrow(() -> new RuntimeException("En-passant move expects a piece here")));
-				moves.add(move);
-			}
+		// en-passant moves, only from the fifth row, right after the opponent pawn moved two forward next to this one
+		final int enPassantSquare = board.getEnPassantSquare();
+		if (enPassantSquare != NONE && posY == initialY + 3 * factor && getY(enPassantSquare) == posY + factor
+			&& Math.abs(getX(enPassantSquare) - posX) == 1) {
+			final int tookX = getX(enPassantSquare);
+			EnPassantMove move =
+				new EnPassantMove(new Move(piece, posX, posY, tookX, posY + factor), tookX, posY);
+			move.setTookPiece(board.getPiece(tookX, posY)
+				.orElseThrow(() -> new RuntimeException("En-passant move expects a piece here")));
+			moves.add(move);
 		}
 
 		// promotion special moves
 		List<Move> movesWithPromotion = new ArrayList<>();
 		moves.forEach(move -> {
 			if (move.getToY() == initialY + factor * 6) {
-				movesWithPromotion.add(new PromotionMove(move, new Queen(move.getPiece().getColor())));
-				movesWithPromotion.add(new PromotionMove(move, new Knight(move.getPiece().getColor())));
-				movesWithPromotion.add(new PromotionMove(move, new Bishop(move.getPiece().getColor())));
-				movesWithPromotion.add(new PromotionMove(move, new Rook(move.getPiece().getColor())));
+				movesWithPromotion.add(new PromotionMove(move, Queen.of(move.getPiece().getColor())));
+				movesWithPromotion.add(new PromotionMove(move, Knight.of(move.getPiece().getColor())));
+				movesWithPromotion.add(new PromotionMove(move, Bishop.of(move.getPiece().getColor())));
+				movesWithPromotion.add(new PromotionMove(move, Rook.of(move.getPiece().getColor())));
 			} else {
 				movesWithPromotion.add(move);
 			}
@@ -476,101 +1463,36 @@ public class MoveService {
 	}
 
 	List<Move> computeLShapeMoves(Piece piece, int posX, int posY, Board board) {
-		List<Move> moves = new ArrayList<>();
-		getAllowedMove(piece, posX, posY, 1, 2, board).ifPresent(moves::add);
-		getAllowedMove(piece, posX, posY, 1, -2, board).ifPresent(moves::add);
-		getAllowedMove(piece, posX, posY, -1, 2, board).ifPresent(moves::add);
-		getAllowedMove(piece, posX, posY, -1, -2, board).ifPresent(moves::add);
-		getAllowedMove(piece, posX, posY, 2, 1, board).ifPresent(moves::add);
-		getAllowedMove(piece, posX, posY, 2, -1, board).ifPresent(moves::add);
-		getAllowedMove(piece, posX, posY, -2, 1, board).ifPresent(moves::add);
-		getAllowedMove(piece, posX, posY, -2, -1, board).ifPresent(moves::add);
-		return moves;
+		return computeMovesTo(piece, posX, posY, knightAttacks(toSquare(posX, posY)), board);
 	}
 
 	List<Move> computeDiagonalMoves(Piece piece, int posX, int posY, Board board) {
-		return computeDiagonalMoves(piece, posX, posY, board, SIZE);
+		return computeMovesTo(piece, posX, posY, bishopAttacks(toSquare(posX, posY), board.getOccupied()), board);
 	}
 
-	List<Move> computeDiagonalMoves(Piece piece, int posX, int posY, Board board, int maxDistance) {
-		List<Move> moves = new ArrayList<>();
-		// right up /
-		for (int i = 0; i < Math.min(Math.min(MAX_MOVE-posX, MAX_MOVE-posY), maxDistance); i++) {
-			Optional<Move> move = getAllowedMove(piece, posX, posY, i+1, i+1, board);
-			move.ifPresent(moves::add);
-			if (!move.isPresent() || move.get().isTaking()) {
-				break;
-			}
-		}
-		// right down \
-		for (int i = 0; i < Math.min(Math.min(MAX_MOVE-posX, posY), maxDistance); i++) {
-			Optional<Move> move = getAllowedMove(piece, posX, posY, i+1, -i-1, board);
-			move.ifPresent(moves::add);
-			if (!move.isPresent() || move.get().isTaking()) {
-				break;
-			}
-		}
-		// left down /
-		for (int i = 0; i < Math.min(Math.min(posX, posY), maxDistance); i++) {
-			Optional<Move> move = getAllowedMove(piece, posX, posY, -i-1, -i-1, board);
-			move.ifPresent(moves::add);
-			if (!move.isPresent() || move.get().isTaking()) {
-				break;
-			}
-		}
-		// left up \
-		for (int i = 0; i < Math.min(Math.min(posX, MAX_MOVE-posY), maxDistance); i++) {
-			Optional<Move> move = getAllowedMove(piece, posX, posY, -i-1, i+1, board);
-			move.ifPresent(moves::add);
-			if (!move.isPresent() || move.get().isTaking()) {
-				break;
-			}
-		}
-		return moves;
+	List<Move> computeStraightMoves(Piece piece, int posX, int posY, Board board) {
+		return computeMovesTo(piece, posX, posY, rookAttacks(toSquare(posX, posY), board.getOccupied()), board);
 	}
 
-	List<Move> computeStraightMoves(Piece piece, int posX, int posY, Board board) {
-		return computeStraightMoves(piece, posX, posY, board, SIZE);
+	List<Move> computeKingMoves(Piece piece, int posX, int posY, Board board) {
+		return computeMovesTo(piece, posX, posY, kingAttacks(toSquare(posX, posY)), board);
 	}
 
-	List<Move> computeStraightMoves(Piece piece, int posX, int posY, Board board, int maxDistance) {
+	// Moves of a piece to the squares it attacks, as found in the attack tables, but those of its own pieces
+	private List<Move> computeMovesTo(Piece piece, int posX, int posY, long attacks, Board board) {
 		List<Move> moves = new ArrayList<>();
-		// up
-		for (int i = 0; i < Math.min(MAX_MOVE-posY, maxDistance); i++) {
-			Optional<Move> move = getAllowedMove(piece, posX, posY, 0, i+1, board);
-			move.ifPresent(moves::add);
-			if (!move.isPresent() || move.get().isTaking()) {
-				break;
-			}
-		}
-		// down
-		for (int i = 0; i < Math.min(posY, maxDistance); i++) {
-			Optional<Move> move = getAllowedMove(piece, posX, posY, 0, -i-1, board);
-			move.ifPresent(moves::add);
-			if (!move.isPresent() || move.get().isTaking()) {
-				break;
-			}
-		}
-		// left
-		for (int i = 0; i < Math.min(posX, maxDistance); i++) {
-			Optional<Move> move = getAllowedMove(piece, posX, posY, -i-1, 0, board);
-			move.ifPresent(moves::add);
-			if (!move.isPresent() || move.get().isTaking()) {
-				break;
-			}
-		}
-		// right
-		for (int i = 0; i < Math.min(MAX_MOVE-posX, maxDistance); i++) {
-			Optional<Move> move = getAllowedMove(piece, posX, posY, i+1, 0, board);
-			move.ifPresent(moves::add);
-			if (!move.isPresent() || move.get().isTaking()) {
-				break;
-			}
+		long targets = attacks & ~board.getPieces(piece.getColor());
+		while (targets != 0L) {
+			final int to = Long.numberOfTrailingZeros(targets);
+			targets &= targets - 1;
+			final Move move = new Move(piece, posX, posY, getX(to), getY(to));
+			board.getPiece(getX(to), getY(to)).ifPresent(move::setTookPiece);
+			moves.add(move);
 		}
 		return moves;
 	}
 
-	List<Move> computeCastlingMoves(Piece piece, int posX, int posY, Board board, List<Move> history) {
+	List<Move> computeCastlingMoves(Piece piece, int posX, int posY, Board board) {
 		if (!isValidKingPositionForCastling(piece, posX, posY, board)) {
 			return Collections.emptyList();
 		}
@@ -578,24 +1500,25 @@ public class MoveService {
 		List<Move> moves = new ArrayList<>();
 
 		// Queenside castling theoretical positions
-		getCastlingMove(board, piece, posX, posY, 2, 0, 3, history).ifPresent(moves::add);
+		getCastlingMove(board, piece, posX, posY, 2, 0, 3).ifPresent(moves::add);
 		// Kingside castling theoretical positions
-		getCastlingMove(board, piece, posX, posY, 6, 7, 5, history).ifPresent(moves::add);
+		getCastlingMove(board, piece, posX, posY, 6, 7, 5).ifPresent(moves::add);
 
 		return moves;
 	}
 
 	Optional<Move> getCastlingMove(Board board, Piece piece, int kingFromX, int kingFromY, int kingToX,
-		int rookFromX, int rookToX, List<Move> history) {
+		int rookFromX, int rookToX) {
+		final Color color = piece.getColor();
 
-		if (history.stream().anyMatch(m ->
-			(m.getFromX() == kingFromX && m.getFromY() == kingFromY)
-				|| (m.getFromX() == rookFromX && m.getFromY() == kingFromY))) {
+		// The king and the rook must not have moved yet
+		final int castlingRight = color == Color.WHITE
+			? (rookFromX == 0 ? BitBoard.WHITE_QUEEN_SIDE : BitBoard.WHITE_KING_SIDE)
+			: (rookFromX == 0 ? BitBoard.BLACK_QUEEN_SIDE : BitBoard.BLACK_KING_SIDE);
+		if (!board.hasCastlingRight(castlingRight)) {
 			return Optional.empty();
 		}
 
-		final Color color = piece.getColor();
-
 		// Check rook position
 		Optional<Piece> rookOpt = board.getPiece(rookFromX, kingFromY);
 		if (!(rookOpt.isPresent() && rookOpt.get() instanceof Rook && rookOpt.get().getColor() == color)) {
@@ -699,13 +1622,13 @@ public class MoveService {
 
 	boolean isValidSituation(Board boardAfterMove, Color color) {
 		// check kings mutual distance
-		Optional<Position> king1 = findKingPosition(boardAfterMove, color);
-		Optional<Position> king2 = findKingPosition(boardAfterMove, swap(color));
-		if (!king1.isPresent() || !king2.isPresent()) {
+		final int king1 = boardAfterMove.getKingSquare(color);
+		final int king2 = boardAfterMove.getKingSquare(swap(color));
+		if (king1 == NONE || king2 == NONE) {
 			// cannot eat king (would mean being checkmate)
 			return false;
 		}
-		if (Math.max(Math.abs(king1.get().getX() - king2.get().getX()), Math.abs(king1.get().getY() - king2.get().getY())) <= 1) {
+		if ((kingAttacks(king1) & toBit(king2)) != 0) {
 			return false;
 		}
 
@@ -713,53 +1636,30 @@ public class MoveService {
 	}
 
 	boolean isInPawnCheck(Board board, Position kingPosition, Color color) {
-		int factor = color == Color.BLACK ? -1 : 1;
-		int y = kingPosition.getY() + factor;
-		if (y >= 0 && y <= MAX_MOVE) {
-			List<Piece> destinations = new ArrayList<>();
-			if (kingPosition.getX() >= 1) {
-				board.getPiece(kingPosition.getX() - 1, y).ifPresent(destinations::add);
-			}
-			if (kingPosition.getX() < MAX_MOVE) {
-				board.getPiece(kingPosition.getX() + 1, y).ifPresent(destinations::add);
-			}
-			return destinations.stream()
-				.anyMatch(destination -> destination.getColor() != color && destination instanceof Pawn);
-		}
-		return false;
+		final int kingSquare = toSquare(kingPosition.getX(), kingPosition.getY());
+		return (pawnAttacks(kingSquare, color == Color.WHITE) & board.getPieces(swap(color), PAWN)) != 0L;
 	}
 
 	boolean isInLCheck(Board board, Position kingPosition, Color color) {
-		final Piece fakeKnight = new Knight(color);
-		return computeLShapeMoves(fakeKnight, kingPosition.getX(), kingPosition.getY(), board).stream()
-			.filter(Move::isTaking).anyMatch(move -> {
-			Piece takenPiece = board.getPiece(move.getToX(), move.getToY())
-				.orElseThrow(() -> new RuntimeException("Cannot take an empty piece!"));
-			return takenPiece instanceof Knight;
-		});
+		final int kingSquare = toSquare(kingPosition.getX(), kingPosition.getY());
+		return (knightAttacks(kingSquare) & board.getPieces(swap(color), KNIGHT)) != 0L;
 	}
 
 	boolean isInDiagonalCheck(Board board, Position kingPosition, Color color) {
-		final Piece fakeBishop = new Bishop(color);
-		return computeDiagonalMoves(fakeBishop, kingPosition.getX(), kingPosition.getY(), board).stream()
-			.filter(Move::isTaking).anyMatch(move -> {
-			Piece takenPiece = board.getPiece(move.getToX(), move.getToY())
-				.orElseThrow(() -> new RuntimeException("Cannot take an empty piece!"));
-			return takenPiece instanceof Bishop || takenPiece instanceof Queen;
-		});
+		final int kingSquare = toSquare(kingPosition.getX(), kingPosition.getY());
+		final Color opponentColor = swap(color);
+		return (bishopAttacks(kingSquare, board.getOccupied())
+			& (board.getPieces(opponentColor, BISHOP) | board.getPieces(opponentColor, QUEEN))) != 0L;
 	}
 
 	boolean isInStraightCheck(Board board, Position kingPosition, Color color) {
-		Piece fakeRook = new Rook(color);
-		return computeStraightMoves(fakeRook, kingPosition.getX(), kingPosition.getY(), board).stream()
-			.filter(Move::isTaking).anyMatch(move -> {
-			Piece takenPiece = board.getPiece(move.getToX(), move.getToY())
-				.orElseThrow(() -> new RuntimeException("Cannot take an empty piece!"));
-			return takenPiece instanceof Rook || takenPiece instanceof Queen;
-		});
+		final int kingSquare = toSquare(kingPosition.getX(), kingPosition.getY());
+		final Color opponentColor = swap(color);
+		return (rookAttacks(kingSquare, board.getOccupied())
+			& (board.getPieces(opponentColor, ROOK) | board.getPieces(opponentColor, QUEEN))) != 0L;
 	}
 
-	int[][] getHeatmapAroundLocation(int x, int y) {
+	static int[][] getHeatmapAroundLocation(int x, int y) {
 		int[][] heatmap = new int[Board.SIZE][Board.SIZE];
 		for (int i = 0; i < Board.SIZE; i++) {
 			for (int j = 0; j < Board.SIZE; j++) {
@@ -784,6 +1684,22 @@ public class MoveService {
 		return heatmap;
 	}
 
+	private static int[][] generateKingZoneHeatmaps() {
+		int[][] heatmaps = new int[Board.SIZE * Board.SIZE][];
+		for (int square = 0; square < heatmaps.length; square++) {
+			heatmaps[square] = toSquareHeatmap(getHeatmapAroundLocation(getX(square), getY(square)));
+		}
+		return heatmaps;
+	}
+
+	private static int[] toSquareHeatmap(int[][] heatmap) {
+		int[] squareHeatmap = new int[Board.SIZE * Board.SIZE];
+		for (int square = 0; square < squareHeatmap.length; square++) {
+			squareHeatmap[square] = heatmap[getX(square)][getY(square)];
+		}
+		return squareHeatmap;
+	}
+
 	static int[][] generateCenteredHeatmap() {
 		int[][] heatmap = new int[Board.SIZE][Board.SIZE];
 		heatmap[3][3] = 2;
@@ -0,0 +1,95 @@
+package ch.teemoo.bobby.services;
+
+import static ch.teemoo.bobby.helpers.BitBoardHelper.FILE_A;
+import static ch.teemoo.bobby.helpers.BitBoardHelper.getX;
+import static ch.teemoo.bobby.helpers.BitBoardHelper.getY;
+import static ch.teemoo.bobby.models.BitBoard.PAWN;
+import static ch.teemoo.bobby.models.Board.SIZE;
+
+import ch.teemoo.bobby.models.BitBoard;
+import ch.teemoo.bobby.models.Color;
+import ch.teemoo.bobby.models.EvaluationCache;
+
+// Evaluation of the pawns among themselves: doubled, isolated and passed pawns. The pawns move much less often than the
+// other pieces, so the score of each pawn structure is computed once and kept under its pawn-only key.
+class PawnStructure {
+	final static int DEFAULT_TABLE_SIZE_MB = 1;
+	final static int DOUBLED_PAWN_PENALTY = -4;
+	final static int ISOLATED_PAWN_PENALTY = -3;
+	// Indexed by the rank of the pawn, counted from its own side
+	final static int[] PASSED_PAWN_BONUSES = {0, 2, 3, 5, 8, 13, 20, 0};
+
+	private final static long[] FILES = new long[SIZE];
+	private final static long[] ADJACENT_FILES = new long[SIZE];
+	// Squares in front of a pawn, on its file and the adjacent ones, where no opponent pawn may be for it to be passed.
+	// Indexed by color and square.
+	private final static long[][] PASSED_PAWN_MASKS = new long[2][SIZE * SIZE];
+
+	static {
+		for (int x = 0; x < SIZE; x++) {
+			FILES[x] = FILE_A << x;
+		}
+		for (int x = 0; x < SIZE; x++) {
+			ADJACENT_FILES[x] = (x > 0 ? FILES[x - 1] : 0L) | (x < SIZE - 1 ? FILES[x + 1] : 0L);
+		}
+		for (int square = 0; square < SIZE * SIZE; square++) {
+			final long span = FILES[getX(square)] | ADJACENT_FILES[getX(square)];
+			final int y = getY(square);
+			// Ranks strictly above, or strictly below, the one of the square
+			final long above = y == SIZE - 1 ? 0L : -1L << (SIZE * (y + 1));
+			final long below = (1L << (SIZE * y)) - 1;
+			PASSED_PAWN_MASKS[Color.WHITE.ordinal()][square] = span & above;
+			PASSED_PAWN_MASKS[Color.BLACK.ordinal()][square] = span & below;
+		}
+	}
+
+	private final EvaluationCache table;
+
+	PawnStructure(int tableSizeMb) {
+		this.table = new EvaluationCache(tableSizeMb);
+	}
+
+	EvaluationCache getTable() {
+		return table;
+	}
+
+	int evaluate(BitBoard bitBoard, Color color) {
+		final long pawnKey = bitBoard.getPawnKey();
+		int score = table.probe(pawnKey);
+		if (score == EvaluationCache.MISSING) {
+			score = computeScore(bitBoard.getPieces(Color.WHITE, PAWN), bitBoard.getPieces(Color.BLACK, PAWN));
+			table.store(pawnKey, score);
+		}
+		return color == Color.WHITE ? score : -score;
+	}
+
+	// Score of the white pawns against the black ones
+	static int computeScore(long whitePawns, long blackPawns) {
+		return computeScore(whitePawns, blackPawns, Color.WHITE) - computeScore(blackPawns, whitePawns, Color.BLACK);
+	}
+
+	private static int computeScore(long pawns, long opponentPawns, Color color) {
+		int score = 0;
+		for (int x = 0; x < SIZE; x++) {
+			final int filePawns = Long.bitCount(pawns & FILES[x]);
+			if (filePawns > 1) {
+				score += (filePawns - 1) * DOUBLED_PAWN_PENALTY;
+			}
+			if (filePawns > 0 && (pawns & ADJACENT_FILES[x]) == 0L) {
+				score += filePawns * ISOLATED_PAWN_PENALTY;
+			}
+		}
+		long remaining = pawns;
+		while (remaining != 0L) {
+			final int square = Long.numberOfTrailingZeros(remaining);
+			remaining &= remaining - 1;
+			// Only the front one of doubled pawns may be passed
+			final long passedPawnMask = PASSED_PAWN_MASKS[color.ordinal()][square];
+			if ((passedPawnMask & opponentPawns) == 0L && (passedPawnMask & FILES[getX(square)] & pawns) == 0L) {
+				final int rank = color == Color.WHITE ? getY(square) : SIZE - 1 - getY(square);
+				score += PASSED_PAWN_BONUSES[rank];
+			}
+		}
+		return score;
+	}
+}
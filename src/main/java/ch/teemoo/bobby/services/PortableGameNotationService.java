@@ -69,19 +69,19 @@ public class PortableGameNotationService {
 		}
 
 		for (Move move: moves) {
-			final List<Move> allowedMoves = moveService.computeAllMoves(game.getBoard(), game.getToPlay(), game.getHistory(),true);
+			final List<Move> allowedMoves = moveService.computeAllMoves(game.getBoard(), game.getToPlay(), true);
 
 			final Predicate<Move> fromXCond = m -> move.getFromX() < 0 || m.getFromX() == move.getFromX();
 			final Predicate<Move> fromYCond = m -> move.getFromY() < 0 || m.getFromY() == move.getFromY();
 			final Predicate<Move> toXCond = m -> move.getToX() < 0 || m.getToX() == move.getToX();
 			final Predicate<Move> toYCond = m -> move.getToY() < 0 || m.getToY() == move.getToY();
-			final Predicate<Move> pieceCond = m -> move.getPiece().getClass().equals(m.getPiece().getClass());
+			final Predicate<Move> pieceCond = m -> move.getPiece() == m.getPiece();
 			final Predicate<Move> isTakingCond = m -> move.isTaking() == m.isTaking();
 			final Predicate<Move> isCheckingCond = m -> move.isChecking() == m.isChecking();
 			final Predicate<Move> moveTypeCond = m -> move.getClass().equals(m.getClass());
 			final Predicate<Move> promotionCond =
 				m -> !(move instanceof PromotionMove) || ((m instanceof PromotionMove) && ((PromotionMove) move)
-					.getPromotedPiece().getClass().equals(((PromotionMove) m).getPromotedPiece().getClass()));
+					.getPromotedPiece() == ((PromotionMove) m).getPromotedPiece());
 
 			List<Move> matchingMoves =
 				allowedMoves.stream().filter(fromXCond).filter(fromYCond).filter(toXCond).filter(toYCond)
@@ -178,7 +178,7 @@ public class PortableGameNotationService {
 			piece = getPiece(color, remaining);
 			remaining = remaining.substring(1);
 		} else {
-			piece = new Pawn(color);
+			piece = Pawn.of(color);
 		}
 
 		Matcher columnFromMatcher = columnFromPattern.matcher(remaining);
@@ -198,7 +198,7 @@ public class PortableGameNotationService {
 
 		if (remaining.startsWith("x")) {
 			//fixme: do not know here what piece is on the board at this place but we must mark the move as taking
-			tookPiece = new Pawn(color == Color.WHITE ? Color.BLACK : Color.WHITE);
+			tookPiece = Pawn.of(color == Color.WHITE ? Color.BLACK : Color.WHITE);
 			remaining = remaining.substring(1);
 		}
 
@@ -227,15 +227,15 @@ public class PortableGameNotationService {
 	private Piece getPiece(Color color, String remaining) {
 		Piece piece;
 		if (remaining.startsWith("K")) {
-			piece = new King(color);
+			piece = King.of(color);
 		} else if (remaining.startsWith("Q")) {
-			piece = new Queen(color);
+			piece = Queen.of(color);
 		} else if (remaining.startsWith("B")) {
-			piece = new Bishop(color);
+			piece = Bishop.of(color);
 		} else if (remaining.startsWith("N")) {
-			piece = new Knight(color);
+			piece = Knight.of(color);
 		} else if (remaining.startsWith("R")) {
-			piece = new Rook(color);
+			piece = Rook.of(color);
 		} else {
 			throw new RuntimeException("Could not define moving piece");
 		}
@@ -246,16 +246,16 @@ public class PortableGameNotationService {
 		Piece promotedPiece;
 		switch (promotionMatcher.group(1)) {
 		case "R":
-			promotedPiece = new Rook(color);
+			promotedPiece = Rook.of(color);
 			break;
 		case "B":
-			promotedPiece = new Bishop(color);
+			promotedPiece = Bishop.of(color);
 			break;
 		case "N":
-			promotedPiece = new Knight(color);
+			promotedPiece = Knight.of(color);
 			break;
 		default:
-			promotedPiece = new Queen(color);
+			promotedPiece = Queen.of(color);
 			break;
 		}
 		return new PromotionMove(move, promotedPiece);
@@ -263,8 +263,8 @@ public class PortableGameNotationService {
 
 	private Move getCastlingMove(Color color, String word) {
 		Move move;
-		Piece king = new King(color);
-		Piece rook = new Rook(color);
+		Piece king = King.of(color);
+		Piece rook = Rook.of(color);
 		if (word.startsWith("O-O-O")) {
 			if (color == Color.WHITE) {
 				move = new CastlingMove(king, 4, 0, 2, 0, rook, 0, 0, 3, 0);
@@ -0,0 +1,193 @@
+package ch.teemoo.bobby.services;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import ch.teemoo.bobby.models.EvaluationCache;
+import ch.teemoo.bobby.models.SearchSettings;
+import ch.teemoo.bobby.models.TranspositionTable;
+
+// State of one search: it is owned by a single thread, only the transposition table and the evaluation cache may
+// be shared
+class SearchContext {
+	final static long NO_DEADLINE = Long.MIN_VALUE;
+	// Reading the clock is not free, so it is only done once every so many nodes (must be a power of two)
+	private final static int NODES_BETWEEN_TIME_CHECKS = 1024;
+
+	private final int[][] movesBuffers;
+	private final TranspositionTable transpositionTable;
+	private final EvaluationCache evaluationCache;
+	// Index of the thread in a parallel search, the main one is 0
+	private final int threadIndex;
+	// Shared by the threads of a parallel search, set when the main one is done
+	private final AtomicBoolean stopped;
+	private final SearchSettings settings;
+	private final int quiescenceNodes;
+	private final MoveOrdering moveOrdering;
+	private long deadline = NO_DEADLINE;
+	private long maxNodes;
+	// Nodes of all the forks of a root split, null if this context is not one of them
+	private AtomicLong forkedNodes;
+	private boolean timeoutReached;
+	private long nodes;
+	private int quiescenceNodesLeft;
+	private int completedDepth;
+	private int rootBestMove;
+	private int rootScore;
+	private long cutoffs;
+	private long firstMoveCutoffs;
+
+	SearchContext(int plies, int maxMoves, TranspositionTable transpositionTable, EvaluationCache evaluationCache,
+		SearchSettings settings, int threadIndex, AtomicBoolean stopped) {
+		this.movesBuffers = new int[plies][maxMoves];
+		this.transpositionTable = transpositionTable;
+		this.evaluationCache = evaluationCache;
+		this.settings = settings;
+		this.quiescenceNodes = settings.quiescenceNodes();
+		this.moveOrdering = new MoveOrdering(plies, maxMoves);
+		this.threadIndex = threadIndex;
+		this.stopped = stopped;
+	}
+
+	int[] getMovesBuffer(int ply) {
+		return movesBuffers[ply];
+	}
+
+	MoveOrdering getMoveOrdering() {
+		return moveOrdering;
+	}
+
+	// Best move found by the last completed depth, searched first by the next one
+	int getRootBestMove() {
+		return rootBestMove;
+	}
+
+	boolean hasRootScore() {
+		return rootBestMove != 0;
+	}
+
+	// Score of the best move found by the last completed depth
+	int getRootScore() {
+		return rootScore;
+	}
+
+	void setRootBestMove(int rootBestMove, int rootScore) {
+		this.rootBestMove = rootBestMove;
+		this.rootScore = rootScore;
+	}
+
+	// The rate of cutoffs happening on the first move searched tells how good the move ordering is
+	void addCutoff(boolean isFirstMove) {
+		cutoffs++;
+		if (isFirstMove) {
+			firstMoveCutoffs++;
+		}
+	}
+
+	double getFirstMoveCutoffRate() {
+		return cutoffs == 0 ? 0 : (double) firstMoveCutoffs / cutoffs;
+	}
+
+	int getMaxPly() {
+		return movesBuffers.length - 1;
+	}
+
+	SearchSettings getSettings() {
+		return settings;
+	}
+
+	boolean isQuiescence() {
+		return quiescenceNodes > 0;
+	}
+
+	// Each quiescence search gets its own nodes budget
+	void startQuiescence() {
+		quiescenceNodesLeft = quiescenceNodes;
+	}
+
+	boolean hasQuiescenceNodesLeft() {
+		return quiescenceNodesLeft > 0;
+	}
+
+	void incrementQuiescenceNodes() {
+		quiescenceNodesLeft--;
+		incrementNodes();
+	}
+
+	TranspositionTable getTranspositionTable() {
+		return transpositionTable;
+	}
+
+	EvaluationCache getEvaluationCache() {
+		return evaluationCache;
+	}
+
+	int getThreadIndex() {
+		return threadIndex;
+	}
+
+	boolean isHelper() {
+		return threadIndex != 0;
+	}
+
+	// Deadline in System.nanoTime() terms
+	void setDeadline(long deadline) {
+		this.deadline = deadline;
+	}
+
+	// 0 for no limit. The forks of a root split count their nodes all together against it.
+	void setMaxNodes(long maxNodes) {
+		this.maxNodes = maxNodes;
+	}
+
+	// Once reached, the timeout stays reached: the search in progress is then stopped and its result ignored
+	boolean isTimeoutReached() {
+		return timeoutReached;
+	}
+
+	void incrementNodes() {
+		nodes++;
+		if ((nodes & (NODES_BETWEEN_TIME_CHECKS - 1)) == 0
+			&& (stopped.get() || (deadline != NO_DEADLINE && System.nanoTime() - deadline > 0)
+			|| (maxNodes != 0 && getNodesToLimit() >= maxNodes))) {
+			timeoutReached = true;
+		}
+	}
+
+	private long getNodesToLimit() {
+		return forkedNodes == null ? nodes : forkedNodes.addAndGet(NODES_BETWEEN_TIME_CHECKS);
+	}
+
+	long getNodes() {
+		return nodes;
+	}
+
+	// New context to search a part of the tree in another thread, with the same table, deadline and stop signal. Its
+	// nodes are added to the given count, shared by the forks, which starts with the nodes searched before.
+	SearchContext fork(AtomicLong forkedNodes) {
+		SearchContext context = new SearchContext(movesBuffers.length, movesBuffers[0].length, transpositionTable,
+			evaluationCache, settings, threadIndex, stopped);
+		context.deadline = deadline;
+		context.maxNodes = maxNodes;
+		context.forkedNodes = forkedNodes;
+		context.rootBestMove = rootBestMove;
+		context.rootScore = rootScore;
+		return context;
+	}
+
+	// Adds what was found by a forked context once it is done
+	void join(SearchContext forked) {
+		nodes += forked.nodes;
+		cutoffs += forked.cutoffs;
+		firstMoveCutoffs += forked.firstMoveCutoffs;
+		timeoutReached |= forked.timeoutReached;
+	}
+
+	int getCompletedDepth() {
+		return completedDepth;
+	}
+
+	void setCompletedDepth(int completedDepth) {
+		this.completedDepth = completedDepth;
+	}
+}
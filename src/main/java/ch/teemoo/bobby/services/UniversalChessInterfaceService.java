@@ -42,7 +42,7 @@ public class UniversalChessInterfaceService {
 		}
 
 		List<Move> allowedMoves =
-			moveService.computeAllMoves(game.getBoard(), game.getToPlay(), game.getHistory(), true);
+			moveService.computeAllMoves(game.getBoard(), game.getToPlay(), true);
 
 		final Predicate<Move> fromXCond = m -> move.getFromX() < 0 || m.getFromX() == move.getFromX();
 		final Predicate<Move> fromYCond = m -> move.getFromY() < 0 || m.getFromY() == move.getFromY();
@@ -50,7 +50,7 @@ public class UniversalChessInterfaceService {
 		final Predicate<Move> toYCond = m -> move.getToY() < 0 || m.getToY() == move.getToY();
 		final Predicate<Move> promotionCond =
 			m -> !(move instanceof PromotionMove) || ((m instanceof PromotionMove) && ((PromotionMove) move)
-				.getPromotedPiece().getClass().equals(((PromotionMove) m).getPromotedPiece().getClass()));
+				.getPromotedPiece() == ((PromotionMove) m).getPromotedPiece());
 
 		List<Move> matchingMoves =
 			allowedMoves.stream().filter(fromXCond).filter(fromYCond).filter(toXCond).filter(toYCond)
@@ -67,10 +67,10 @@ public class UniversalChessInterfaceService {
 
 	Piece getPromotedPieceFromChar(char c, Color color) {
 		return switch (c) {
-			case 'q' -> new Queen(color);
-			case 'r' -> new Rook(color);
-			case 'b' -> new Bishop(color);
-			case 'n' -> new Knight(color);
+			case 'q' -> Queen.of(color);
+			case 'r' -> Rook.of(color);
+			case 'b' -> Bishop.of(color);
+			case 'n' -> Knight.of(color);
 			default -> throw new RuntimeException("Invalid promoted piece");
 		};
 	}
@@ -29,6 +29,7 @@ import ch.teemoo.bobby.helpers.BotFactory;
 import ch.teemoo.bobby.helpers.GameFactory;
 import ch.teemoo.bobby.models.Board;
 import ch.teemoo.bobby.models.Color;
+import ch.teemoo.bobby.models.SearchSettings;
 import ch.teemoo.bobby.models.games.Game;
 import ch.teemoo.bobby.models.games.GameSetup;
 import ch.teemoo.bobby.models.games.GameState;
@@ -122,10 +123,10 @@ public class GameControllerTest {
 
     @Test
     public void testDoMoveUnauthorized() {
-        var move = new Move(new Queen(Color.WHITE), 3, 0, 3, 1);
+        var move = new Move(Queen.WHITE, 3, 0, 3, 1);
 
         when(game.getPlayerByColor(eq(Color.WHITE))).thenReturn(new Human("test"));
-        when(moveService.computeMoves(any(), any(), anyInt(), anyInt(), anyList(), anyBoolean(), anyBoolean()))
+        when(moveService.computeMoves(any(), any(), anyInt(), anyInt(), anyBoolean(), anyBoolean()))
                 .thenReturn(Collections.emptyList());
 
         assertThatExceptionOfType(RuntimeException.class)
@@ -135,13 +136,13 @@ public class GameControllerTest {
 
     @Test
     public void testDoMove() {
-        var move = new Move(new Queen(Color.WHITE), 3, 0, 3, 1);
-        var computedMove = new Move(new Queen(Color.WHITE), move.getFromX(), move.getFromY(), move.getToX(), move.getToY());
+        var move = new Move(Queen.WHITE, 3, 0, 3, 1);
+        var computedMove = new Move(Queen.WHITE, move.getFromX(), move.getFromY(), move.getToX(), move.getToY());
         Player player = new Human("test");
         when(game.getWhitePlayer()).thenReturn(player);
         when(game.getPlayerByColor(eq(Color.WHITE))).thenReturn(player);
         when(moveService.getGameState(any(), any(), anyList())).thenReturn(GameState.IN_PROGRESS);
-        when(moveService.computeMoves(any(), any(), anyInt(), anyInt(), anyList(), anyBoolean(), anyBoolean()))
+        when(moveService.computeMoves(any(), any(), anyInt(), anyInt(), anyBoolean(), anyBoolean()))
                 .thenReturn(Collections.singletonList(computedMove));
         controller.doMove(move);
         verify(view).cleanSquaresBorder();
@@ -156,9 +157,9 @@ public class GameControllerTest {
     @Test
     public void testGetAllowedMove() {
         // given
-        var move = new Move(new Queen(Color.WHITE), 3, 0, 3, 1);
+        var move = new Move(Queen.WHITE, 3, 0, 3, 1);
         var computedMove =
-            new Move(new Queen(Color.WHITE), move.getFromX(), move.getFromY(), move.getToX(), move.getToY());
+            new Move(Queen.WHITE, move.getFromX(), move.getFromY(), move.getToX(), move.getToY());
 
         // when
         var allowedMove = controller.getAllowedMove(move, null, Collections.singletonList(computedMove));
@@ -170,7 +171,7 @@ public class GameControllerTest {
     @Test
     public void testGetAllowedMoveUnauthorized() {
         // given
-        var move = new Move(new Queen(Color.WHITE), 3, 0, 3, 1);
+        var move = new Move(Queen.WHITE, 3, 0, 3, 1);
 
         // when
         ThrowableAssert.ThrowingCallable callable =
@@ -184,11 +185,11 @@ public class GameControllerTest {
     @Test
     public void testGetAllowedMoveAmbiguous() {
         // given
-        var move = new Move(new Queen(Color.WHITE), 3, 0, 3, 1);
+        var move = new Move(Queen.WHITE, 3, 0, 3, 1);
         var computedMove1 =
-            new Move(new Queen(Color.WHITE), move.getFromX(), move.getFromY(), move.getToX(), move.getToY());
+            new Move(Queen.WHITE, move.getFromX(), move.getFromY(), move.getToX(), move.getToY());
         var computedMove2 =
-            new Move(new Queen(Color.WHITE), move.getFromX(), move.getFromY(), move.getToX(), move.getToY());
+            new Move(Queen.WHITE, move.getFromX(), move.getFromY(), move.getToX(), move.getToY());
 
         // when
         ThrowableAssert.ThrowingCallable callable =
@@ -201,15 +202,15 @@ public class GameControllerTest {
     @Test
     public void testGetAllowedMovePromotionHuman() {
         // given
-        var move = new Move(new Pawn(Color.WHITE), 3, 6, 3, 7);
+        var move = new Move(Pawn.WHITE, 3, 6, 3, 7);
         var computedMove =
-            new Move(new Pawn(Color.WHITE), move.getFromX(), move.getFromY(), move.getToX(), move.getToY());
-        var computedMovePromotionQ = new PromotionMove(computedMove, new Queen(Color.WHITE));
-        var computedMovePromotionR = new PromotionMove(computedMove, new Rook(Color.WHITE));
-        var computedMovePromotionK = new PromotionMove(computedMove, new Knight(Color.WHITE));
-        var computedMovePromotionB = new PromotionMove(computedMove, new Bishop(Color.WHITE));
+            new Move(Pawn.WHITE, move.getFromX(), move.getFromY(), move.getToX(), move.getToY());
+        var computedMovePromotionQ = new PromotionMove(computedMove, Queen.WHITE);
+        var computedMovePromotionR = new PromotionMove(computedMove, Rook.WHITE);
+        var computedMovePromotionK = new PromotionMove(computedMove, Knight.WHITE);
+        var computedMovePromotionB = new PromotionMove(computedMove, Bishop.WHITE);
         Player player = new Human("Player 1");
-        when(view.promotionDialog(any())).thenReturn(new Knight(Color.WHITE));
+        when(view.promotionDialog(any())).thenReturn(Knight.WHITE);
 
         // when
         Move allowedMove = controller.getAllowedMove(move, player, Arrays
@@ -224,13 +225,13 @@ public class GameControllerTest {
     @Test
     public void testGetAllowedMovePromotionBot() {
         // given
-        var move = new Move(new Pawn(Color.WHITE), 3, 6, 3, 7);
+        var move = new Move(Pawn.WHITE, 3, 6, 3, 7);
         var computedMove =
-            new Move(new Pawn(Color.WHITE), move.getFromX(), move.getFromY(), move.getToX(), move.getToY());
-        var computedMovePromotionQ = new PromotionMove(computedMove, new Queen(Color.WHITE));
-        var computedMovePromotionR = new PromotionMove(computedMove, new Rook(Color.WHITE));
-        var computedMovePromotionK = new PromotionMove(computedMove, new Knight(Color.WHITE));
-        var computedMovePromotionB = new PromotionMove(computedMove, new Bishop(Color.WHITE));
+            new Move(Pawn.WHITE, move.getFromX(), move.getFromY(), move.getToX(), move.getToY());
+        var computedMovePromotionQ = new PromotionMove(computedMove, Queen.WHITE);
+        var computedMovePromotionR = new PromotionMove(computedMove, Rook.WHITE);
+        var computedMovePromotionK = new PromotionMove(computedMove, Knight.WHITE);
+        var computedMovePromotionB = new PromotionMove(computedMove, Bishop.WHITE);
         Player player = new RandomBot(moveService);
 
         // when
@@ -247,13 +248,13 @@ public class GameControllerTest {
     @Test
     public void testGetAllowedMovePromotionAlreadySet() {
         // given
-        var move = new PromotionMove(new Move(new Pawn(Color.WHITE), 3, 6, 3, 7), new Knight(Color.WHITE));
+        var move = new PromotionMove(new Move(Pawn.WHITE, 3, 6, 3, 7), Knight.WHITE);
         var computedMove =
-            new Move(new Pawn(Color.WHITE), move.getFromX(), move.getFromY(), move.getToX(), move.getToY());
-        var computedMovePromotionQ = new PromotionMove(computedMove, new Queen(Color.WHITE));
-        var computedMovePromotionR = new PromotionMove(computedMove, new Rook(Color.WHITE));
-        var computedMovePromotionK = new PromotionMove(computedMove, new Knight(Color.WHITE));
-        var computedMovePromotionB = new PromotionMove(computedMove, new Bishop(Color.WHITE));
+            new Move(Pawn.WHITE, move.getFromX(), move.getFromY(), move.getToX(), move.getToY());
+        var computedMovePromotionQ = new PromotionMove(computedMove, Queen.WHITE);
+        var computedMovePromotionR = new PromotionMove(computedMove, Rook.WHITE);
+        var computedMovePromotionK = new PromotionMove(computedMove, Knight.WHITE);
+        var computedMovePromotionB = new PromotionMove(computedMove, Bishop.WHITE);
         Player player = new Human("Player 1");
 
         // when
@@ -269,7 +270,7 @@ public class GameControllerTest {
 
     @Test
     public void testUndoLastMove() {
-        var move = new Move(new Queen(Color.WHITE), 3, 0, 3, 1);
+        var move = new Move(Queen.WHITE, 3, 0, 3, 1);
         when(game.getPlayerByColor(eq(Color.WHITE))).thenReturn(new Human("test"));
         controller.undoLastMove(move);
         verify(view).cleanSquaresBorder();
@@ -284,7 +285,7 @@ public class GameControllerTest {
     public void testDisplayGameInfoInProgressNoCheckNoOutput() {
         Player player = new Human("test");
         when(game.getWhitePlayer()).thenReturn(player);
-        var move = new Move(new Queen(Color.WHITE), 3, 0, 3, 1);
+        var move = new Move(Queen.WHITE, 3, 0, 3, 1);
         when(moveService.getGameState(any(), any(), any())).thenReturn(GameState.IN_PROGRESS);
         controller.displayGameInfo(move);
         assertThat(systemOutRule.getLog()).isEmpty();
@@ -294,7 +295,7 @@ public class GameControllerTest {
     public void testDisplayGameInfoInProgressCheck() {
         Player player = new Human("test");
         when(game.getWhitePlayer()).thenReturn(player);
-        var move = new Move(new Queen(Color.WHITE), 3, 0, 3, 1);
+        var move = new Move(Queen.WHITE, 3, 0, 3, 1);
         move.setChecking(true);
         when(moveService.getGameState(any(), any(), any())).thenReturn(GameState.IN_PROGRESS);
         controller.displayGameInfo(move);
@@ -305,7 +306,7 @@ public class GameControllerTest {
     public void testDisplayGameInfoDrawThreefold() {
         Player player = new Human("test");
         when(game.getWhitePlayer()).thenReturn(player);
-        var move = new Move(new Queen(Color.WHITE), 3, 0, 3, 1);
+        var move = new Move(Queen.WHITE, 3, 0, 3, 1);
         when(moveService.getGameState(any(), any(), any())).thenReturn(GameState.DRAW_THREEFOLD);
         when(game.getHistory()).thenReturn(Collections.emptyList());
         controller.displayGameInfo(move);
@@ -316,7 +317,7 @@ public class GameControllerTest {
     public void testDisplayGameInfoDraw50Moves() {
         Player player = new Human("test");
         when(game.getWhitePlayer()).thenReturn(player);
-        var move = new Move(new Queen(Color.WHITE), 3, 0, 3, 1);
+        var move = new Move(Queen.WHITE, 3, 0, 3, 1);
         when(moveService.getGameState(any(), any(), any())).thenReturn(GameState.DRAW_50_MOVES);
         when(game.getHistory()).thenReturn(Collections.emptyList());
         controller.displayGameInfo(move);
@@ -327,7 +328,7 @@ public class GameControllerTest {
     public void testDisplayGameInfoDrawStalemate() {
         Player player = new Human("test");
         when(game.getWhitePlayer()).thenReturn(player);
-        var move = new Move(new Queen(Color.WHITE), 3, 0, 3, 1);
+        var move = new Move(Queen.WHITE, 3, 0, 3, 1);
         when(moveService.getGameState(any(), any(), any())).thenReturn(GameState.DRAW_STALEMATE);
         when(game.getHistory()).thenReturn(Collections.emptyList());
         controller.displayGameInfo(move);
@@ -338,7 +339,7 @@ public class GameControllerTest {
     public void testDisplayGameInfoLoss() {
         Player player = new Human("test");
         when(game.getWhitePlayer()).thenReturn(player);
-        var move = new Move(new Queen(Color.WHITE), 3, 0, 3, 1);
+        var move = new Move(Queen.WHITE, 3, 0, 3, 1);
         when(moveService.getGameState(any(), any(), any())).thenReturn(GameState.LOSS);
         when(game.getHistory()).thenReturn(Collections.emptyList());
         when(game.getPlayerByColor(eq(Color.WHITE))).thenReturn(player);
@@ -350,7 +351,7 @@ public class GameControllerTest {
     public void testDisplayGameInfoWin() {
         Player player = new Human("test");
         when(game.getWhitePlayer()).thenReturn(player);
-        var move = new Move(new Queen(Color.BLACK), 3, 0, 3, 1);
+        var move = new Move(Queen.BLACK, 3, 0, 3, 1);
         when(moveService.getGameState(any(), any(), any())).thenReturn(GameState.LOSS);
         when(game.getHistory()).thenReturn(Collections.emptyList());
         when(game.getPlayerByColor(eq(Color.BLACK))).thenReturn(player);
@@ -397,8 +398,8 @@ public class GameControllerTest {
         when(fileService.readFile(any())).thenReturn(Collections.singletonList("e2-e4"));
         when(game.getWhitePlayer()).thenReturn(new Human("test"));
         when(game.getBlackPlayer()).thenReturn(new Human("test2"));
-        when(moveService.computeMoves(any(), any(), anyInt(), anyInt(), anyList(), anyBoolean(), anyBoolean()))
-            .thenReturn(Collections.singletonList(new Move(new Pawn(Color.WHITE), 4, 1, 4, 3)));
+        when(moveService.computeMoves(any(), any(), anyInt(), anyInt(), anyBoolean(), anyBoolean()))
+            .thenReturn(Collections.singletonList(new Move(Pawn.WHITE, 4, 1, 4, 3)));
         when(moveService.getGameState(any(), any(), any())).thenReturn(GameState.IN_PROGRESS);
         controller.loadGame();
     }
@@ -432,8 +433,8 @@ public class GameControllerTest {
 
     @Test
     public void testSuggestMove() {
-        Move move = new Move(new Knight(Color.BLACK), 3, 7, 4, 5);
-        when(moveService.selectMove(any(), anyInt(), any())).thenReturn(move);
+        Move move = new Move(Knight.BLACK, 3, 7, 4, 5);
+        when(moveService.selectMove(any(), anyInt(), any(), any(SearchSettings.class))).thenReturn(move);
         controller.suggestMove();
         assertThat(systemOutRule.getLog()).contains(move.toString());
     }
@@ -448,8 +449,8 @@ public class GameControllerTest {
     @Test
     public void testUndoLastMoveWithHistory() {
         List<Move> moves = Arrays.asList(
-                new Move(new Knight(Color.BLACK), 3, 7, 4, 5),
-                new Move(new Knight(Color.WHITE), 3, 0, 4, 2)
+                new Move(Knight.BLACK, 3, 7, 4, 5),
+                new Move(Knight.WHITE, 3, 0, 4, 2)
         );
         when(game.getHistory()).thenReturn(moves);
         when(game.getPlayerByColor(eq(Color.WHITE))).thenReturn(new Human("test"));
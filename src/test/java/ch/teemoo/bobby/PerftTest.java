@@ -0,0 +1,48 @@
+package ch.teemoo.bobby;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+
+import ch.teemoo.bobby.services.MoveService;
+import org.junit.Test;
+
+public class PerftTest {
+	// Deep enough to cover castling, en passant, promotions and checks, while keeping the tests fast
+	private final static long MAX_NODES = 100_000L;
+
+	private final Perft perft = new Perft(new MoveService());
+
+	@Test
+	public void testPerftReferencePositions() {
+		for (PerftPosition position : PerftPosition.values()) {
+			for (int depth = 1; depth <= position.getMaxDepth(); depth++) {
+				long expectedNodes = position.getExpectedNodes(depth);
+				if (expectedNodes > MAX_NODES) {
+					break;
+				}
+				assertThat(perft.perft(position, depth)).as("%s at depth %d", position, depth)
+					.isEqualTo(expectedNodes);
+			}
+		}
+	}
+
+	@Test
+	public void testDivide() {
+		Map<String, Long> nodesByMove = perft.divide(PerftPosition.KIWIPETE, 2);
+		assertThat(nodesByMove).hasSize(48).containsEntry("e1g1", 43L).containsEntry("e5f7", 44L);
+		assertThat(nodesByMove.values().stream().mapToLong(Long::longValue).sum())
+			.isEqualTo(PerftPosition.KIWIPETE.getExpectedNodes(2));
+	}
+
+	@Test
+	public void testDivideOnlyLegalMoves() {
+		Map<String, Long> nodesByMove = perft.divide(PerftPosition.PROMOTIONS, 1);
+		assertThat(nodesByMove.keySet()).containsExactlyInAnyOrder("c4c5", "d2d4", "f1f2", "f3d4", "b4c5", "g1h1");
+	}
+
+	@Test
+	public void testRunSuite() {
+		assertThat(perft.runSuite(2)).isTrue();
+	}
+}
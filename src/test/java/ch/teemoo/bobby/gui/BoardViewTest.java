@@ -38,7 +38,7 @@ public class BoardViewTest {
     @Test
     public void testDisplay() {
         Piece[][] pieces = new Piece[8][8];
-        Piece rook = new Rook(Color.WHITE);
+        Piece rook = Rook.WHITE;
         pieces[2][4] = rook;
         view.display(pieces, false);
         Square rookSquare = view.getSquares()[2][4];
@@ -52,7 +52,7 @@ public class BoardViewTest {
     @Test
     public void testDisplayReversed() {
         Piece[][] pieces = new Piece[8][8];
-        Piece rook = new Rook(Color.WHITE);
+        Piece rook = Rook.WHITE;
         pieces[2][4] = rook;
         view.display(pieces, true);
         Square rookSquare = view.getSquares()[2][4];
@@ -67,7 +67,7 @@ public class BoardViewTest {
     @Test
     public void testRefresh() {
         Piece[][] pieces = new Piece[8][8];
-        Piece rook = new Rook(Color.WHITE);
+        Piece rook = Rook.WHITE;
         pieces[2][4] = rook;
         view.display(pieces, false);
         assertThat(view.getSquares()[2][4].getPiece()).isEqualTo(rook);
@@ -108,7 +108,7 @@ public class BoardViewTest {
         //fixme: not working on all platforms
         //assertThat(view.getSquares()[2][4].getBorder()).isNull();
         //assertThat(view.getSquares()[3][4].getBorder()).isNull();
-        view.addBorderToLastMoveSquares(new Move(new Queen(Color.WHITE), 4, 2, 4, 3));
+        view.addBorderToLastMoveSquares(new Move(Queen.WHITE, 4, 2, 4, 3));
         assertThat(view.getSquares()[2][4].getBorder()).isInstanceOf(LineBorder.class);
         assertThat(view.getSquares()[3][4].getBorder()).isInstanceOf(LineBorder.class);
     }
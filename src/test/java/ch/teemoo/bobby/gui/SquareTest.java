@@ -1,7 +1,6 @@
 package ch.teemoo.bobby.gui;
 
 import ch.teemoo.bobby.models.*;
-import ch.teemoo.bobby.models.Color;
 import ch.teemoo.bobby.models.pieces.Knight;
 import ch.teemoo.bobby.models.pieces.Pawn;
 import ch.teemoo.bobby.models.pieces.Piece;
@@ -19,7 +18,7 @@ public class SquareTest {
 
     @Test
     public void testSquare() {
-        Piece queen = new Queen(Color.BLACK);
+        Piece queen = Queen.BLACK;
         Position position = new Position(3, 0);
         Square square = new Square(queen, position, Background.DARK, font);
         assertThat(square.getText()).isEqualTo("♛");
@@ -33,12 +32,12 @@ public class SquareTest {
 
     @Test
     public void testSetPiece() {
-        Piece pawn = new Pawn(Color.WHITE);
+        Piece pawn = Pawn.WHITE;
         Square square = new Square(pawn, null, Background.LIGHT, font);
         assertThat(square.getPiece()).isEqualTo(pawn);
         assertThat(square.getText()).isEqualTo("♙");
 
-        Piece knight = new Knight(Color.BLACK);
+        Piece knight = Knight.BLACK;
         square.setPiece(knight);
         assertThat(square.getPiece()).isEqualTo(knight);
         assertThat(square.getText()).isEqualTo("♞");
@@ -0,0 +1,65 @@
+package ch.teemoo.bobby.helpers;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static ch.teemoo.bobby.helpers.BitBoardHelper.toSquare;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BitBoardHelperTest {
+
+    @Test
+    public void testSquares() {
+        int square = toSquare(4, 6);
+        assertThat(square).isEqualTo(52);
+        assertThat(BitBoardHelper.getX(square)).isEqualTo(4);
+        assertThat(BitBoardHelper.getY(square)).isEqualTo(6);
+        assertThat(BitBoardHelper.toBit(square)).isEqualTo(1L << 52);
+    }
+
+    @Test
+    public void testLeaperAttacks() {
+        // Knight on a1 attacks b3 and c2
+        assertThat(BitBoardHelper.knightAttacks(toSquare(0, 0)))
+                .isEqualTo((1L << toSquare(1, 2)) | (1L << toSquare(2, 1)));
+        assertThat(Long.bitCount(BitBoardHelper.knightAttacks(toSquare(3, 3)))).isEqualTo(8);
+        assertThat(Long.bitCount(BitBoardHelper.kingAttacks(toSquare(7, 7)))).isEqualTo(3);
+        assertThat(Long.bitCount(BitBoardHelper.kingAttacks(toSquare(3, 3)))).isEqualTo(8);
+        // Pawns on the border only attack one square
+        assertThat(BitBoardHelper.pawnAttacks(toSquare(0, 1), true)).isEqualTo(1L << toSquare(1, 2));
+        assertThat(BitBoardHelper.pawnAttacks(toSquare(7, 6), false)).isEqualTo(1L << toSquare(6, 5));
+    }
+
+    @Test
+    public void testSliderAttacksSameAsRays() {
+        Random random = new Random(3);
+        for (int i = 0; i < 1000; i++) {
+            long occupied = random.nextLong() & random.nextLong();
+            for (int square = 0; square < 64; square++) {
+                assertThat(BitBoardHelper.rookAttacks(square, occupied))
+                        .isEqualTo(BitBoardHelper.slowRookAttacks(square, occupied));
+                assertThat(BitBoardHelper.bishopAttacks(square, occupied))
+                        .isEqualTo(BitBoardHelper.slowBishopAttacks(square, occupied));
+            }
+        }
+    }
+
+    @Test
+    public void testRookAttacksOnEmptyBoard() {
+        assertThat(Long.bitCount(BitBoardHelper.rookAttacks(toSquare(3, 3), 0L))).isEqualTo(14);
+        assertThat(Long.bitCount(BitBoardHelper.bishopAttacks(toSquare(0, 0), 0L))).isEqualTo(7);
+        assertThat(Long.bitCount(BitBoardHelper.queenAttacks(toSquare(3, 3), 0L))).isEqualTo(27);
+    }
+
+    @Test
+    public void testBetween() {
+        // a1-a4 on the file, c1-f4 on the diagonal, none between neighbours or unaligned squares
+        assertThat(BitBoardHelper.between(toSquare(0, 0), toSquare(0, 3)))
+                .isEqualTo((1L << toSquare(0, 1)) | (1L << toSquare(0, 2)));
+        assertThat(BitBoardHelper.between(toSquare(5, 3), toSquare(2, 0)))
+                .isEqualTo((1L << toSquare(3, 1)) | (1L << toSquare(4, 2)));
+        assertThat(BitBoardHelper.between(toSquare(3, 3), toSquare(4, 4))).isZero();
+        assertThat(BitBoardHelper.between(toSquare(0, 0), toSquare(1, 2))).isZero();
+    }
+}
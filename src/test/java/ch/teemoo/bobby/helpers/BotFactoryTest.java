@@ -2,7 +2,9 @@ package ch.teemoo.bobby.helpers;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 
+import ch.teemoo.bobby.models.SearchSettings;
 import ch.teemoo.bobby.models.players.Bot;
 import ch.teemoo.bobby.models.players.ExperiencedBot;
 import ch.teemoo.bobby.models.players.RandomBot;
@@ -43,7 +45,7 @@ public class BotFactoryTest {
 	@Test
 	public void testGetTraditionalBotWrongLevel() {
 		assertThatExceptionOfType(AssertionError.class).isThrownBy(() -> botFactory.getTraditionalBot(-1, null));
-		assertThatExceptionOfType(AssertionError.class).isThrownBy(() -> botFactory.getTraditionalBot(3, null));
+		assertThatExceptionOfType(AssertionError.class).isThrownBy(() -> botFactory.getTraditionalBot(9, null));
 	}
 
 	@Test
@@ -51,6 +53,56 @@ public class BotFactoryTest {
 		assertThatExceptionOfType(AssertionError.class).isThrownBy(() -> botFactory.getTraditionalBot(1, 60));
 	}
 
+	@Test
+	public void testWrongThreads() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new BotFactory(moveService, openingService, 0));
+	}
+
+	@Test
+	public void testWrongMoveLatency() {
+		assertThatIllegalArgumentException()
+			.isThrownBy(() -> new BotFactory(moveService, openingService, 1, false, true, 0));
+	}
+
+	@Test
+	public void testGetSearchSettings() {
+		assertThat(botFactory.getSearchSettings(0).isNullMovePruning()).isFalse();
+		assertThat(botFactory.getSearchSettings(0).isLateMoveReduction()).isFalse();
+		assertThat(botFactory.getSearchSettings(2).isNullMovePruning()).isTrue();
+		assertThat(botFactory.getSearchSettings(2).isLateMoveReduction()).isTrue();
+	}
+
+	@Test
+	public void testGetSearchSettingsWithoutSelectiveSearch() {
+		BotFactory factory = new BotFactory(moveService, openingService, 2, false, false, 1000);
+		assertThat(factory.getSearchSettings(2)).isEqualTo(SearchSettings.DEFAULT.withThreads(2).withMaxNodes(25_000));
+	}
+
+	@Test
+	public void testGetSearchSettingsWithRootSplit() {
+		assertThat(botFactory.getSearchSettings(2).rootSplit()).isFalse();
+		BotFactory factory = new BotFactory(moveService, openingService, 1, true, true, 2000);
+		assertThat(factory.getSearchSettings(2).rootSplit()).isTrue();
+	}
+
+	@Test
+	public void testGetSearchSettingsNodesBudget() {
+		assertThat(botFactory.getSearchSettings(0).hasNodesLimit()).isTrue();
+		assertThat(botFactory.getSearchSettings(2).hasNodesLimit()).isTrue();
+		assertThat(botFactory.getSearchSettings(8).maxNodes()).isGreaterThan(botFactory.getSearchSettings(7).maxNodes());
+	}
+
+	@Test
+	public void testGetStrongestLevel() {
+		BotFactory factory = new BotFactory(moveService, openingService, 1, false, true, 2000);
+		// The lowest level is the fallback of the slowest machines
+		assertThat(factory.getStrongestLevel(1)).isZero();
+		assertThat(factory.getStrongestLevel(10_000)).isEqualTo(1);
+		assertThat(factory.getStrongestLevel(25_000)).isEqualTo(3);
+		assertThat(factory.getStrongestLevel(300_000)).isEqualTo(6);
+		assertThat(factory.getStrongestLevel(100_000_000)).isEqualTo(factory.getMaxLevel());
+	}
+
 	@Test
 	public void testGetExperiencedBot() {
 		Bot bot = botFactory.getExperiencedBot(2, null);
@@ -60,7 +112,7 @@ public class BotFactoryTest {
 	@Test
 	public void testGetExperiencedBotWrongLevel() {
 		assertThatExceptionOfType(AssertionError.class).isThrownBy(() -> botFactory.getExperiencedBot(-1, null));
-		assertThatExceptionOfType(AssertionError.class).isThrownBy(() -> botFactory.getExperiencedBot(3, null));
+		assertThatExceptionOfType(AssertionError.class).isThrownBy(() -> botFactory.getExperiencedBot(9, null));
 	}
 
 	@Test
@@ -70,8 +122,11 @@ public class BotFactoryTest {
 
 	@Test
 	public void testGetStrongestBot() {
-		Bot bot = botFactory.getStrongestBot();
+		// The strongest level is found by a calibration search, which leaves the move service of the bots alone
+		MoveService sharedMoveService = new MoveService();
+		Bot bot = new BotFactory(sharedMoveService, openingService).getStrongestBot();
 		assertThat(bot).isInstanceOf(ExperiencedBot.class);
+		assertThat(sharedMoveService.getEvaluationCache().getMisses()).isZero();
 	}
 
 }
@@ -221,6 +221,29 @@ public class EventHandlerTest {
 		assertThat(systemOutRule.getLog()).contains("Game starting");
 	}
 
+	@Test
+	public void testStartGameFullFromPosition() {
+		// given
+		var eventChallenge = generateDefaultChallengeEventGameStart();
+		var gameId = eventChallenge.challenge().id();
+		var onlineGame = new OnlineGame(gameId, new Game(new Human("opponent"), mock(Bot.class)), null);
+		eventHandler.onlineGameMap.put(gameId, onlineGame);
+		var fen = "4k3/8/8/8/8/8/8/R3K3 w - - 0 40";
+		var gameEvent =
+			new GameEvent.Full(GameEvent.Type.gameFull, gameId, eventChallenge.challenge().rated(), null, null,
+				"bullet", null, null, null, null, fen, generateGameState("", chariot.model.Game.Status.created));
+		when(client.streamGameEvents(gameId)).thenReturn(Stream.of(gameEvent));
+
+		// when
+		eventHandler.startGame(eventChallenge);
+
+		// then
+		var game = eventHandler.onlineGameMap.get(gameId).game();
+		assertThat(game.getInitialFen()).isEqualTo(fen);
+		assertThat(game.getBoard().getPiece(0, 0)).isPresent();
+		assertThat(game.getBoard().getPiece(0, 1)).isEmpty();
+	}
+
 	@Test
 	public void testStartGameState() {
 		// given
@@ -245,7 +268,7 @@ public class EventHandlerTest {
 		var bot = mock(Bot.class);
 		var game = new Game(new Human("player"), bot);
 		var onlineGame = new OnlineGame("1234", game, bot);
-		var move = new Move(new Pawn(Color.WHITE), 4, 1, 4, 3);
+		var move = new Move(Pawn.WHITE, 4, 1, 4, 3);
 		when(uciService.getMoveFromUciNotation(uciMoves, game)).thenReturn(move);
 
 		// when
@@ -263,7 +286,7 @@ public class EventHandlerTest {
 		var bot = mock(Bot.class);
 		var game = new Game(bot, new Human("player"));
 		var onlineGame = new OnlineGame("1234", game, bot);
-		var move = new Move(new Pawn(Color.WHITE), 4, 1, 4, 3);
+		var move = new Move(Pawn.WHITE, 4, 1, 4, 3);
 		when(bot.isBot()).thenReturn(true);
 		when(bot.selectMove(game)).thenReturn(move);
 
@@ -0,0 +1,308 @@
+package ch.teemoo.bobby.models;
+
+import ch.teemoo.bobby.models.games.Game;
+import ch.teemoo.bobby.models.moves.Move;
+import ch.teemoo.bobby.models.moves.PackedMove;
+import ch.teemoo.bobby.models.pieces.Piece;
+import ch.teemoo.bobby.models.players.Human;
+import ch.teemoo.bobby.services.MoveService;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static ch.teemoo.bobby.helpers.ColorHelper.swap;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BitBoardTest {
+
+    private Game game;
+
+    @Before
+    public void setUp() {
+        this.game = new Game(new Human("Human"), new Human("Human2"));
+    }
+
+    @Test
+    public void testFromBoardToBoardIsLossless() {
+        BitBoard bitBoard = BitBoard.fromBoard(game.getBoard(), Color.WHITE, game.getHistory());
+        Board board = bitBoard.toBoard();
+        assertThat(board.toString()).isEqualTo(game.getBoard().toString());
+        for (int x = 0; x < Board.SIZE; x++) {
+            for (int y = 0; y < Board.SIZE; y++) {
+                // Same instances, not only same kind of pieces
+                assertThat(board.getBoard()[y][x]).isSameAs(game.getBoard().getBoard()[y][x]);
+            }
+        }
+    }
+
+    @Test
+    public void testFromBoardInitialState() {
+        BitBoard bitBoard = BitBoard.fromBoard(game.getBoard(), Color.WHITE, game.getHistory());
+        assertThat(bitBoard.getToPlay()).isEqualTo(Color.WHITE);
+        assertThat(bitBoard.getCastlingRights()).isEqualTo(BitBoard.WHITE_KING_SIDE | BitBoard.WHITE_QUEEN_SIDE
+                | BitBoard.BLACK_KING_SIDE | BitBoard.BLACK_QUEEN_SIDE);
+        assertThat(bitBoard.getEnPassantSquare()).isEqualTo(BitBoard.NONE);
+        assertThat(bitBoard.getKingSquare(Color.WHITE)).isEqualTo(4);
+        assertThat(bitBoard.getKingSquare(Color.BLACK)).isEqualTo(60);
+        assertThat(Long.bitCount(bitBoard.getOccupied())).isEqualTo(32);
+        assertThat(Long.bitCount(bitBoard.getPieces(Color.BLACK, BitBoard.PAWN))).isEqualTo(8);
+        assertThat(bitBoard.getType(3)).isEqualTo(BitBoard.QUEEN);
+        assertThat(bitBoard.getType(20)).isEqualTo(BitBoard.NONE);
+    }
+
+    @Test
+    public void testFromBoardCastlingRightsAndEnPassant() {
+        playMoves(Arrays.asList("e2-e4", "a7-a6", "e1-e2", "a8-a7", "e4-e5", "d7-d5"));
+        BitBoard bitBoard = BitBoard.fromBoard(game.getBoard(), Color.WHITE, game.getHistory());
+        assertThat(bitBoard.getCastlingRights()).isEqualTo(BitBoard.BLACK_KING_SIDE);
+        assertThat(bitBoard.getEnPassantSquare()).isEqualTo(43);
+        assertThat(bitBoard.getPlyCount()).isEqualTo(6);
+    }
+
+    @Test
+    public void testDoMoveSameAsBoard() {
+        // Play a random game on both representations and compare them after each move
+        MoveService moveService = new MoveService();
+        Random random = new Random(42);
+        Board board = game.getBoard();
+        List<Move> history = new ArrayList<>();
+        BitBoard bitBoard = BitBoard.fromBoard(board, Color.WHITE, history);
+        Color color = Color.WHITE;
+        for (int i = 0; i < 200; i++) {
+            List<Move> moves = moveService.computeAllMoves(board, color, false);
+            if (moves.isEmpty()) {
+                break;
+            }
+            Move move = moves.get(random.nextInt(moves.size()));
+            board.doMove(move);
+            bitBoard.doMove(move);
+            history.add(move);
+            color = swap(color);
+            assertThat(bitBoard.toBoard().toString()).isEqualTo(board.toString());
+            assertThat(bitBoard.getToPlay()).isEqualTo(color);
+            BitBoard fromBoard = BitBoard.fromBoard(board, color, history);
+            assertThat(fromBoard.getCastlingRights()).isEqualTo(bitBoard.getCastlingRights());
+            assertThat(fromBoard.getEnPassantSquare()).isEqualTo(bitBoard.getEnPassantSquare());
+        }
+    }
+
+    @Test
+    public void testUndoMoveRestoresPosition() {
+        MoveService moveService = new MoveService();
+        Random random = new Random(11);
+        Board board = game.getBoard();
+        List<Move> history = new ArrayList<>();
+        BitBoard bitBoard = BitBoard.fromBoard(board, Color.WHITE, history);
+        bitBoard.setKeyVerified(true);
+        int[] packedMoves = new int[256];
+        for (int i = 0; i < 150; i++) {
+            String expectedBoard = bitBoard.toBoard().toString();
+            long key = bitBoard.getKey();
+            assertThat(key).isEqualTo(BitBoard.fromBoard(board, bitBoard.getToPlay(), history).getKey());
+            int castlingRights = bitBoard.getCastlingRights();
+            int enPassantSquare = bitBoard.getEnPassantSquare();
+            int movesCount = moveService.computeAllMoves(bitBoard, packedMoves);
+            for (int j = 0; j < movesCount; j++) {
+                // Packing a materialized move gives the same move back
+                assertThat(BitBoard.toPackedMove(bitBoard.toMove(packedMoves[j]))).isEqualTo(packedMoves[j]);
+                bitBoard.doMove(packedMoves[j]);
+                bitBoard.undoMove(packedMoves[j]);
+                assertThat(bitBoard.toBoard().toString()).isEqualTo(expectedBoard);
+                assertThat(bitBoard.getCastlingRights()).isEqualTo(castlingRights);
+                assertThat(bitBoard.getEnPassantSquare()).isEqualTo(enPassantSquare);
+                assertThat(bitBoard.getPlyCount()).isEqualTo(i);
+                assertThat(bitBoard.getKey()).isEqualTo(key);
+                assertThat(bitBoard.getToPlay()).isEqualTo(i % 2 == 0 ? Color.WHITE : Color.BLACK);
+            }
+            List<Move> moves = moveService.computeAllMoves(board, bitBoard.getToPlay(), false);
+            if (moves.isEmpty()) {
+                break;
+            }
+            Move move = moves.get(random.nextInt(moves.size()));
+            board.doMove(move);
+            bitBoard.doMove(move);
+            history.add(move);
+        }
+    }
+
+    @Test
+    public void testKeySameForTranspositions() {
+        playMoves(Arrays.asList("g1-f3", "b8-c6", "b1-c3"));
+        long key = BitBoard.fromBoard(game.getBoard(), Color.BLACK, game.getHistory()).getKey();
+
+        setUp();
+        playMoves(Arrays.asList("b1-c3", "b8-c6", "g1-f3"));
+        assertThat(BitBoard.fromBoard(game.getBoard(), Color.BLACK, game.getHistory()).getKey()).isEqualTo(key);
+
+        // Same pieces but another player to play
+        assertThat(BitBoard.fromBoard(game.getBoard(), Color.WHITE, game.getHistory()).getKey()).isNotEqualTo(key);
+    }
+
+    @Test
+    public void testKeyDependsOnCastlingRightsAndEnPassant() {
+        playMoves(Arrays.asList("e2-e4", "e7-e5", "e1-e2", "e8-e7", "e2-e1", "e7-e8"));
+        BitBoard withoutCastling = BitBoard.fromBoard(game.getBoard(), Color.WHITE, game.getHistory());
+
+        setUp();
+        playMoves(Arrays.asList("e2-e4", "e7-e5", "g1-f3", "g8-f6", "f3-g1", "f6-g8"));
+        BitBoard withCastling = BitBoard.fromBoard(game.getBoard(), Color.WHITE, game.getHistory());
+        assertThat(withCastling.toBoard().toString()).isEqualTo(withoutCastling.toBoard().toString());
+        assertThat(withCastling.getKey()).isNotEqualTo(withoutCastling.getKey());
+
+        setUp();
+        playMoves(Arrays.asList("e2-e4"));
+        BitBoard withEnPassant = BitBoard.fromBoard(game.getBoard(), Color.BLACK, game.getHistory());
+        BitBoard withoutEnPassant =
+                BitBoard.fromFen("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1");
+        assertThat(withEnPassant.getKey()).isNotEqualTo(withoutEnPassant.getKey());
+    }
+
+    @Test
+    public void testPawnKeyOnlyDependsOnPawns() {
+        BitBoard bitBoard = BitBoard.fromBoard(game.getBoard(), Color.WHITE, game.getHistory());
+        bitBoard.setKeyVerified(true);
+        long pawnKey = bitBoard.getPawnKey();
+        assertThat(pawnKey).isEqualTo(bitBoard.computePawnKey()).isNotZero();
+
+        bitBoard.doMove(PackedMove.of(6, 21, BitBoard.KNIGHT, BitBoard.NONE));
+        assertThat(bitBoard.getPawnKey()).isEqualTo(pawnKey);
+        int pawnMove = PackedMove.of(52, 36, BitBoard.PAWN, BitBoard.NONE);
+        bitBoard.doMove(pawnMove);
+        assertThat(bitBoard.getPawnKey()).isNotEqualTo(pawnKey);
+        bitBoard.undoMove(pawnMove);
+        assertThat(bitBoard.getPawnKey()).isEqualTo(pawnKey);
+
+        // Same pawns, other pieces
+        assertThat(BitBoard.fromFen("4k3/pppppppp/8/8/8/8/PPPPPPPP/4K3 w - - 0 1").getPawnKey()).isEqualTo(pawnKey);
+    }
+
+    @Test
+    public void testIsThreefoldRepetition() {
+        BitBoard bitBoard = BitBoard.fromBoard(game.getBoard(), Color.WHITE, game.getHistory());
+        bitBoard.setKeyVerified(true);
+        List<Integer> moves = Arrays.asList(
+                PackedMove.of(6, 21, BitBoard.KNIGHT, BitBoard.NONE),
+                PackedMove.of(62, 45, BitBoard.KNIGHT, BitBoard.NONE),
+                PackedMove.of(21, 6, BitBoard.KNIGHT, BitBoard.NONE),
+                PackedMove.of(45, 62, BitBoard.KNIGHT, BitBoard.NONE));
+        for (int move: moves) {
+            bitBoard.doMove(move);
+        }
+        // Initial position seen twice
+        assertThat(bitBoard.isThreefoldRepetition()).isFalse();
+        for (int move: moves) {
+            bitBoard.doMove(move);
+        }
+        assertThat(bitBoard.isThreefoldRepetition()).isTrue();
+        bitBoard.undoMove(moves.get(3));
+        assertThat(bitBoard.isThreefoldRepetition()).isFalse();
+    }
+
+    @Test
+    public void testDoNullMoveUndoNullMove() {
+        playMoves(Arrays.asList("e2-e4"));
+        BitBoard bitBoard = BitBoard.fromBoard(game.getBoard(), Color.BLACK, game.getHistory());
+        bitBoard.setKeyVerified(true);
+        long key = bitBoard.getKey();
+        int enPassantSquare = bitBoard.getEnPassantSquare();
+        assertThat(bitBoard.isLastMoveNull()).isFalse();
+
+        bitBoard.doNullMove();
+        assertThat(bitBoard.getToPlay()).isEqualTo(Color.WHITE);
+        assertThat(bitBoard.getEnPassantSquare()).isEqualTo(BitBoard.NONE);
+        assertThat(bitBoard.isLastMoveNull()).isTrue();
+        assertThat(bitBoard.getKey()).isEqualTo(
+                BitBoard.fromFen("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR w KQkq - 0 1").getKey());
+
+        bitBoard.undoNullMove();
+        assertThat(bitBoard.getToPlay()).isEqualTo(Color.BLACK);
+        assertThat(bitBoard.getEnPassantSquare()).isEqualTo(enPassantSquare);
+        assertThat(bitBoard.getKey()).isEqualTo(key);
+        assertThat(bitBoard.isLastMoveNull()).isFalse();
+    }
+
+    @Test
+    public void testFromFenInitialSameAsFromBoard() {
+        BitBoard fromFen = BitBoard.fromFen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
+        BitBoard fromBoard = BitBoard.fromBoard(game.getBoard(), Color.WHITE, game.getHistory());
+        assertThat(fromFen.toBoard().toString()).isEqualTo(fromBoard.toBoard().toString());
+        assertThat(fromFen.getKey()).isEqualTo(fromBoard.getKey());
+        assertThat(fromFen.getPlyCount()).isZero();
+        assertThat(fromBoard.toFen()).isEqualTo("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
+    }
+
+    @Test
+    public void testToFenAfterMoves() {
+        playMoves(Arrays.asList("e2-e4", "d7-d5", "e4-e5", "f7-f5", "g1-f3", "e8-f7", "f1-e2"));
+        BitBoard bitBoard = BitBoard.fromBoard(game.getBoard(), Color.BLACK, game.getHistory());
+        String fen = "rnbq1bnr/ppp1pkpp/8/3pPp2/8/5N2/PPPPBPPP/RNBQK2R b KQ - 3 4";
+        assertThat(bitBoard.toFen()).isEqualTo(fen);
+
+        BitBoard fromFen = BitBoard.fromFen(fen);
+        assertThat(fromFen.getKey()).isEqualTo(bitBoard.getKey());
+        assertThat(fromFen.getHalfMoveClock()).isEqualTo(3);
+        assertThat(fromFen.getPlyCount()).isEqualTo(7);
+        assertThat(fromFen.toFen()).isEqualTo(fen);
+
+        // En passant, then the clock is reset by the pawn move and increased by the next one
+        BitBoard withEnPassant = BitBoard.fromFen("rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3");
+        assertThat(withEnPassant.getEnPassantSquare()).isEqualTo(45);
+        int move = PackedMove.of(6, 21, BitBoard.KNIGHT, BitBoard.NONE);
+        withEnPassant.doMove(move);
+        assertThat(withEnPassant.toFen()).isEqualTo("rnbqkbnr/ppp1p1pp/8/3pPp2/8/5N2/PPPP1PPP/RNBQKB1R b KQkq - 1 3");
+        withEnPassant.undoMove(move);
+        assertThat(withEnPassant.toFen()).isEqualTo("rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3");
+    }
+
+    @Test
+    public void testFromFenIgnoresCastlingRightsWithoutRook() {
+        BitBoard bitBoard = BitBoard.fromFen("4k3/8/8/8/8/8/8/R3K3 w KQkq - 0 1");
+        assertThat(bitBoard.getCastlingRights()).isEqualTo(BitBoard.WHITE_QUEEN_SIDE);
+        assertThat(bitBoard.toFen()).isEqualTo("4k3/8/8/8/8/8/8/R3K3 w Q - 0 1");
+    }
+
+    @Test
+    public void testFromFenWithoutMoveNumbers() {
+        BitBoard bitBoard = BitBoard.fromFen("4k3/8/8/8/8/8/8/4K3 b - -");
+        assertThat(bitBoard.getToPlay()).isEqualTo(Color.BLACK);
+        assertThat(bitBoard.toFen()).isEqualTo("4k3/8/8/8/8/8/8/4K3 b - - 0 1");
+    }
+
+    @Test
+    public void testFromFenInvalid() {
+        List<String> invalidFens = Arrays.asList(
+                null,
+                "",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/9/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                "rnbqkbnr/ppppxppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                "rnbq1bnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQ - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQxq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq e3 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - -1 1");
+        for (String fen : invalidFens) {
+            assertThatThrownBy(() -> BitBoard.fromFen(fen)).as(String.valueOf(fen))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    private void playMoves(List<String> movesNotation) {
+        Color colorToPlay = Color.WHITE;
+        for (String notation: movesNotation) {
+            Move move = Move.fromBasicNotation(notation, colorToPlay);
+            Piece piece = game.getBoard().getPiece(move.getFromX(), move.getFromY())
+                    .orElseThrow(() -> new RuntimeException("Unexpected move, no piece at this location"));
+            move = new Move(piece, move.getFromX(), move.getFromY(), move.getToX(), move.getToY());
+            colorToPlay = swap(colorToPlay);
+            game.getBoard().doMove(move);
+            game.setToPlay(colorToPlay);
+            game.addMoveToHistory(move);
+        }
+    }
+}
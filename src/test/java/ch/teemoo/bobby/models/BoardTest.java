@@ -71,6 +71,7 @@ public class BoardTest {
                 Optional<Piece> pieceOpt = clone.getPiece(i, j);
                 Optional<Piece> initialPieceOpt = initialBoard.getPiece(i, j);
                 if (pieceOpt.isPresent()) {
+                    assertThat(pieceOpt.get()).isSameAs(initialPieceOpt.orElse(null));
                     assertThat(pieceOpt.get()).isInstanceOf(
                             initialPieceOpt.orElseThrow(() -> new RuntimeException("Expected piece here")).getClass());
                     assertThat(pieceOpt.get().getColor()).isEqualTo(
@@ -155,8 +156,8 @@ public class BoardTest {
         final int toX = 3;
         final int toY = 7;
         Piece[][] positions = new Piece[8][8];
-        Piece pawn = new Pawn(Color.WHITE);
-        Piece queen = new Queen(Color.WHITE);
+        Piece pawn = Pawn.WHITE;
+        Piece queen = Queen.WHITE;
 
         positions[fromY][fromX] = pawn;
         Board board = new Board(positions);
@@ -177,8 +178,8 @@ public class BoardTest {
         final int toX = 1;
         final int toY = 5;
         Piece[][] positions = new Piece[8][8];
-        Piece whitePawn = new Pawn(Color.WHITE);
-        Piece blackPawn = new Pawn(Color.BLACK);
+        Piece whitePawn = Pawn.WHITE;
+        Piece blackPawn = Pawn.BLACK;
 
         positions[fromY][fromX] = whitePawn;
         positions[fromY][toX] = blackPawn;
@@ -203,8 +204,8 @@ public class BoardTest {
         final int toX = 1;
         final int toY = 5;
         Piece[][] positions = new Piece[8][8];
-        Piece whitePawn = new Pawn(Color.WHITE);
-        Piece blackPawn = new Pawn(Color.BLACK);
+        Piece whitePawn = Pawn.WHITE;
+        Piece blackPawn = Pawn.BLACK;
 
         positions[toY][toX] = whitePawn;
         Board board = new Board(positions);
@@ -221,4 +222,80 @@ public class BoardTest {
         assertThat(board.getPiece(toX, toY)).isEmpty();
         assertThat(board.getPiece(toX, fromY)).isPresent().get().isEqualTo(blackPawn);
     }
+
+    @Test
+    public void testDoMoveUpdatesState() {
+        assertThat(initialBoard.getCastlingRights()).isEqualTo(BitBoard.WHITE_KING_SIDE | BitBoard.WHITE_QUEEN_SIDE
+                | BitBoard.BLACK_KING_SIDE | BitBoard.BLACK_QUEEN_SIDE);
+        assertThat(initialBoard.getEnPassantSquare()).isEqualTo(BitBoard.NONE);
+
+        Piece pawn = initialBoard.getPiece(4, 1).orElseThrow(() -> new RuntimeException("Expected piece here"));
+        Move pawnMove = new Move(pawn, 4, 1, 4, 3);
+        initialBoard.doMove(pawnMove);
+        assertThat(initialBoard.getEnPassantSquare()).isEqualTo(20);
+        assertThat(initialBoard.getHalfMoveClock()).isEqualTo(0);
+
+        Piece rook = initialBoard.getPiece(7, 7).orElseThrow(() -> new RuntimeException("Expected piece here"));
+        Move rookMove = new Move(rook, 7, 7, 7, 5);
+        initialBoard.doMove(new Move(initialBoard.getPiece(7, 6).get(), 7, 6, 7, 4));
+        initialBoard.doMove(new Move(initialBoard.getPiece(6, 0).get(), 6, 0, 5, 2));
+        initialBoard.doMove(rookMove);
+        assertThat(initialBoard.getCastlingRights()).isEqualTo(BitBoard.WHITE_KING_SIDE | BitBoard.WHITE_QUEEN_SIDE
+                | BitBoard.BLACK_QUEEN_SIDE);
+        assertThat(initialBoard.getEnPassantSquare()).isEqualTo(BitBoard.NONE);
+        assertThat(initialBoard.getHalfMoveClock()).isEqualTo(2);
+
+        Board clone = initialBoard.copy();
+        assertThat(clone.getCastlingRights()).isEqualTo(initialBoard.getCastlingRights());
+        assertThat(clone.getHalfMoveClock()).isEqualTo(2);
+
+        initialBoard.undoMove(rookMove);
+        assertThat(initialBoard.hasCastlingRight(BitBoard.BLACK_KING_SIDE)).isTrue();
+        assertThat(initialBoard.getHalfMoveClock()).isEqualTo(1);
+        assertThat(clone.hasCastlingRight(BitBoard.BLACK_KING_SIDE)).isFalse();
+    }
+
+    @Test
+    public void testKingSquares() {
+        assertThat(initialBoard.getKingSquare(Color.WHITE)).isEqualTo(4);
+        assertThat(initialBoard.getKingSquare(Color.BLACK)).isEqualTo(60);
+
+        Piece king = initialBoard.getPiece(4, 0).orElseThrow(() -> new RuntimeException("Expected piece here"));
+        initialBoard.doMove(new Move(Pawn.WHITE, 4, 1, 4, 2));
+        Move kingMove = new Move(king, 4, 0, 4, 1);
+        initialBoard.doMove(kingMove);
+        assertThat(initialBoard.getKingSquare(Color.WHITE)).isEqualTo(12);
+        assertThat(initialBoard.copy().getKingSquare(Color.WHITE)).isEqualTo(12);
+
+        // Taking a king is only done when trying moves, it is back once the move is undone
+        Piece queen = initialBoard.getPiece(3, 7).orElseThrow(() -> new RuntimeException("Expected piece here"));
+        Move takingMove = new Move(queen, 3, 7, 4, 1);
+        takingMove.setTookPiece(king);
+        initialBoard.doMove(takingMove);
+        assertThat(initialBoard.getKingSquare(Color.WHITE)).isEqualTo(BitBoard.NONE);
+        initialBoard.undoMove(takingMove);
+        assertThat(initialBoard.getKingSquare(Color.WHITE)).isEqualTo(12);
+
+        initialBoard.undoMove(kingMove);
+        assertThat(initialBoard.getKingSquare(Color.WHITE)).isEqualTo(4);
+    }
+
+    @Test
+    public void testPiecesBitboards() {
+        assertThat(initialBoard.getPieces(Color.WHITE, BitBoard.PAWN)).isEqualTo(0xFF00L);
+        assertThat(initialBoard.getPieces(Color.BLACK)).isEqualTo(0xFFFF000000000000L);
+        assertThat(initialBoard.getOccupied()).isEqualTo(0xFFFF00000000FFFFL);
+
+        // The taken piece is removed from the bitboards, and put back when the move is undone
+        Piece queen = initialBoard.getPiece(3, 7).orElseThrow(() -> new RuntimeException("Expected piece here"));
+        Move takingMove = new Move(queen, 3, 7, 3, 1);
+        takingMove.setTookPiece(Pawn.WHITE);
+        initialBoard.doMove(takingMove);
+        assertThat(initialBoard.getPieces(Color.WHITE, BitBoard.PAWN)).isEqualTo(0xF700L);
+        assertThat(initialBoard.getPieces(Color.BLACK, BitBoard.QUEEN)).isEqualTo(1L << 11);
+        assertThat(initialBoard.copy().getPieces(Color.BLACK, BitBoard.QUEEN)).isEqualTo(1L << 11);
+        initialBoard.undoMove(takingMove);
+        assertThat(initialBoard.getPieces(Color.WHITE, BitBoard.PAWN)).isEqualTo(0xFF00L);
+        assertThat(initialBoard.getOccupied()).isEqualTo(0xFFFF00000000FFFFL);
+    }
 }
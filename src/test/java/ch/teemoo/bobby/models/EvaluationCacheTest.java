@@ -0,0 +1,90 @@
+package ch.teemoo.bobby.models;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+public class EvaluationCacheTest {
+
+    @Test
+    public void testSizeIsPowerOfTwo() {
+        assertThat(new EvaluationCache(1).getSize()).isEqualTo(65536);
+        assertThat(new EvaluationCache(3).getSize()).isEqualTo(131072);
+        assertThatIllegalArgumentException().isThrownBy(() -> new EvaluationCache(0));
+    }
+
+    @Test
+    public void testStoreAndProbe() {
+        EvaluationCache cache = new EvaluationCache(1);
+        long key = 0x123456789ABCDEFL;
+        assertThat(cache.probe(key)).isEqualTo(EvaluationCache.MISSING);
+        assertThat(cache.getMisses()).isEqualTo(1);
+
+        cache.store(key, -42);
+        assertThat(cache.probe(key)).isEqualTo(-42);
+        assertThat(cache.getHits()).isEqualTo(1);
+        assertThat(cache.getHitRate()).isEqualTo(0.5);
+
+        // A score of 0 is found as well
+        cache.store(key, 0);
+        assertThat(cache.probe(key)).isZero();
+
+        // Another position stored at the same index replaces it
+        cache.store(key + cache.getSize(), 7);
+        assertThat(cache.probe(key)).isEqualTo(EvaluationCache.MISSING);
+        assertThat(cache.probe(key + cache.getSize())).isEqualTo(7);
+
+        cache.clear();
+        assertThat(cache.probe(key + cache.getSize())).isEqualTo(EvaluationCache.MISSING);
+        assertThat(cache.getHits()).isZero();
+    }
+
+    @Test
+    public void testResetStatsKeepsScores() {
+        EvaluationCache cache = new EvaluationCache(1);
+        long key = 0x123456789ABCDEFL;
+        cache.store(key, 42);
+        assertThat(cache.probe(key)).isEqualTo(42);
+        assertThat(cache.probe(key + 1)).isEqualTo(EvaluationCache.MISSING);
+
+        cache.resetStats();
+        assertThat(cache.getHits()).isZero();
+        assertThat(cache.getMisses()).isZero();
+        assertThat(cache.probe(key)).isEqualTo(42);
+        assertThat(cache.getHitRate()).isEqualTo(1);
+    }
+
+    @Test
+    public void testConcurrentStoresNeverMixPositions() throws Exception {
+        // The threads write different scores for keys sharing the same indexes: a probe either misses or finds the
+        // score of the very same key
+        EvaluationCache cache = new EvaluationCache(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int thread = 0; thread < 4; thread++) {
+            final long offset = (long) thread * cache.getSize();
+            results.add(executor.submit(() -> {
+                for (int i = 0; i < 200_000; i++) {
+                    long key = offset + (i & 1023);
+                    cache.store(key, (int) key);
+                    int score = cache.probe(key);
+                    if (score != EvaluationCache.MISSING && score != (int) key) {
+                        return false;
+                    }
+                }
+                return true;
+            }));
+        }
+        for (Future<Boolean> result : results) {
+            assertThat(result.get()).isTrue();
+        }
+        executor.shutdown();
+    }
+}
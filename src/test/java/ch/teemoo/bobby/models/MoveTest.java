@@ -15,7 +15,7 @@ public class MoveTest {
 
     @Test
     public void testMoveInit() {
-        Piece rook = new Rook(Color.WHITE);
+        Piece rook = Rook.WHITE;
         Move move = new Move(rook, 0, 0, 0, 5);
         assertThat(move.getPiece()).isEqualTo(rook);
         assertThat(move.getFromX()).isEqualTo(0);
@@ -28,7 +28,7 @@ public class MoveTest {
 
     @Test
     public void testGetBasicNotation() {
-        Piece rook = new Rook(Color.WHITE);
+        Piece rook = Rook.WHITE;
         Move move = new Move(rook, 0, 0, 0, 5);
         assertThat(move.getBasicNotation()).isEqualTo("a1-a6");
         move.setChecking(true);
@@ -37,8 +37,8 @@ public class MoveTest {
 
     @Test
     public void testGetBasicNotationCastling() {
-        Piece rook = new Rook(Color.WHITE);
-        Piece king = new King(Color.WHITE);
+        Piece rook = Rook.WHITE;
+        Piece king = King.WHITE;
         Move move = new CastlingMove(king, 4, 0, 2, 0, rook, 0, 0, 3, 0);
         assertThat(move.getBasicNotation()).isEqualTo("0-0-0");
         move = new CastlingMove(king, 4, 0, 6, 0, rook, 7, 0, 5, 0);
@@ -47,9 +47,9 @@ public class MoveTest {
 
     @Test
     public void testGetBasicNotationTaking() {
-        Piece rook = new Rook(Color.WHITE);
+        Piece rook = Rook.WHITE;
         Move move = new Move(rook, 0, 0, 0, 5);
-        move.setTookPiece(new Queen(Color.BLACK));
+        move.setTookPiece(Queen.BLACK);
         assertThat(move.getBasicNotation()).isEqualTo("a1xa6");
         move.setChecking(true);
         assertThat(move.getBasicNotation()).isEqualTo("a1xa6+");
@@ -57,7 +57,7 @@ public class MoveTest {
 
     @Test
     public void testGetPrettyNotation() {
-        Piece rook = new Rook(Color.WHITE);
+        Piece rook = Rook.WHITE;
         Move move = new Move(rook, 0, 0, 0, 5);
         assertThat(move.getPrettyNotation()).isEqualTo("WHITE a1-a6 (Rook)");
     }
@@ -138,25 +138,23 @@ public class MoveTest {
 
     @Test
     public void testToString() {
-        Move move = new Move(new Rook(Color.WHITE), 0, 0, 0, 5);
+        Move move = new Move(Rook.WHITE, 0, 0, 0, 5);
         assertThat(move.toString()).isEqualTo(move.getPrettyNotation());
     }
 
     @Test
     public void testEqualsForPosition() {
-        Move move = new Move(new Rook(Color.WHITE), 0, 0, 0, 5);
-        Move move2 = new Move(new Rook(Color.BLACK), move.getFromX(), move.getFromY(), move.getToX(), move.getToY());
+        Move move = new Move(Rook.WHITE, 0, 0, 0, 5);
+        Move move2 = new Move(Rook.BLACK, move.getFromX(), move.getFromY(), move.getToX(), move.getToY());
         assertThat(move.equalsForPositions(move2)).isTrue();
         assertThat(move.equals(move2)).isFalse();
     }
 
     @Test
     public void testEquals() {
-        Piece rook1 = new Rook(Color.WHITE);
-        Piece rook2 = new Rook(Color.WHITE);
-        Move move = new Move(rook1, 0, 0, 0, 5);
-        Move move2 = new Move(rook2, move.getFromX(), move.getFromY(), move.getToX(), move.getToY());
-        Move move3 = new Move(rook1, move.getFromX(), move.getFromY(), move.getToX(), move.getToY());
+        Move move = new Move(Rook.WHITE, 0, 0, 0, 5);
+        Move move2 = new Move(Queen.WHITE, move.getFromX(), move.getFromY(), move.getToX(), move.getToY());
+        Move move3 = new Move(Rook.of(Color.WHITE), move.getFromX(), move.getFromY(), move.getToX(), move.getToY());
         assertThat(move.equals(move2)).isFalse();
         assertThat(move.equals(move3)).isTrue();
     }
@@ -0,0 +1,31 @@
+package ch.teemoo.bobby.models;
+
+import ch.teemoo.bobby.models.moves.PackedMove;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PackedMoveTest {
+
+    @Test
+    public void testPackAndUnpack() {
+        int move = PackedMove.of(52, 63, BitBoard.PAWN, BitBoard.ROOK, PackedMove.PROMOTION, BitBoard.QUEEN);
+        assertThat(PackedMove.getFrom(move)).isEqualTo(52);
+        assertThat(PackedMove.getTo(move)).isEqualTo(63);
+        assertThat(PackedMove.getPieceType(move)).isEqualTo(BitBoard.PAWN);
+        assertThat(PackedMove.getCapturedType(move)).isEqualTo(BitBoard.ROOK);
+        assertThat(PackedMove.isTaking(move)).isTrue();
+        assertThat(PackedMove.getFlag(move)).isEqualTo(PackedMove.PROMOTION);
+        assertThat(PackedMove.getPromotedType(move)).isEqualTo(BitBoard.QUEEN);
+        assertThat(PackedMove.isChecking(move)).isFalse();
+        assertThat(PackedMove.isChecking(PackedMove.withChecking(move))).isTrue();
+    }
+
+    @Test
+    public void testPackNotTaking() {
+        int move = PackedMove.of(4, 5, BitBoard.KING, BitBoard.NONE);
+        assertThat(PackedMove.getCapturedType(move)).isEqualTo(BitBoard.NONE);
+        assertThat(PackedMove.isTaking(move)).isFalse();
+        assertThat(PackedMove.getFlag(move)).isEqualTo(PackedMove.NORMAL);
+    }
+}
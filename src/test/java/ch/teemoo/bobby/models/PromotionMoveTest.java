@@ -19,11 +19,11 @@ public class PromotionMoveTest {
 
     @Test
     public void testInit() {
-        Piece pawn = new Pawn(Color.WHITE);
-        Piece queen = new Queen(Color.WHITE);
+        Piece pawn = Pawn.WHITE;
+        Piece queen = Queen.WHITE;
         Move move = new Move(pawn, 4, 6, 4, 7);
         move.setChecking(true);
-        move.setTookPiece(new Bishop(Color.BLACK));
+        move.setTookPiece(Bishop.BLACK);
         PromotionMove promotionMove = new PromotionMove(move, queen);
         assertThat(promotionMove.getFromX()).isEqualTo(move.getFromX());
         assertThat(promotionMove.getFromY()).isEqualTo(move.getFromY());
@@ -37,8 +37,8 @@ public class PromotionMoveTest {
 
     @Test
     public void testGetPrettyNotation() {
-        Piece pawn = new Pawn(Color.WHITE);
-        Piece queen = new Queen(Color.WHITE);
+        Piece pawn = Pawn.WHITE;
+        Piece queen = Queen.WHITE;
         Move move = new Move(pawn, 4, 6, 4, 7);
         PromotionMove promotionMove = new PromotionMove(move, queen);
         assertThat(promotionMove.getPrettyNotation()).isEqualTo("WHITE e7-e8 (Pawn) (promoted to Queen)");
@@ -46,8 +46,8 @@ public class PromotionMoveTest {
 
     @Test
     public void testGetUciNotationQueen() {
-        Piece pawn = new Pawn(Color.WHITE);
-        Piece queen = new Queen(Color.WHITE);
+        Piece pawn = Pawn.WHITE;
+        Piece queen = Queen.WHITE;
         Move move = new Move(pawn, 4, 6, 4, 7);
         PromotionMove promotionMove = new PromotionMove(move, queen);
         assertThat(promotionMove.getUciNotation()).isEqualTo("e7e8q");
@@ -55,8 +55,8 @@ public class PromotionMoveTest {
 
     @Test
     public void testGetUciNotationRook() {
-        Piece pawn = new Pawn(Color.WHITE);
-        Piece rook = new Rook(Color.WHITE);
+        Piece pawn = Pawn.WHITE;
+        Piece rook = Rook.WHITE;
         Move move = new Move(pawn, 4, 6, 4, 7);
         PromotionMove promotionMove = new PromotionMove(move, rook);
         assertThat(promotionMove.getUciNotation()).isEqualTo("e7e8r");
@@ -64,8 +64,8 @@ public class PromotionMoveTest {
 
     @Test
     public void testGetUciNotationBishop() {
-        Piece pawn = new Pawn(Color.WHITE);
-        Piece bishop = new Bishop(Color.WHITE);
+        Piece pawn = Pawn.WHITE;
+        Piece bishop = Bishop.WHITE;
         Move move = new Move(pawn, 4, 6, 4, 7);
         PromotionMove promotionMove = new PromotionMove(move, bishop);
         assertThat(promotionMove.getUciNotation()).isEqualTo("e7e8b");
@@ -73,8 +73,8 @@ public class PromotionMoveTest {
 
     @Test
     public void testGetUciNotationKnight() {
-        Piece pawn = new Pawn(Color.WHITE);
-        Piece knight = new Knight(Color.WHITE);
+        Piece pawn = Pawn.WHITE;
+        Piece knight = Knight.WHITE;
         Move move = new Move(pawn, 4, 6, 4, 7);
         PromotionMove promotionMove = new PromotionMove(move, knight);
         assertThat(promotionMove.getUciNotation()).isEqualTo("e7e8n");
@@ -82,8 +82,8 @@ public class PromotionMoveTest {
 
     @Test
     public void testGetUciNotationInvalidPiece() {
-        Piece pawn = new Pawn(Color.WHITE);
-        Piece king = new King(Color.WHITE);
+        Piece pawn = Pawn.WHITE;
+        Piece king = King.WHITE;
         Move move = new Move(pawn, 4, 6, 4, 7);
         PromotionMove promotionMove = new PromotionMove(move, king);
         ThrowableAssert.ThrowingCallable callable = promotionMove::getUciNotation;
@@ -0,0 +1,66 @@
+package ch.teemoo.bobby.models;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+public class TranspositionTableTest {
+
+    @Test
+    public void testSizeIsPowerOfTwo() {
+        // 1 MB makes 65536 entries of 16 bytes
+        assertThat(new TranspositionTable(1).getSize()).isEqualTo(65536);
+        assertThat(new TranspositionTable(3).getSize()).isEqualTo(131072);
+        assertThatIllegalArgumentException().isThrownBy(() -> new TranspositionTable(0));
+    }
+
+    @Test
+    public void testStoreAndProbe() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = 0x123456789ABCDEFL;
+        assertThat(table.probe(key)).isZero();
+        assertThat(table.getMisses()).isEqualTo(1);
+
+        table.store(key, 3, TranspositionTable.LOWER_BOUND, -42, 0xABCDEF);
+        long entry = table.probe(key);
+        assertThat(entry).isNotZero();
+        assertThat(TranspositionTable.getDepth(entry)).isEqualTo(3);
+        assertThat(TranspositionTable.getBound(entry)).isEqualTo(TranspositionTable.LOWER_BOUND);
+        assertThat(TranspositionTable.getScore(entry)).isEqualTo(-42);
+        assertThat(TranspositionTable.getMove(entry)).isEqualTo(0xABCDEF);
+        assertThat(table.getHits()).isEqualTo(1);
+
+        // Another position stored at the same index
+        assertThat(table.probe(key + table.getSize())).isZero();
+        assertThat(table.getCollisions()).isEqualTo(1);
+
+        table.clear();
+        assertThat(table.probe(key)).isZero();
+        assertThat(table.getHits()).isZero();
+    }
+
+    @Test
+    public void testReplacementPrefersDeeperEntries() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = 42L;
+        long otherKey = key + table.getSize();
+        table.store(key, 4, TranspositionTable.EXACT, 10, 1);
+
+        // A shallower entry of another position does not replace a deeper one
+        table.store(otherKey, 2, TranspositionTable.EXACT, 20, 2);
+        assertThat(table.probe(otherKey)).isZero();
+        assertThat(TranspositionTable.getScore(table.probe(key))).isEqualTo(10);
+
+        // But the same position is always updated
+        table.store(key, 1, TranspositionTable.UPPER_BOUND, 5, 3);
+        assertThat(TranspositionTable.getDepth(table.probe(key))).isEqualTo(1);
+
+        // Entries from a previous search are replaced
+        table.store(key, 6, TranspositionTable.EXACT, 10, 1);
+        table.newSearch();
+        table.store(otherKey, 2, TranspositionTable.EXACT, 20, 2);
+        assertThat(TranspositionTable.getScore(table.probe(otherKey))).isEqualTo(20);
+        assertThat(table.probe(key)).isZero();
+    }
+}
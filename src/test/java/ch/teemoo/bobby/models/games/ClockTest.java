@@ -0,0 +1,45 @@
+package ch.teemoo.bobby.models.games;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import ch.teemoo.bobby.models.Color;
+import org.junit.Test;
+
+public class ClockTest {
+
+    @Test
+    public void testGetTimeAndIncrement() {
+        Clock clock = new Clock(Duration.ofSeconds(60), Duration.ofSeconds(30), Duration.ofSeconds(2),
+                Duration.ofSeconds(1));
+        assertThat(clock.getTime(Color.WHITE)).isEqualTo(Duration.ofSeconds(60));
+        assertThat(clock.getTime(Color.BLACK)).isEqualTo(Duration.ofSeconds(30));
+        assertThat(clock.getIncrement(Color.WHITE)).isEqualTo(Duration.ofSeconds(2));
+        assertThat(clock.getIncrement(Color.BLACK)).isEqualTo(Duration.ofSeconds(1));
+    }
+
+    @Test
+    public void testGetMoveBudgetSharesRemainingTime() {
+        Clock clock = new Clock(Duration.ofMillis(45150), Duration.ofMillis(20150), Duration.ZERO, Duration.ZERO);
+        assertThat(clock.getMoveBudget(Color.WHITE, 0)).isEqualTo(Duration.ofSeconds(1));
+        // Late in the game, the time is still kept for at least 20 moves
+        assertThat(clock.getMoveBudget(Color.BLACK, 60)).isEqualTo(Duration.ofSeconds(1));
+    }
+
+    @Test
+    public void testGetMoveBudgetWithIncrement() {
+        Clock clock = new Clock(Duration.ofMillis(20150), Duration.ofMillis(20150), Duration.ofSeconds(4),
+                Duration.ZERO);
+        assertThat(clock.getMoveBudget(Color.WHITE, 30)).isEqualTo(Duration.ofSeconds(4));
+        assertThat(clock.getMoveBudget(Color.BLACK, 30)).isEqualTo(Duration.ofSeconds(1));
+    }
+
+    @Test
+    public void testGetMoveBudgetLowOnTime() {
+        Clock clock = new Clock(Duration.ofMillis(1150), Duration.ofMillis(100), Duration.ofSeconds(5), Duration.ZERO);
+        // Never more than half of the remaining time, even with a large increment
+        assertThat(clock.getMoveBudget(Color.WHITE, 10)).isEqualTo(Duration.ofMillis(500));
+        assertThat(clock.getMoveBudget(Color.BLACK, 10)).isEqualTo(Duration.ofMillis(10));
+    }
+}
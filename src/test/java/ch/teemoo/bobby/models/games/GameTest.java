@@ -63,11 +63,25 @@ public class GameTest {
         }
     }
 
+    @Test
+    public void testNewGameFromFen() {
+        String fen = "r3k3/8/8/8/4p3/8/8/4K2R b Kq - 3 40";
+        Game game = new Game(new Human("A"), new Human("B"), fen);
+        assertThat(game.getInitialFen()).isEqualTo(fen);
+        assertThat(game.getToPlay()).isEqualTo(Color.BLACK);
+        assertThat(game.getHistory()).isEmpty();
+        Board board = game.getBoard();
+        assertThat(board.getPiece(0, 7)).contains(Rook.BLACK);
+        assertThat(board.getPiece(4, 3)).contains(Pawn.BLACK);
+        assertThat(board.getHalfMoveClock()).isEqualTo(3);
+        assertThat(new Game(new Human("A"), new Human("B")).getInitialFen()).isNull();
+    }
+
     @Test
     public void testAddMoveToHistory() {
         Game game = new Game(new Human("Player 1"), new Human("Player 2"));
         assertThat(game.getHistory()).isEmpty();
-        Move move = new Move(new Pawn(Color.WHITE), 4, 1, 4, 2);
+        Move move = new Move(Pawn.WHITE, 4, 1, 4, 2);
         game.addMoveToHistory(move);
         assertThat(game.getHistory()).containsExactly(move);
     }
@@ -76,7 +90,7 @@ public class GameTest {
     public void testRemoveLastMoveFromHistory() {
         Game game = new Game(new Human("Player 1"), new Human("Player 2"));
         assertThat(game.getHistory()).isEmpty();
-        Move move = new Move(new Pawn(Color.WHITE), 4, 1, 4, 2);
+        Move move = new Move(Pawn.WHITE, 4, 1, 4, 2);
         game.addMoveToHistory(move);
         assertThat(game.getHistory()).containsExactly(move);
         game.removeLastMoveFromHistory();
@@ -9,9 +9,9 @@ public class PieceTest {
 
     @Test
     public void testPawn() {
-        Piece whitePawn = new Pawn(Color.WHITE);
+        Piece whitePawn = Pawn.WHITE;
         assertThat(whitePawn.getUnicode()).isEqualTo("♙");
-        Piece blackPawn = new Pawn(Color.BLACK);
+        Piece blackPawn = Pawn.BLACK;
         assertThat(blackPawn.getUnicode()).isEqualTo("♟");
         assertThat(blackPawn.getValue()).isEqualTo(whitePawn.getValue());
         assertThat(blackPawn.getValue()).isEqualTo(1);
@@ -19,9 +19,9 @@ public class PieceTest {
 
     @Test
     public void testKnight() {
-        Piece whiteKnight = new Knight(Color.WHITE);
+        Piece whiteKnight = Knight.WHITE;
         assertThat(whiteKnight.getUnicode()).isEqualTo("♘");
-        Piece blackKnight = new Knight(Color.BLACK);
+        Piece blackKnight = Knight.BLACK;
         assertThat(blackKnight.getUnicode()).isEqualTo("♞");
         assertThat(blackKnight.getValue()).isEqualTo(whiteKnight.getValue());
         assertThat(blackKnight.getValue()).isEqualTo(3);
@@ -29,9 +29,9 @@ public class PieceTest {
 
     @Test
     public void testBishop() {
-        Piece whiteBishop = new Bishop(Color.WHITE);
+        Piece whiteBishop = Bishop.WHITE;
         assertThat(whiteBishop.getUnicode()).isEqualTo("♗");
-        Piece blackBischop = new Bishop(Color.BLACK);
+        Piece blackBischop = Bishop.BLACK;
         assertThat(blackBischop.getUnicode()).isEqualTo("♝");
         assertThat(blackBischop.getValue()).isEqualTo(whiteBishop.getValue());
         assertThat(blackBischop.getValue()).isEqualTo(3);
@@ -39,9 +39,9 @@ public class PieceTest {
 
     @Test
     public void testRook() {
-        Piece whiteRook = new Rook(Color.WHITE);
+        Piece whiteRook = Rook.WHITE;
         assertThat(whiteRook.getUnicode()).isEqualTo("♖");
-        Piece blackRook = new Rook(Color.BLACK);
+        Piece blackRook = Rook.BLACK;
         assertThat(blackRook.getUnicode()).isEqualTo("♜");
         assertThat(blackRook.getValue()).isEqualTo(whiteRook.getValue());
         assertThat(blackRook.getValue()).isEqualTo(5);
@@ -49,9 +49,9 @@ public class PieceTest {
 
     @Test
     public void testQueen() {
-        Piece whiteQueen = new Queen(Color.WHITE);
+        Piece whiteQueen = Queen.WHITE;
         assertThat(whiteQueen.getUnicode()).isEqualTo("♕");
-        Piece blackQueen = new Queen(Color.BLACK);
+        Piece blackQueen = Queen.BLACK;
         assertThat(blackQueen.getUnicode()).isEqualTo("♛");
         assertThat(blackQueen.getValue()).isEqualTo(whiteQueen.getValue());
         assertThat(blackQueen.getValue()).isEqualTo(10);
@@ -59,14 +59,26 @@ public class PieceTest {
 
     @Test
     public void testKing() {
-        Piece whiteKing = new King(Color.WHITE);
+        Piece whiteKing = King.WHITE;
         assertThat(whiteKing.getUnicode()).isEqualTo("♔");
-        Piece blackKing = new King(Color.BLACK);
+        Piece blackKing = King.BLACK;
         assertThat(blackKing.getUnicode()).isEqualTo("♚");
         assertThat(blackKing.getValue()).isEqualTo(whiteKing.getValue());
         assertThat(blackKing.getValue()).isEqualTo(100);
     }
 
+    @Test
+    public void testSharedInstances() {
+        assertThat(Pawn.of(Color.WHITE)).isSameAs(Pawn.WHITE);
+        assertThat(Knight.of(Color.BLACK)).isSameAs(Knight.BLACK);
+        assertThat(Bishop.of(Color.WHITE)).isSameAs(Bishop.WHITE);
+        assertThat(Rook.of(Color.BLACK)).isSameAs(Rook.BLACK);
+        assertThat(Queen.of(Color.WHITE)).isSameAs(Queen.WHITE);
+        assertThat(King.of(Color.BLACK)).isSameAs(King.BLACK);
+        assertThat(Piece.fromUnicodeChar('♞')).isSameAs(Knight.BLACK);
+        assertThat(Piece.fromUnicodeChar('♕')).isSameAs(Queen.WHITE);
+    }
+
     @Test
     public void testFromUnicodeChar() {
         assertThat(Piece.fromUnicodeChar('♜')).isInstanceOf(Rook.class).hasFieldOrPropertyWithValue("color", Color.BLACK);
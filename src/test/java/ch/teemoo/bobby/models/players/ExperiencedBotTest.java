@@ -12,7 +12,7 @@ import static org.mockito.Mockito.when;
 import java.util.Collections;
 
 import ch.teemoo.bobby.models.moves.CastlingMove;
-import ch.teemoo.bobby.models.Color;
+import ch.teemoo.bobby.models.SearchSettings;
 import ch.teemoo.bobby.models.games.Game;
 import ch.teemoo.bobby.models.moves.Move;
 import ch.teemoo.bobby.models.pieces.King;
@@ -50,19 +50,30 @@ public class ExperiencedBotTest {
         Integer timeout = 3;
         Bot bot = new ExperiencedBot(level, timeout, moveService, openingService);
         bot.selectMove(game);
-        verify(moveService).selectMove(any(), eq(level), notNull());
+        verify(moveService).selectMove(any(), eq(level), notNull(), eq(SearchSettings.DEFAULT));
     }
 
     @Test
     public void testSelectMoveWithOpening() {
-        Move openingMove = new CastlingMove(new King(Color.WHITE), 4, 0, 2, 0, new Rook(Color.WHITE), 0, 0, 3, 0);
+        Move openingMove = new CastlingMove(King.WHITE, 4, 0, 2, 0, Rook.WHITE, 0, 0, 3, 0);
         when(openingService.findPossibleMovesForHistory(any())).thenReturn(Collections.singletonList(openingMove));
         int level = 2;
         Integer timeout = 3;
         Bot bot = new ExperiencedBot(level, timeout, moveService, openingService);
         Move move = bot.selectMove(game);
-        verify(moveService, never()).selectMove(any(), anyInt(), any());
+        verify(moveService, never()).selectMove(any(), anyInt(), any(), any(SearchSettings.class));
         assertThat(move).isEqualTo(openingMove);
     }
 
+    @Test
+    public void testSelectMoveFromPositionWithoutOpening() {
+        when(game.getInitialFen()).thenReturn("4k3/8/8/8/8/8/8/R3K3 w - - 0 40");
+        int level = 2;
+        Integer timeout = 3;
+        Bot bot = new ExperiencedBot(level, timeout, moveService, openingService);
+        bot.selectMove(game);
+        verify(openingService, never()).findPossibleMovesForHistory(any());
+        verify(moveService).selectMove(any(), eq(level), notNull(), eq(SearchSettings.DEFAULT));
+    }
+
 }
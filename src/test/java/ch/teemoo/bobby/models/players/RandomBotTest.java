@@ -1,6 +1,6 @@
 package ch.teemoo.bobby.models.players;
 
-import ch.teemoo.bobby.models.Color;
+import ch.teemoo.bobby.models.Board;
 import ch.teemoo.bobby.models.games.Game;
 import ch.teemoo.bobby.models.moves.Move;
 import ch.teemoo.bobby.models.pieces.Rook;
@@ -10,12 +10,15 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.Random;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.nullable;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -37,11 +40,23 @@ public class RandomBotTest {
     @Test
     public void testSelectMove() {
         Bot bot = new RandomBot(moveService);
-        Move move = new Move(new Rook(Color.WHITE), 3, 4, 4, 4);
-        when(moveService.computeAllMoves(any(), any(), anyList(), eq(true))).thenReturn(Collections.singletonList(move));
+        Move move = new Move(Rook.WHITE, 3, 4, 4, 4);
+        when(moveService.computeAllMoves(nullable(Board.class), any(), eq(true))).thenReturn(Collections.singletonList(move));
         assertThat(bot.selectMove(game)).isEqualTo(move);
     }
 
+    @Test
+    public void testSelectMoveSeeded() {
+        List<Move> moves = Arrays.asList(new Move(Rook.WHITE, 3, 4, 4, 4), new Move(Rook.WHITE, 3, 4, 5, 4),
+                new Move(Rook.WHITE, 3, 4, 6, 4), new Move(Rook.WHITE, 3, 4, 7, 4));
+        when(moveService.computeAllMoves(nullable(Board.class), any(), eq(true))).thenReturn(moves);
+        Bot bot = new RandomBot(moveService, new Random(42));
+        Bot sameBot = new RandomBot(moveService, new Random(42));
+        for (int i = 0; i < 10; i++) {
+            assertThat(bot.selectMove(game)).isEqualTo(sameBot.selectMove(game));
+        }
+    }
+
     @Test
     public void testIsDrawAcceptable() {
         Bot bot = new RandomBot(null);
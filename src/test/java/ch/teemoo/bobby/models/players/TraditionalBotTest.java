@@ -5,7 +5,13 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.notNull;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+import java.time.Duration;
+
+import ch.teemoo.bobby.models.Color;
+import ch.teemoo.bobby.models.SearchSettings;
+import ch.teemoo.bobby.models.games.Clock;
 import ch.teemoo.bobby.models.games.Game;
 import ch.teemoo.bobby.services.MoveService;
 import org.junit.Test;
@@ -35,7 +41,26 @@ public class TraditionalBotTest {
         Integer timeout = 3;
         Bot bot = new TraditionalBot(level, timeout, moveService);
         bot.selectMove(game);
-        verify(moveService).selectMove(any(), eq(level), notNull());
+        verify(moveService).selectMove(any(), eq(level), notNull(), eq(SearchSettings.DEFAULT));
+    }
+
+    @Test
+    public void testGetTimeBudget() {
+        assertThat(new TraditionalBot(2, null, moveService).getTimeBudget(game)).isNull();
+        assertThat(new TraditionalBot(2, 3, moveService).getTimeBudget(game)).isEqualTo(Duration.ofSeconds(3));
+    }
+
+    @Test
+    public void testGetTimeBudgetWithClock() {
+        when(game.getToPlay()).thenReturn(Color.WHITE);
+        when(game.getClock()).thenReturn(new Clock(Duration.ofMillis(45150), Duration.ofMillis(45150), Duration.ZERO,
+                Duration.ZERO));
+        assertThat(new TraditionalBot(2, null, moveService).getTimeBudget(game)).isEqualTo(Duration.ofSeconds(1));
+        assertThat(new TraditionalBot(2, 3, moveService).getTimeBudget(game)).isEqualTo(Duration.ofSeconds(1));
+
+        when(game.getClock()).thenReturn(new Clock(Duration.ofMinutes(60), Duration.ofMinutes(60), Duration.ZERO,
+                Duration.ZERO));
+        assertThat(new TraditionalBot(2, 3, moveService).getTimeBudget(game)).isEqualTo(Duration.ofSeconds(3));
     }
 
     @Test
@@ -0,0 +1,46 @@
+package ch.teemoo.bobby.perfs;
+
+import ch.teemoo.bobby.models.SearchSettings;
+import ch.teemoo.bobby.models.games.Game;
+import ch.teemoo.bobby.models.moves.Move;
+import ch.teemoo.bobby.models.players.Bot;
+import ch.teemoo.bobby.models.players.TraditionalBot;
+import ch.teemoo.bobby.services.MoveService;
+import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class QuiescenceIT {
+	private final static Logger logger = LoggerFactory.getLogger(QuiescenceIT.class);
+
+	private static final int DEPTH = 1;
+
+	private final MoveService moveService = new MoveService();
+
+	@Test
+	public void testQuiescenceAgainstOneMoreDepth() {
+		// Depth N with the captures resolved at the leaves, against depth N + 1 without
+		Bot quiescenceBot = new TraditionalBot(DEPTH, null, SearchSettings.DEFAULT, moveService);
+		Bot deeperBot = new TraditionalBot(DEPTH + 1, null, SearchSettings.DEFAULT.withQuiescenceNodes(0), moveService);
+		DescriptiveStatistics quiescenceTimes = new DescriptiveStatistics();
+		DescriptiveStatistics deeperTimes = new DescriptiveStatistics();
+
+		RandomOpeningMatch match = new RandomOpeningMatch();
+		match.play(game -> selectMove(quiescenceBot, game, quiescenceTimes),
+			game -> selectMove(deeperBot, game, deeperTimes));
+
+		logger.info("Depth {} with quiescence against depth {}: {} wins, {} losses, {} draws", DEPTH, DEPTH + 1,
+			match.getWins(), match.getLosses(), match.getDraws());
+		logger.info("Time per move: {} ms (mean), {} ms (max) with quiescence, {} ms (mean), {} ms (max) one more "
+			+ "depth", Math.round(quiescenceTimes.getMean()), Math.round(quiescenceTimes.getMax()),
+			Math.round(deeperTimes.getMean()), Math.round(deeperTimes.getMax()));
+	}
+
+	private Move selectMove(Bot bot, Game game, DescriptiveStatistics times) {
+		long start = System.nanoTime();
+		Move move = bot.selectMove(game);
+		times.addValue((System.nanoTime() - start) / 1_000_000d);
+		return move;
+	}
+}
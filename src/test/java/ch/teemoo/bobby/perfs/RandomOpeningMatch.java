@@ -0,0 +1,80 @@
+package ch.teemoo.bobby.perfs;
+
+import static ch.teemoo.bobby.helpers.ColorHelper.swap;
+
+import java.util.Random;
+import java.util.function.Function;
+
+import ch.teemoo.bobby.models.Color;
+import ch.teemoo.bobby.models.games.Game;
+import ch.teemoo.bobby.models.games.GameState;
+import ch.teemoo.bobby.models.moves.Move;
+import ch.teemoo.bobby.models.players.Human;
+import ch.teemoo.bobby.models.players.RandomBot;
+import ch.teemoo.bobby.services.MoveService;
+
+// Games between two ways of selecting a move, started with a few random moves so that they do not all look the same
+class RandomOpeningMatch {
+	private static final int GAMES = 8;
+	private static final int RANDOM_OPENING_PLIES = 4;
+	private static final int MAX_PLIES = 200;
+
+	private final MoveService moveService = new MoveService();
+	private int wins = 0;
+	private int losses = 0;
+	private int draws = 0;
+
+	// Wins and losses are the ones of the first player
+	void play(Function<Game, Move> first, Function<Game, Move> second) {
+		for (int i = 0; i < GAMES; i++) {
+			// Each opening is played twice, once with each color
+			boolean firstIsWhite = i % 2 == 0;
+			Color winner = playGame(firstIsWhite ? first : second, firstIsWhite ? second : first, new Random(i / 2));
+			if (winner == null) {
+				draws++;
+			} else if ((winner == Color.WHITE) == firstIsWhite) {
+				wins++;
+			} else {
+				losses++;
+			}
+		}
+	}
+
+	int getWins() {
+		return wins;
+	}
+
+	int getLosses() {
+		return losses;
+	}
+
+	int getDraws() {
+		return draws;
+	}
+
+	// Percentage of the points won by the first player, a draw being half a point
+	long getWinRate() {
+		return Math.round(100d * (wins + draws / 2d) / (wins + losses + draws));
+	}
+
+	// Returns the color of the winner, or null for a draw
+	private Color playGame(Function<Game, Move> white, Function<Game, Move> black, Random random) {
+		Game game = new Game(new Human("white"), new Human("black"));
+		RandomBot randomBot = new RandomBot(moveService, random);
+		GameState state = GameState.IN_PROGRESS;
+		for (int ply = 0; ply < MAX_PLIES && state == GameState.IN_PROGRESS; ply++) {
+			Move move;
+			if (ply < RANDOM_OPENING_PLIES) {
+				move = randomBot.selectMove(game);
+			} else {
+				move = (ply % 2 == 0 ? white : black).apply(game);
+			}
+			game.getBoard().doMove(move);
+			game.addMoveToHistory(move);
+			game.setToPlay(swap(game.getToPlay()));
+			state = moveService.getGameState(game.getBoard(), game.getToPlay(), game.getHistory());
+		}
+		// The player to play has lost, the other one made the last move
+		return state == GameState.LOSS ? swap(game.getToPlay()) : null;
+	}
+}
@@ -0,0 +1,47 @@
+package ch.teemoo.bobby.perfs;
+
+import ch.teemoo.bobby.models.MoveAnalysis;
+import ch.teemoo.bobby.models.SearchSettings;
+import ch.teemoo.bobby.models.games.Game;
+import ch.teemoo.bobby.models.moves.Move;
+import ch.teemoo.bobby.services.MoveService;
+import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class SelectiveSearchIT {
+	private final static Logger logger = LoggerFactory.getLogger(SelectiveSearchIT.class);
+
+	private static final int DEPTH = 3;
+	private static final SearchSettings SELECTIVE_SETTINGS =
+		SearchSettings.DEFAULT.withNullMoveReduction(2).withLateMoveReduction(1, 3);
+
+	// Each side has its own transposition table
+	private final MoveService selectiveMoveService = new MoveService();
+	private final MoveService fullMoveService = new MoveService();
+
+	@Test
+	public void testSelectiveSearchAgainstFullSearch() {
+		// Same depth, with the null move pruning and the late move reductions against without
+		DescriptiveStatistics selectiveNodes = new DescriptiveStatistics();
+		DescriptiveStatistics fullNodes = new DescriptiveStatistics();
+
+		RandomOpeningMatch match = new RandomOpeningMatch();
+		match.play(game -> selectMove(selectiveMoveService, SELECTIVE_SETTINGS, game, selectiveNodes),
+			game -> selectMove(fullMoveService, SearchSettings.DEFAULT, game, fullNodes));
+
+		logger.info("Depth {} with selective search against full search: {} wins, {} losses, {} draws, win rate {}%",
+			DEPTH, match.getWins(), match.getLosses(), match.getDraws(), match.getWinRate());
+		logger.info("Nodes per move: {} (mean) with selective search, {} (mean) with full search, {}% fewer",
+			Math.round(selectiveNodes.getMean()), Math.round(fullNodes.getMean()),
+			Math.round(100d * (1 - selectiveNodes.getSum() / fullNodes.getSum())));
+	}
+
+	private Move selectMove(MoveService moveService, SearchSettings settings, Game game,
+		DescriptiveStatistics nodes) {
+		MoveAnalysis moveAnalysis = moveService.selectMoveAnalysis(game, DEPTH, null, settings);
+		nodes.addValue(moveAnalysis.getNodes());
+		return moveAnalysis.getMove();
+	}
+}
@@ -11,7 +11,6 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
 
-import ch.teemoo.bobby.models.Color;
 import ch.teemoo.bobby.models.games.Game;
 import ch.teemoo.bobby.models.moves.Move;
 import ch.teemoo.bobby.models.pieces.Pawn;
@@ -48,7 +47,7 @@ public class FileServiceTest {
 	public void testWriteGameToFileBasicNotation() throws IOException {
 		// given
 		Game game = new Game(new Human("A"), new Human("B"));
-		game.addMoveToHistory(new Move(new Pawn(Color.WHITE), 0, 1, 0, 2));
+		game.addMoveToHistory(new Move(Pawn.WHITE, 0, 1, 0, 2));
 
 		// when
 		fileService.writeGameToFileBasicNotation(game, file);
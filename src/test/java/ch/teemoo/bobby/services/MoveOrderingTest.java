@@ -0,0 +1,65 @@
+package ch.teemoo.bobby.services;
+
+import static ch.teemoo.bobby.models.BitBoard.BISHOP;
+import static ch.teemoo.bobby.models.BitBoard.KNIGHT;
+import static ch.teemoo.bobby.models.BitBoard.NONE;
+import static ch.teemoo.bobby.models.BitBoard.PAWN;
+import static ch.teemoo.bobby.models.BitBoard.QUEEN;
+import static ch.teemoo.bobby.models.BitBoard.ROOK;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.teemoo.bobby.models.moves.PackedMove;
+import org.junit.Test;
+
+public class MoveOrderingTest {
+    private static final int WHITE = 0;
+
+    private final int quiet = PackedMove.of(1, 18, KNIGHT, NONE);
+    private final int historyQuiet = PackedMove.of(6, 21, KNIGHT, NONE);
+    private final int killer = PackedMove.of(12, 28, PAWN, NONE);
+    private final int queenTakesPawn = PackedMove.of(3, 51, QUEEN, PAWN);
+    private final int pawnTakesPawn = PackedMove.of(27, 36, PAWN, PAWN);
+    private final int pawnTakesRook = PackedMove.of(10, 17, PAWN, ROOK);
+    private final int promotion = PackedMove.of(52, 60, PAWN, NONE, PackedMove.PROMOTION, QUEEN);
+    private final int hashMove = PackedMove.of(5, 26, BISHOP, NONE);
+
+    @Test
+    public void testOrder() {
+        MoveOrdering moveOrdering = new MoveOrdering(4, 16);
+        moveOrdering.addCutoff(killer, 2, 1, WHITE);
+        moveOrdering.addCutoff(historyQuiet, 1, 3, WHITE);
+
+        int[] moves = {quiet, historyQuiet, killer, queenTakesPawn, pawnTakesPawn, pawnTakesRook, promotion, hashMove};
+        moveOrdering.scoreMoves(moves, moves.length, 2, hashMove, WHITE);
+        int[] ordered = new int[moves.length];
+        for (int i = 0; i < moves.length; i++) {
+            ordered[i] = moveOrdering.selectMove(moves, moves.length, i, 2);
+        }
+        assertThat(ordered).containsExactly(hashMove, promotion, pawnTakesRook, pawnTakesPawn, queenTakesPawn, killer,
+                historyQuiet, quiet);
+    }
+
+    @Test
+    public void testKillersArePerPly() {
+        MoveOrdering moveOrdering = new MoveOrdering(4, 16);
+        moveOrdering.addCutoff(killer, 1, 1, WHITE);
+        moveOrdering.addCutoff(quiet, 3, 3, WHITE);
+        int[] moves = {quiet, killer};
+
+        moveOrdering.scoreMoves(moves, moves.length, 1, 0, WHITE);
+        assertThat(moveOrdering.selectMove(moves, moves.length, 0, 1)).isEqualTo(killer);
+
+        // At another ply, the quiet move with the most cutoffs in history comes first
+        moveOrdering.scoreMoves(moves, moves.length, 2, 0, WHITE);
+        assertThat(moveOrdering.selectMove(moves, moves.length, 0, 2)).isEqualTo(quiet);
+    }
+
+    @Test
+    public void testCapturesAreNotKillers() {
+        MoveOrdering moveOrdering = new MoveOrdering(4, 16);
+        moveOrdering.addCutoff(queenTakesPawn, 2, 3, WHITE);
+        int[] moves = {queenTakesPawn, pawnTakesPawn};
+        moveOrdering.scoreMoves(moves, moves.length, 2, 0, WHITE);
+        assertThat(moveOrdering.selectMove(moves, moves.length, 0, 2)).isEqualTo(pawnTakesPawn);
+    }
+}
@@ -1,5 +1,6 @@
 package ch.teemoo.bobby.services;
 
+import ch.teemoo.bobby.PerftPosition;
 import ch.teemoo.bobby.models.*;
 import ch.teemoo.bobby.models.games.Game;
 import ch.teemoo.bobby.models.games.GameState;
@@ -13,7 +14,10 @@ import org.assertj.core.util.Lists;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 
 import static ch.teemoo.bobby.helpers.ColorHelper.swap;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -57,6 +61,36 @@ public class MoveServiceTest {
         assertThat(moveService.getGameState(game.getBoard(), swap(colorToPlay), game.getHistory())).isEqualTo(GameState.LOSS);
     }
 
+    @Test
+    public void testSelectMoveQuiescenceAvoidsLosingCaptures() {
+        // Scenario: the queen can take on e5, f7 or h7, but each time it is taken back right after
+        List<String> movesNotation = Arrays.asList(
+                "e2-e4",
+                "e7-e5",
+                "d1-h5",
+                "b8-c6"
+        );
+        Game game = new Game(new RandomBot(moveService), new RandomBot(moveService));
+        Color colorToPlay = Color.WHITE;
+        for (String notation: movesNotation) {
+            Move move = Move.fromBasicNotation(notation, colorToPlay);
+            Piece piece = game.getBoard().getPiece(move.getFromX(), move.getFromY())
+                    .orElseThrow(() -> new RuntimeException("Unexpected move, no piece at this location"));
+            move = new Move(piece, move.getFromX(), move.getFromY(), move.getToX(), move.getToY());
+            colorToPlay = swap(colorToPlay);
+            game.getBoard().doMove(move);
+            game.addMoveToHistory(move);
+            game.setToPlay(colorToPlay);
+        }
+        // Without quiescence, the evaluation stops right after the capture and the queen takes a pawn
+        Move naiveBestMove = moveService.selectMove(game, 0, null, SearchSettings.DEFAULT.withQuiescenceNodes(0));
+        assertThat(naiveBestMove.getPiece()).isInstanceOf(Queen.class);
+        assertThat(naiveBestMove.isTaking()).isTrue();
+
+        Move bestMove = moveService.selectMove(game, 0, null);
+        assertThat(bestMove.getPiece() instanceof Queen && bestMove.isTaking()).isFalse();
+    }
+
     @Test
     public void testSelectMoveAvoidCheckMate() {
         // Scenario: with a depth of 1+, if the opponent can checkmate at next turn, then the selected move must avoid this, although the best move at first depth would be this one
@@ -100,8 +134,8 @@ public class MoveServiceTest {
         Game game = new Game(new RandomBot(moveService), new RandomBot(moveService));
         Board initialBoard = game.getBoard();
         // Each player has 20 possible moves in initial position
-        assertThat(moveService.computeAllMoves(initialBoard, Color.WHITE, game.getHistory(), false)).hasSize(20);
-        assertThat(moveService.computeAllMoves(initialBoard, Color.BLACK, game.getHistory(),false)).hasSize(20);
+        assertThat(moveService.computeAllMoves(initialBoard, Color.WHITE, false)).hasSize(20);
+        assertThat(moveService.computeAllMoves(initialBoard, Color.BLACK, false)).hasSize(20);
     }
 
     @Test
@@ -109,11 +143,11 @@ public class MoveServiceTest {
         Game game = new Game(new RandomBot(moveService), new RandomBot(moveService));
         Board initialBoard = game.getBoard();
         // White rook cannot move in initial position
-        assertThat(moveService.computeMoves(initialBoard, initialBoard.getPiece(0, 0).get(), 0, 0, game.getHistory(),false, false)).isEmpty();
+        assertThat(moveService.computeMoves(initialBoard, initialBoard.getPiece(0, 0).get(), 0, 0, false, false)).isEmpty();
         // White knight has two possible moves
-        assertThat(moveService.computeMoves(initialBoard, initialBoard.getPiece(1, 0).get(), 1, 0, game.getHistory(),false, false)).hasSize(2);
+        assertThat(moveService.computeMoves(initialBoard, initialBoard.getPiece(1, 0).get(), 1, 0, false, false)).hasSize(2);
         // Any pawn has two possible moves
-        assertThat(moveService.computeMoves(initialBoard, initialBoard.getPiece(5, 1).get(), 5, 1, game.getHistory(),false, false)).hasSize(2);
+        assertThat(moveService.computeMoves(initialBoard, initialBoard.getPiece(5, 1).get(), 5, 1, false, false)).hasSize(2);
     }
 
     @Test
@@ -190,6 +224,20 @@ public class MoveServiceTest {
         assertThat(moveService.getGameState(board, Color.WHITE, history)).isEqualTo(GameState.DRAW_50_MOVES);
     }
 
+    @Test
+    public void testGetGameStateDraw50MovesFromFen() {
+        // No move was played, only the half-move clock of the position tells that the game is over
+        BitBoard bitBoard = BitBoard.fromFen("4k3/8/8/8/8/8/8/R3K3 w - - 99 80");
+        assertThat(moveService.getGameState(bitBoard)).isEqualTo(GameState.DRAW_50_MOVES);
+        assertThat(moveService.getGameState(bitBoard.toBoard(), Color.WHITE, Collections.emptyList()))
+                .isEqualTo(GameState.DRAW_50_MOVES);
+
+        bitBoard = BitBoard.fromFen("4k3/8/8/8/8/8/8/R3K3 w - - 10 80");
+        assertThat(moveService.getGameState(bitBoard)).isEqualTo(GameState.IN_PROGRESS);
+        assertThat(moveService.getGameState(bitBoard.toBoard(), Color.WHITE, Collections.emptyList()))
+                .isEqualTo(GameState.IN_PROGRESS);
+    }
+
     @Test
     public void testGetGameStateDrawThreefold() {
         Board board = new Board("" +
@@ -217,6 +265,27 @@ public class MoveServiceTest {
         assertThat(moveService.getGameState(board, Color.BLACK, history)).isEqualTo(GameState.DRAW_THREEFOLD);
     }
 
+    @Test
+    public void testGetGameStateDrawThreefoldWithDifferentMoves() {
+        // The initial position is repeated three times, through different knight moves
+        Game game = new Game(new RandomBot(moveService), new RandomBot(moveService));
+        Board board = game.getBoard();
+        List<Move> history = new ArrayList<>();
+        List<String> movesBasicNotation = Arrays.asList(
+                "b1-c3", "b8-c6", "c3-b1", "c6-b8", "b1-a3", "b8-a6", "a3-b1", "a6-b8");
+        Color color = Color.WHITE;
+        for (String notation: movesBasicNotation) {
+            Move move = Move.fromBasicNotation(notation, color);
+            move = new Move(board.getPiece(move.getFromX(), move.getFromY()).get(), move.getFromX(), move.getFromY(),
+                    move.getToX(), move.getToY());
+            assertThat(moveService.getGameState(board, color, history)).isEqualTo(GameState.IN_PROGRESS);
+            board.doMove(move);
+            history.add(move);
+            color = swap(color);
+        }
+        assertThat(moveService.getGameState(board, Color.WHITE, history)).isEqualTo(GameState.DRAW_THREEFOLD);
+    }
+
     @Test
     public void testFindKingPosition() {
         // Initial positions board
@@ -273,12 +342,12 @@ public class MoveServiceTest {
         Game game = new Game(new RandomBot(moveService), new RandomBot(moveService));
         Board board = game.getBoard();
         assertThat(moveService.getPiecesValueSum(board, Color.WHITE)).isEqualTo(
-                8 * (new Pawn(Color.WHITE)).getValue()
-                + 2 * (new Knight(Color.WHITE)).getValue()
-                + 2 * (new Bishop(Color.WHITE)).getValue()
-                + 2 * (new Rook(Color.WHITE)).getValue()
-                + (new Queen(Color.WHITE)).getValue()
-                + (new King(Color.WHITE)).getValue()
+                8 * (Pawn.WHITE).getValue()
+                + 2 * (Knight.WHITE).getValue()
+                + 2 * (Bishop.WHITE).getValue()
+                + 2 * (Rook.WHITE).getValue()
+                + (Queen.WHITE).getValue()
+                + (King.WHITE).getValue()
                 );
 
         assertThat(moveService.getPiecesValueSum(board, Color.WHITE)).isEqualTo(moveService.getPiecesValueSum(board, Color.BLACK));
@@ -292,15 +361,15 @@ public class MoveServiceTest {
     @Test
     public void testGetDevelopmentBonusQueenMoveInOpening() {
         List<Move> moves = Arrays.asList(
-            new Move(new Pawn(Color.WHITE), 3, 1, 3, 3),
-            new Move(new Queen(Color.WHITE), 3, 0, 3, 2)
+            new Move(Pawn.WHITE, 3, 1, 3, 3),
+            new Move(Queen.WHITE, 3, 0, 3, 2)
         );
         assertThat(moveService.getDevelopmentBonus(moves)).isEqualTo(-5);
     }
 
     @Test
     public void testGetDevelopmentBonusTwicePieceMovedInOpening() {
-        Piece knight = new Knight(Color.WHITE);
+        Piece knight = Knight.WHITE;
         List<Move> moves = Arrays.asList(
             new Move(knight, 1, 0, 2, 2),
             new Move(knight, 2, 2, 3, 4)
@@ -308,11 +377,20 @@ public class MoveServiceTest {
         assertThat(moveService.getDevelopmentBonus(moves)).isEqualTo(-5);
     }
 
+    @Test
+    public void testGetDevelopmentBonusTwoPiecesOfSameTypeMovedInOpening() {
+        List<Move> moves = Arrays.asList(
+            new Move(Knight.WHITE, 1, 0, 2, 2),
+            new Move(Knight.WHITE, 6, 0, 5, 2)
+        );
+        assertThat(moveService.getDevelopmentBonus(moves)).isEqualTo(0);
+    }
+
     @Test
     public void testGetDevelopmentBonusCastling() {
-        Piece king = new King(Color.WHITE);
+        Piece king = King.WHITE;
         List<Move> moves = Arrays.asList(
-            new CastlingMove(king, 4, 0, 2, 0, new Rook(Color.WHITE), 0, 0, 3, 0)
+            new CastlingMove(king, 4, 0, 2, 0, Rook.WHITE, 0, 0, 3, 0)
         );
         assertThat(moveService.getDevelopmentBonus(moves)).isEqualTo(15);
     }
@@ -320,12 +398,12 @@ public class MoveServiceTest {
     @Test
     public void testGetDevelopmentBonusKingShouldNotMoveBeforeCastling() {
         List<Move> moves = Arrays.asList(
-            new Move(new Pawn(Color.WHITE), 3, 1, 3, 2),
-            new Move(new Pawn(Color.WHITE), 3, 2, 3, 3),
-            new Move(new Pawn(Color.WHITE), 3, 3, 3, 4),
-            new Move(new Pawn(Color.WHITE), 3, 4, 3, 5),
-            new Move(new Pawn(Color.WHITE), 3, 5, 3, 6),
-            new Move(new King(Color.WHITE), 4, 0, 4, 1)
+            new Move(Pawn.WHITE, 3, 1, 3, 2),
+            new Move(Pawn.WHITE, 3, 2, 3, 3),
+            new Move(Pawn.WHITE, 3, 3, 3, 4),
+            new Move(Pawn.WHITE, 3, 4, 3, 5),
+            new Move(Pawn.WHITE, 3, 5, 3, 6),
+            new Move(King.WHITE, 4, 0, 4, 1)
             );
         assertThat(moveService.getDevelopmentBonus(moves)).isEqualTo(-10);
     }
@@ -333,13 +411,13 @@ public class MoveServiceTest {
     @Test
     public void testGetBestMove() {
         Map<MoveAnalysis, Integer> map = new HashMap<>();
-        map.put(new MoveAnalysis(new Move(new Bishop(Color.BLACK), 4, 5, 5, 6)), 60);
-        map.put(new MoveAnalysis(new Move(new Bishop(Color.BLACK), 4, 5, 3, 4)), 23);
-        map.put(new MoveAnalysis(new Move(new Bishop(Color.BLACK), 4, 5, 6, 7)), 45);
-        map.put(new MoveAnalysis(new Move(new Knight(Color.BLACK), 2, 3, 4, 4)), -56);
-        map.put(new MoveAnalysis(new Move(new Knight(Color.BLACK), 2, 3, 1, 5)), 20);
-        map.put(new MoveAnalysis(new Move(new Knight(Color.BLACK), 2, 3, 0, 4)), 59);
-        MoveAnalysis bestMove = new MoveAnalysis(new Move(new Queen(Color.BLACK), 6, 6, 6, 7));
+        map.put(new MoveAnalysis(new Move(Bishop.BLACK, 4, 5, 5, 6)), 60);
+        map.put(new MoveAnalysis(new Move(Bishop.BLACK, 4, 5, 3, 4)), 23);
+        map.put(new MoveAnalysis(new Move(Bishop.BLACK, 4, 5, 6, 7)), 45);
+        map.put(new MoveAnalysis(new Move(Knight.BLACK, 2, 3, 4, 4)), -56);
+        map.put(new MoveAnalysis(new Move(Knight.BLACK, 2, 3, 1, 5)), 20);
+        map.put(new MoveAnalysis(new Move(Knight.BLACK, 2, 3, 0, 4)), 59);
+        MoveAnalysis bestMove = new MoveAnalysis(new Move(Queen.BLACK, 6, 6, 6, 7));
         map.put(bestMove, 65);
         assertThat(moveService.getBestMove(map)).isEqualTo(bestMove);
     }
@@ -352,12 +430,12 @@ public class MoveServiceTest {
     @Test
     public void testGetMaxScoreWithRandomChoice() {
         Map<MoveAnalysis, Integer> map = new HashMap<>();
-        map.put(new MoveAnalysis(new Move(new Bishop(Color.WHITE), 4, 5, 5, 6)), -2);
-        map.put(new MoveAnalysis(new Move(new Bishop(Color.WHITE), 4, 5, 3, 4)), 5);
-        map.put(new MoveAnalysis(new Move(new Bishop(Color.WHITE), 4, 5, 6, 7)), 8);
-        map.put(new MoveAnalysis(new Move(new Knight(Color.WHITE), 2, 3, 4, 4)), 8);
-        map.put(new MoveAnalysis(new Move(new Knight(Color.WHITE), 2, 3, 1, 5)), 7);
-        map.put(new MoveAnalysis(new Move(new Knight(Color.WHITE), 2, 3, 0, 4)), -2);
+        map.put(new MoveAnalysis(new Move(Bishop.WHITE, 4, 5, 5, 6)), -2);
+        map.put(new MoveAnalysis(new Move(Bishop.WHITE, 4, 5, 3, 4)), 5);
+        map.put(new MoveAnalysis(new Move(Bishop.WHITE, 4, 5, 6, 7)), 8);
+        map.put(new MoveAnalysis(new Move(Knight.WHITE, 2, 3, 4, 4)), 8);
+        map.put(new MoveAnalysis(new Move(Knight.WHITE, 2, 3, 1, 5)), 7);
+        map.put(new MoveAnalysis(new Move(Knight.WHITE, 2, 3, 0, 4)), -2);
         Optional<MoveAnalysis> bestmove = moveService.getMaxScoreWithRandomChoice(map);
         assertThat(bestmove).isPresent();
         assertThat(map.get(bestmove.get())).isEqualTo(8);
@@ -367,7 +445,7 @@ public class MoveServiceTest {
     @Test
     public void testGetMaxScoreWithRandomChoiceSingleElement() {
         Map<MoveAnalysis, Integer> map = new HashMap<>(1);
-        MoveAnalysis moveAnalysis = new MoveAnalysis(new Move(new Bishop(Color.WHITE), 4, 5, 5, 6));
+        MoveAnalysis moveAnalysis = new MoveAnalysis(new Move(Bishop.WHITE, 4, 5, 5, 6));
         map.put(moveAnalysis, 0);
         assertThat(moveService.getMaxScoreWithRandomChoice(map)).isPresent().get().isEqualTo(moveAnalysis);
     }
@@ -382,8 +460,8 @@ public class MoveServiceTest {
         // Initial positions board
         Game game = new Game(new RandomBot(moveService), new RandomBot(moveService));
         Board board = game.getBoard();
-        assertThat(moveService.canMove(board, Color.WHITE, game.getHistory())).isTrue();
-        assertThat(moveService.canMove(board, Color.BLACK, game.getHistory())).isTrue();
+        assertThat(moveService.canMove(board, Color.WHITE)).isTrue();
+        assertThat(moveService.canMove(board, Color.BLACK)).isTrue();
     }
 
     @Test
@@ -398,7 +476,7 @@ public class MoveServiceTest {
                 "♙ ♙ ♙ ♙     ♙ ♙ \n" +
                 "♖ ♘ ♗   ♔ ♗ ♘ ♖ \n"
         );
-        assertThat(moveService.canMove(board, Color.BLACK, Collections.emptyList())).isFalse();
+        assertThat(moveService.canMove(board, Color.BLACK)).isFalse();
     }
 
     @Test
@@ -406,7 +484,7 @@ public class MoveServiceTest {
         // Initial positions board
         Game game = new Game(new RandomBot(moveService), new RandomBot(moveService));
         Board board = game.getBoard();
-        List<Move> whiteMovesStart = moveService.computeBoardMoves(board, Color.WHITE, game.getHistory(),false, false, false);
+        List<Move> whiteMovesStart = moveService.computeBoardMoves(board, Color.WHITE, false, false, false);
         assertThat(whiteMovesStart).containsExactlyInAnyOrder(
                 // Pawns
                 new Move(board.getPiece(0, 1).get(), 0, 1, 0, 2),
@@ -438,7 +516,7 @@ public class MoveServiceTest {
         // Initial positions board
         Game game = new Game(new RandomBot(moveService), new RandomBot(moveService));
         Board board = game.getBoard();
-        List<Move> whiteMovesStart = moveService.computeBoardMoves(board, Color.WHITE, game.getHistory(),false, true, false);
+        List<Move> whiteMovesStart = moveService.computeBoardMoves(board, Color.WHITE, false, true, false);
         assertThat(whiteMovesStart).containsExactlyInAnyOrder(
                 new Move(board.getPiece(1, 0).get(), 1, 0, 0, 2),
                 new Move(board.getPiece(1, 0).get(), 1, 0, 2, 2)
@@ -482,7 +560,7 @@ public class MoveServiceTest {
                 "                \n"
         );
         Piece pawn = board.getPiece(3, 4).get();
-        List<Move> moves = moveService.computePawnMoves(pawn, 3, 4, board, Collections.emptyList(), false);
+        List<Move> moves = moveService.computePawnMoves(pawn, 3, 4, board, false);
         assertThat(moves).containsExactlyInAnyOrder(
                 new Move(pawn, 3, 4, 3, 5),
                 getMoveWithTookPiece(pawn, 3, 4, 2, 5, board.getPiece(2, 5).get()),
@@ -490,7 +568,7 @@ public class MoveServiceTest {
         );
 
         Piece pawnAtStart = board.getPiece(0, 1).get();
-        moves = moveService.computePawnMoves(pawnAtStart, 0, 1, board, Collections.emptyList(), false);
+        moves = moveService.computePawnMoves(pawnAtStart, 0, 1, board, false);
         assertThat(moves).containsExactlyInAnyOrder(
                 new Move(pawnAtStart, 0, 1, 0, 2),
                 new Move(pawnAtStart, 0, 1, 0, 3),
@@ -511,15 +589,15 @@ public class MoveServiceTest {
                 "                \n"
         );
         Piece pawn = board.getPiece(3, 4).get();
-        List<Move> moves = moveService.computePawnMoves(pawn, 3, 4, board, Collections.emptyList(), false);
+        List<Move> moves = moveService.computePawnMoves(pawn, 3, 4, board, false);
         assertThat(moves).containsExactlyInAnyOrder(getMoveWithTookPiece(pawn, 3, 4, 4, 5, board.getPiece(4, 5).get()));
 
         Piece pawnAtStart = board.getPiece(0, 1).get();
-        moves = moveService.computePawnMoves(pawnAtStart, 0, 1, board, Collections.emptyList(), false);
+        moves = moveService.computePawnMoves(pawnAtStart, 0, 1, board, false);
         assertThat(moves).isEmpty();
 
         Piece blackPawn = board.getPiece(4, 5).get();
-        moves = moveService.computePawnMoves(blackPawn, 4, 5, board, Collections.emptyList(), false);
+        moves = moveService.computePawnMoves(blackPawn, 4, 5, board, false);
         assertThat(moves).containsExactlyInAnyOrder(new Move(blackPawn, 4, 5, 4, 4), getMoveWithTookPiece(blackPawn, 4, 5, 3, 4, board.getPiece(3, 4).get()));
     }
 
@@ -527,19 +605,18 @@ public class MoveServiceTest {
     public void testComputePawnMovesEnPassant() {
         Board board = new Board("" +
             "                \n" +
+            "        ♟       \n" +
             "                \n" +
-            "                \n" +
-            "      ♙ ♟       \n" +
+            "      ♙         \n" +
             "                \n" +
             "                \n" +
             "                \n" +
             "                \n"
         );
-        Piece blackPawn = board.getPiece(4, 4).get();
-        Move lastMove = new Move(blackPawn, 4, 6, 4, 4);
-        List<Move> history = Collections.singletonList(lastMove);
+        Piece blackPawn = board.getPiece(4, 6).get();
+        board.doMove(new Move(blackPawn, 4, 6, 4, 4));
         Piece pawn = board.getPiece(3, 4).get();
-        List<Move> moves = moveService.computePawnMoves(pawn, 3, 4, board, history, false);
+        List<Move> moves = moveService.computePawnMoves(pawn, 3, 4, board, false);
         EnPassantMove enPassantMove = new EnPassantMove(new Move(pawn, 3, 4, 4, 5), 4, 4);
         enPassantMove.setTookPiece(blackPawn);
         assertThat(moves).containsExactlyInAnyOrder(new Move(pawn, 3, 4, 3, 5), enPassantMove);
@@ -731,13 +808,13 @@ public class MoveServiceTest {
                 "♖     ♔   ♗ ♘ ♖ \n"
         );
         Piece blackKing = board.getPiece(4, 7).get();
-        assertThat(moveService.computeCastlingMoves(blackKing, 4, 7, board, Collections.emptyList())).hasSize(2);
+        assertThat(moveService.computeCastlingMoves(blackKing, 4, 7, board)).hasSize(2);
         Piece whiteKing = board.getPiece(3, 0).get();
-        assertThat(moveService.computeCastlingMoves(whiteKing, 4, 0, board, Collections.emptyList())).hasSize(0);
+        assertThat(moveService.computeCastlingMoves(whiteKing, 4, 0, board)).hasSize(0);
     }
 
     @Test
-    public void testComputeCastlingMovesDeniedByHistory() {
+    public void testComputeCastlingMovesDeniedOnceKingMoved() {
         Board board = new Board("" +
                 "♜       ♚     ♜ \n" +
                 "♟ ♟ ♟ ♛   ♟ ♟ ♟ \n" +
@@ -749,8 +826,9 @@ public class MoveServiceTest {
                 "♖       ♔ ♗ ♘ ♖ \n"
         );
         Piece whiteKing = board.getPiece(4, 0).get();
-        List<Move> history = Collections.singletonList(new Move(whiteKing, 4, 0, 3, 0));
-        assertThat(moveService.computeCastlingMoves(whiteKing, 4, 0, board, history)).hasSize(0);
+        board.doMove(new Move(whiteKing, 4, 0, 3, 0));
+        board.doMove(new Move(whiteKing, 3, 0, 4, 0));
+        assertThat(moveService.computeCastlingMoves(whiteKing, 4, 0, board)).hasSize(0);
     }
 
     @Test
@@ -766,10 +844,10 @@ public class MoveServiceTest {
                 "♖       ♔ ♗ ♘ ♖ \n"
         );
         Piece whiteKing = board.getPiece(4, 0).get();
-        assertThat(moveService.getCastlingMove(board, whiteKing, 4, 0, 2, 0, 3, Collections.emptyList())).isPresent().get().isInstanceOf(
+        assertThat(moveService.getCastlingMove(board, whiteKing, 4, 0, 2, 0, 3)).isPresent().get().isInstanceOf(
             CastlingMove.class);
         Piece blackKing = board.getPiece(4, 7).get();
-        assertThat(moveService.getCastlingMove(board, blackKing, 4, 7, 6, 7, 5, Collections.emptyList())).isPresent().get().isInstanceOf(CastlingMove.class);
+        assertThat(moveService.getCastlingMove(board, blackKing, 4, 7, 6, 7, 5)).isPresent().get().isInstanceOf(CastlingMove.class);
     }
 
     @Test
@@ -785,7 +863,7 @@ public class MoveServiceTest {
                 "        ♔ ♗ ♘ ♖ \n"
         );
         Piece king = board.getPiece(4, 0).get();
-        assertThat(moveService.getCastlingMove(board, king, 4, 0, 2, 0, 3, Collections.emptyList())).isEmpty();
+        assertThat(moveService.getCastlingMove(board, king, 4, 0, 2, 0, 3)).isEmpty();
 
         board = new Board("" +
                 "♜ ♞   ♛ ♚     ♜ \n" +
@@ -797,7 +875,7 @@ public class MoveServiceTest {
                 "♙ ♙ ♙ ♙     ♙ ♙ \n" +
                 "♗       ♔   ♘ ♖ \n"
         );
-        assertThat(moveService.getCastlingMove(board, king, 4, 0, 2, 0, 3, Collections.emptyList())).isEmpty();
+        assertThat(moveService.getCastlingMove(board, king, 4, 0, 2, 0, 3)).isEmpty();
 
         board = new Board("" +
                 "  ♞   ♛ ♚     ♜ \n" +
@@ -809,7 +887,7 @@ public class MoveServiceTest {
                 "♙ ♙ ♙ ♙     ♙ ♙ \n" +
                 "♜       ♔ ♗ ♘ ♖ \n"
         );
-        assertThat(moveService.getCastlingMove(board, king, 4, 0, 2, 0, 3, Collections.emptyList())).isEmpty();
+        assertThat(moveService.getCastlingMove(board, king, 4, 0, 2, 0, 3)).isEmpty();
     }
 
     @Test
@@ -825,7 +903,7 @@ public class MoveServiceTest {
                 "♖     ♗ ♔   ♘ ♖ \n"
         );
         Piece king = board.getPiece(4, 0).get();
-        assertThat(moveService.getCastlingMove(board, king, 4, 0, 2, 0, 3, Collections.emptyList())).isEmpty();
+        assertThat(moveService.getCastlingMove(board, king, 4, 0, 2, 0, 3)).isEmpty();
     }
 
     @Test
@@ -841,7 +919,7 @@ public class MoveServiceTest {
                 "♖       ♔ ♗ ♘ ♖ \n"
         );
         Piece king = board.getPiece(4, 0).get();
-        assertThat(moveService.getCastlingMove(board, king, 4, 0, 2, 0, 3, Collections.emptyList())).isEmpty();
+        assertThat(moveService.getCastlingMove(board, king, 4, 0, 2, 0, 3)).isEmpty();
     }
 
     @Test
@@ -970,7 +1048,7 @@ public class MoveServiceTest {
                 "♙ ♙ ♙ ♙     ♙ ♙ \n" +
                 "♖ ♘ ♗   ♔ ♗ ♘ ♖ \n"
         );
-        assertThat(moveService.getAllowedMove(new Bishop(Color.BLACK), 2, 7, 4, -4, board)).isPresent()
+        assertThat(moveService.getAllowedMove(Bishop.BLACK, 2, 7, 4, -4, board)).isPresent()
                 .get().hasFieldOrPropertyWithValue("tookPiece", board.getPiece(6, 3).get());
     }
 
@@ -986,7 +1064,7 @@ public class MoveServiceTest {
                 "♙ ♙ ♙ ♙     ♙ ♙ \n" +
                 "♖ ♘ ♗   ♔ ♗ ♘ ♖ \n"
         );
-        assertThat(moveService.getAllowedMove(new Pawn(Color.BLACK), 3, 4, 0, -1, board)).isPresent();
+        assertThat(moveService.getAllowedMove(Pawn.BLACK, 3, 4, 0, -1, board)).isPresent();
     }
 
     @Test
@@ -1001,7 +1079,7 @@ public class MoveServiceTest {
                 "♙ ♙ ♙ ♙     ♙ ♙ \n" +
                 "♖ ♘ ♗   ♔ ♗ ♘ ♖ \n"
         );
-        assertThat(moveService.getAllowedMove(new Pawn(Color.BLACK), 3, 4, 0, -1, board)).isEmpty();
+        assertThat(moveService.getAllowedMove(Pawn.BLACK, 3, 4, 0, -1, board)).isEmpty();
     }
 
     @Test
@@ -1016,7 +1094,7 @@ public class MoveServiceTest {
                 "♙ ♙ ♙ ♙     ♙ ♙ \n" +
                 "♖ ♘ ♗   ♔ ♗ ♘ ♖ \n"
         );
-        assertThat(moveService.getAllowedMove(new Pawn(Color.BLACK), 3, 4, 1, -1, board)).isPresent()
+        assertThat(moveService.getAllowedMove(Pawn.BLACK, 3, 4, 1, -1, board)).isPresent()
                 .get().hasFieldOrPropertyWithValue("tookPiece", board.getPiece(4, 3).get());
     }
 
@@ -1032,7 +1110,7 @@ public class MoveServiceTest {
                 "♙ ♙ ♙ ♙     ♙ ♙ \n" +
                 "♖ ♘ ♗   ♔ ♗ ♘ ♖ \n"
         );
-        assertThat(moveService.getAllowedMove(new Pawn(Color.BLACK), 3, 4, 1, -1, board)).isEmpty();
+        assertThat(moveService.getAllowedMove(Pawn.BLACK, 3, 4, 1, -1, board)).isEmpty();
     }
 
     @Test
@@ -1047,7 +1125,7 @@ public class MoveServiceTest {
                 "♙ ♙ ♙ ♙     ♙ ♙ \n" +
                 "♖ ♘ ♗   ♔ ♗ ♘ ♖ \n"
         );
-        assertThat(moveService.getAllowedMove(new Pawn(Color.BLACK), 3, 4, 1, -1, board)).isEmpty();
+        assertThat(moveService.getAllowedMove(Pawn.BLACK, 3, 4, 1, -1, board)).isEmpty();
     }
 
     @Test
@@ -1062,7 +1140,7 @@ public class MoveServiceTest {
                 "♙ ♙ ♙ ♙     ♙ ♙ \n" +
                 "♖ ♘ ♗   ♔ ♗ ♘ ♖ \n"
         );
-        assertThat(moveService.getAllowedMove(new Bishop(Color.BLACK), 2, 7, 4, -4, board)).isEmpty();
+        assertThat(moveService.getAllowedMove(Bishop.BLACK, 2, 7, 4, -4, board)).isEmpty();
     }
 
     @Test
@@ -1312,7 +1390,7 @@ public class MoveServiceTest {
 
     @Test
     public void testGetHeatmapAroundLocation() {
-        int[][] heatmap = moveService.getHeatmapAroundLocation(7, 0);
+        int[][] heatmap = MoveService.getHeatmapAroundLocation(7, 0);
         assertThat(heatmap).hasNumberOfRows(8);
         assertThat(heatmap[0]).hasSize(8);
         int[][] expected = new int[][] {
@@ -1328,6 +1406,216 @@ public class MoveServiceTest {
         assertThat(heatmap).isEqualTo(expected);
     }
 
+    @Test
+    public void testSelectMoveUsesTranspositionTable() {
+        Game game = new Game(new RandomBot(moveService), new RandomBot(moveService));
+        moveService.getTranspositionTable().clear();
+        moveService.selectMove(game, 3, null);
+        // Many positions are reached through different move orders, e.g. 1. Nf3 Nf6 2. Nc3 and 1. Nc3 Nf6 2. Nf3
+        assertThat(moveService.getTranspositionTable().getHits()).isPositive();
+        assertThat(moveService.getTranspositionTable().getMisses()).isPositive();
+    }
+
+    @Test
+    public void testSelectMoveAlphaBetaSameScoreAsMinimax() {
+        // Random positions from the opening to the end game, some with checks and captures
+        Random random = new Random(11);
+        for (int plies: Arrays.asList(0, 8, 24, 40, 60)) {
+            Game game = new Game(new Human("test"), new Human("test2"));
+            for (int i = 0; i < plies; i++) {
+                if (!playRandomMove(game, random)) {
+                    break;
+                }
+            }
+            if (moveService.getGameState(game.getBoard(), game.getToPlay(), game.getHistory()) != GameState.IN_PROGRESS) {
+                continue;
+            }
+
+            BitBoard bitBoard = BitBoard.fromBoard(game.getBoard(), game.getToPlay(), game.getHistory());
+            long[] minimaxNodes = new long[1];
+            int minimaxScore = minimax(bitBoard, 2, minimaxNodes);
+
+            MoveAnalysis moveAnalysis = new MoveService().selectMoveAnalysis(game, 2, null,
+                    SearchSettings.DEFAULT.withQuiescenceNodes(0));
+            assertThat(moveAnalysis.getScore()).isEqualTo(minimaxScore);
+            assertThat(moveAnalysis.getNodes()).isPositive().isLessThan(minimaxNodes[0]);
+        }
+    }
+
+    @Test
+    public void testSelectMoveReturnsLastCompletedDepthWhenTimeIsOver() {
+        Game game = new Game(new Human("test"), new Human("test2"));
+        long start = System.nanoTime();
+        MoveAnalysis moveAnalysis = moveService.selectMoveAnalysis(game, 20, Duration.ofMillis(50));
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+        assertThat(moveService.computeAllMoves(game.getBoard(), Color.WHITE, true)
+                .stream().map(Move::getBasicNotation)).contains(moveAnalysis.getMove().getBasicNotation());
+
+        // Without time, only the first depth is searched
+        moveAnalysis = moveService.selectMoveAnalysis(game, 20, Duration.ZERO);
+        assertThat(moveAnalysis.getMove()).isNotNull();
+        assertThat(moveAnalysis.getNodes()).isEqualTo(20);
+    }
+
+    @Test
+    public void testSelectMoveFromPosition() {
+        Game game = new Game(new Human("test"), new Human("test2"), "4k3/8/8/8/8/8/8/R3K3 w Q - 5 40");
+        Move move = new Move(Rook.WHITE, 0, 0, 0, 6);
+        game.getBoard().doMove(move);
+        game.addMoveToHistory(move);
+        game.setToPlay(Color.BLACK);
+        // The moves are played from the position, which keeps the moves count
+        assertThat(MoveService.toBitBoard(game).toFen()).isEqualTo("4k3/R7/8/8/8/8/8/4K3 b - - 6 40");
+
+        MoveAnalysis moveAnalysis = moveService.selectMoveAnalysis(game, 2, null);
+        assertThat(moveAnalysis.getMove().getPiece()).isEqualTo(King.BLACK);
+    }
+
+    @Test
+    public void testSelectMoveStopsWhenNodesBudgetIsReached() {
+        Game game = new Game(new Human("test"), new Human("test2"));
+        MoveAnalysis moveAnalysis = moveService.selectMoveAnalysis(game, 20, null,
+                SearchSettings.DEFAULT.withMaxNodes(10_000));
+        assertThat(moveService.computeAllMoves(game.getBoard(), Color.WHITE, true)
+                .stream().map(Move::getBasicNotation)).contains(moveAnalysis.getMove().getBasicNotation());
+        // The budget is checked every so many nodes only
+        assertThat(moveAnalysis.getNodes()).isLessThanOrEqualTo(10_000 + 1024);
+    }
+
+    @Test
+    public void testSelectMoveRootSplitStopsWhenNodesBudgetIsReached() {
+        Game game = new Game(new Human("test"), new Human("test2"));
+        MoveAnalysis moveAnalysis = moveService.selectMoveAnalysis(game, 20, null,
+                SearchSettings.DEFAULT.withMaxNodes(10_000).withRootSplit(true));
+        assertThat(moveAnalysis.getMove()).isNotNull();
+        // The tasks count their nodes together, each one may go over the budget until its next check
+        assertThat(moveAnalysis.getNodes()).isLessThanOrEqualTo(10_000 + 20 * 1024);
+    }
+
+    @Test
+    public void testSelectMoveUsesEvaluationCache() {
+        Game game = new Game(new Human("test"), new Human("test2"));
+        MoveService cachingMoveService = new MoveService();
+        MoveAnalysis moveAnalysis = cachingMoveService.selectMoveAnalysis(game, 3, null);
+        EvaluationCache evaluationCache = cachingMoveService.getEvaluationCache();
+        assertThat(evaluationCache.getHits()).isPositive();
+
+        // The cached scores are the ones that would be evaluated again, most of the leaves of the second search are found
+        cachingMoveService.getTranspositionTable().clear();
+        long hits = evaluationCache.getHits();
+        long misses = evaluationCache.getMisses();
+        assertThat(cachingMoveService.selectMoveAnalysis(game, 3, null).getScore()).isEqualTo(moveAnalysis.getScore());
+        assertThat(evaluationCache.getHits() - hits).isGreaterThan(evaluationCache.getMisses() - misses);
+    }
+
+    @Test
+    public void testSelectMoveAnalysisPrincipalVariation() {
+        Random random = new Random(3);
+        Game game = new Game(new Human("test"), new Human("test2"));
+        for (int i = 0; i < 20; i++) {
+            if (i % 5 == 0) {
+                MoveAnalysis moveAnalysis = new MoveService().selectMoveAnalysis(game, 3, null);
+                List<Move> principalVariation = moveAnalysis.getPrincipalVariation();
+                assertThat(principalVariation).hasSizeGreaterThan(1).hasSizeLessThanOrEqualTo(4);
+                assertThat(moveAnalysis.getNextProbableMove().getScore()).isEqualTo(-moveAnalysis.getScore());
+
+                // Each move of the variation can be played after the previous ones
+                Board board = game.getBoard().copy();
+                Color color = game.getToPlay();
+                for (Move move : principalVariation) {
+                    assertThat(moveService.computeAllMoves(board, color, true)).contains(move);
+                    board.doMove(move);
+                    color = swap(color);
+                }
+            }
+            playRandomMove(game, random);
+        }
+    }
+
+    @Test
+    public void testSelectMoveSelectiveSearchFewerNodes() {
+        SearchSettings selectiveSettings = SearchSettings.DEFAULT.withNullMoveReduction(2).withLateMoveReduction(1, 3);
+        Random random = new Random(7);
+        Game game = new Game(new Human("test"), new Human("test2"));
+        long nodes = 0;
+        long selectiveNodes = 0;
+        for (int i = 0; i < 30; i++) {
+            if (i % 10 == 9) {
+                nodes += new MoveService().selectMoveAnalysis(game, 4, null, SearchSettings.DEFAULT).getNodes();
+                selectiveNodes += new MoveService().selectMoveAnalysis(game, 4, null, selectiveSettings).getNodes();
+            }
+            playRandomMove(game, random);
+        }
+        assertThat(selectiveNodes).isPositive().isLessThan(nodes);
+    }
+
+    @Test
+    public void testSelectMoveParallelSameScoreAsSingleThread() {
+        Game game = new Game(new Human("test"), new Human("test2"));
+        MoveAnalysis singleThread = new MoveService().selectMoveAnalysis(game, 3, null, SearchSettings.DEFAULT);
+        MoveAnalysis parallel = new MoveService().selectMoveAnalysis(game, 3, null,
+                SearchSettings.DEFAULT.withThreads(4));
+        // Helper threads only share what they found through the transposition table, the result stays the same
+        assertThat(parallel.getScore()).isEqualTo(singleThread.getScore());
+        assertThat(parallel.getNodes()).isPositive();
+    }
+
+    @Test
+    public void testSelectMoveRootSplitSameScoreAsSequential() {
+        ForkJoinPool rootPool = new ForkJoinPool(4);
+        try {
+            MoveService rootSplitMoveService = new MoveService(rootPool);
+            Random random = new Random(5);
+            Game game = new Game(new Human("test"), new Human("test2"));
+            for (int i = 0; i < 30; i++) {
+                if (i % 10 == 0) {
+                    MoveAnalysis sequential = new MoveService().selectMoveAnalysis(game, 3, null);
+                    MoveAnalysis rootSplit = rootSplitMoveService.selectMoveAnalysis(game, 3, null,
+                            SearchSettings.DEFAULT.withRootSplit(true));
+                    assertThat(rootSplit.getScore()).isEqualTo(sequential.getScore());
+                    assertThat(rootSplit.getNodes()).isPositive();
+                }
+                playRandomMove(game, random);
+            }
+        } finally {
+            rootPool.shutdown();
+        }
+    }
+
+    // Plays one of the legal moves at random, if there is any
+    private boolean playRandomMove(Game game, Random random) {
+        if (!moveService.canMove(game.getBoard(), game.getToPlay())) {
+            return false;
+        }
+        Move move = new RandomBot(moveService, random).selectMove(game);
+        game.getBoard().doMove(move);
+        game.addMoveToHistory(move);
+        game.setToPlay(swap(game.getToPlay()));
+        return true;
+    }
+
+    // Full minimax, as the search was before alpha-beta pruning
+    private int minimax(BitBoard bitBoard, int depth, long[] nodes) {
+        Color color = bitBoard.getToPlay();
+        int[] moves = new int[256];
+        int movesCount = moveService.computeAllMoves(bitBoard, moves);
+        int bestScore = Integer.MIN_VALUE;
+        for (int i = 0; i < movesCount; i++) {
+            bitBoard.doMove(moves[i]);
+            if (!moveService.isInCheck(bitBoard, color)) {
+                nodes[0]++;
+                GameState gameState = moveService.getGameState(bitBoard);
+                int score = moveService.evaluateBoard(bitBoard, color, color, gameState);
+                if (score < MoveService.BEST && depth >= 1 && gameState.isInProgress()) {
+                    score = -minimax(bitBoard, depth - 1, nodes);
+                }
+                bestScore = Math.max(bestScore, score);
+            }
+            bitBoard.undoMove(moves[i]);
+        }
+        return bestScore;
+    }
+
     @Test
     public void testIsDrawAcceptableWithInitialPositionsDeclinedForPenalty() {
         // given
@@ -1340,6 +1628,243 @@ public class MoveServiceTest {
         assertThat(isAcceptable).isFalse();
     }
 
+    @Test
+    public void testBitBoardSameMovesAndEvaluationAsBoard() {
+        // Play random games and compare the bitboard computations with the board ones after each move
+        Random random = new Random(7);
+        for (int game = 0; game < 5; game++) {
+            Board board = new Game(new Human("test"), new Human("test2")).getBoard();
+            List<Move> history = new ArrayList<>();
+            Color color = Color.WHITE;
+            for (int i = 0; i < 150; i++) {
+                BitBoard bitBoard = BitBoard.fromBoard(board, color, history);
+                List<Move> moves = moveService.computeAllMoves(board, color, true);
+                assertThat(getLegalMovesNotations(bitBoard)).containsExactlyInAnyOrderElementsOf(
+                        moves.stream().map(Move::getBasicNotation).collect(Collectors.toList()));
+                assertThat(getLegalMovesNotations(bitBoard, true)).containsExactlyInAnyOrderElementsOf(
+                        moves.stream().filter(Move::isTaking).map(Move::getBasicNotation).collect(Collectors.toList()));
+                assertThat(moveService.isInCheck(bitBoard, color)).isEqualTo(moveService.isInCheck(board, color));
+                assertThat(moveService.getGameState(bitBoard))
+                        .isEqualTo(moveService.getGameState(board, color, history));
+                Position myKing = moveService.findKingPosition(board, color).get();
+                Position opponentKing = moveService.findKingPosition(board, swap(color)).get();
+                assertThat(moveService.getHeatScore(bitBoard, color))
+                        .isEqualTo(moveService.getHeatScore(board, color, opponentKing, myKing, history));
+                assertThat(moveService.getDevelopmentScore(bitBoard, color))
+                        .isEqualTo(moveService.getDevelopmentScore(color, history));
+                assertThat(moveService.evaluateBoard(bitBoard, color, color, GameState.IN_PROGRESS))
+                        .isEqualTo(moveService.evaluateBoard(board, color, color, GameState.IN_PROGRESS, opponentKing,
+                                myKing, history));
+                if (moves.isEmpty()) {
+                    break;
+                }
+                Move move = moves.get(random.nextInt(moves.size()));
+                board.doMove(move);
+                history.add(move);
+                color = swap(color);
+            }
+        }
+    }
+
+    @Test
+    public void testIncrementalEvaluationSameAsFromScratch() {
+        // A single bitboard follows random games, with moves tried and undone on the way as in the search, and is
+        // evaluated like a board rebuilt from scratch after each move
+        Random random = new Random(12);
+        for (int game = 0; game < 5; game++) {
+            Board board = new Game(new Human("test"), new Human("test2")).getBoard();
+            List<Move> history = new ArrayList<>();
+            BitBoard bitBoard = BitBoard.fromBoard(board, Color.WHITE, history);
+            Color color = Color.WHITE;
+            for (int i = 0; i < 150; i++) {
+                int[] moves = new int[256];
+                int movesCount = moveService.computeAllMoves(bitBoard, moves);
+                for (int j = 0; j < movesCount; j++) {
+                    bitBoard.doMove(moves[j]);
+                    int[] replies = new int[256];
+                    int repliesCount = moveService.computeAllMoves(bitBoard, replies);
+                    if (repliesCount > 0) {
+                        int reply = replies[random.nextInt(repliesCount)];
+                        bitBoard.doMove(reply);
+                        bitBoard.undoMove(reply);
+                    }
+                    bitBoard.undoMove(moves[j]);
+                }
+
+                BitBoard fromScratch = BitBoard.fromBoard(board, color, history);
+                Position myKing = moveService.findKingPosition(board, color).get();
+                Position opponentKing = moveService.findKingPosition(board, swap(color)).get();
+                for (Color evaluated : Color.values()) {
+                    assertThat(bitBoard.getMaterial(evaluated))
+                            .isEqualTo(moveService.getPiecesValueSum(board, evaluated));
+                }
+                assertThat(moveService.evaluateBoard(bitBoard, color, color, GameState.IN_PROGRESS))
+                        .isEqualTo(moveService.evaluateBoard(board, color, color, GameState.IN_PROGRESS, opponentKing,
+                                myKing, history));
+                assertThat(moveService.getSearchKey(bitBoard)).isEqualTo(moveService.getSearchKey(fromScratch));
+
+                List<Move> legalMoves = moveService.computeAllMoves(board, color, true);
+                if (legalMoves.isEmpty()) {
+                    break;
+                }
+                Move move = legalMoves.get(random.nextInt(legalMoves.size()));
+                bitBoard.doMove(move);
+                board.doMove(move);
+                history.add(move);
+                color = swap(color);
+            }
+        }
+    }
+
+    @Test
+    public void testHeatScoreSameAsWithHeatmapsAroundLocation() {
+        // The heatmaps by square must give the same scores as the ones built around each location
+        Random random = new Random(13);
+        for (int game = 0; game < 3; game++) {
+            Board board = new Game(new Human("test"), new Human("test2")).getBoard();
+            List<Move> history = new ArrayList<>();
+            Color color = Color.WHITE;
+            for (int i = 0; i < 100; i++) {
+                List<Move> moves = moveService.computeAllMoves(board, color, true);
+                if (moves.isEmpty()) {
+                    break;
+                }
+                Position myKing = moveService.findKingPosition(board, color).get();
+                Position opponentKing = moveService.findKingPosition(board, swap(color)).get();
+                int expected = getHeat(board, color, opponentKing, history)
+                        - getHeat(board, swap(color), myKing, history);
+                assertThat(moveService.getHeatScore(board, color, opponentKing, myKing, history)).isEqualTo(expected);
+                assertThat(moveService.getHeatScore(BitBoard.fromBoard(board, color, history), color))
+                        .isEqualTo(expected);
+                Move move = moves.get(random.nextInt(moves.size()));
+                board.doMove(move);
+                history.add(move);
+                color = swap(color);
+            }
+        }
+    }
+
+    @Test
+    public void testComputeMovesPinnedPiece() {
+        Board board = new Board("" +
+                "        ♚       \n" +
+                "                \n" +
+                "        ♜       \n" +
+                "                \n" +
+                "              ♝ \n" +
+                "                \n" +
+                "        ♖ ♘     \n" +
+                "        ♔       \n"
+        );
+        // The rook may only move along the file, the knight not at all
+        Piece rook = board.getPiece(4, 1).get();
+        assertThat(moveService.computeMoves(board, rook, 4, 1, true, false))
+                .extracting(Move::getToX).containsOnly(4);
+        assertThat(moveService.computeMoves(board, rook, 4, 1, true, false)).hasSize(4);
+        Piece knight = board.getPiece(5, 1).get();
+        assertThat(moveService.computeMoves(board, knight, 5, 1, true, false)).isEmpty();
+    }
+
+    @Test
+    public void testComputeMovesInCheck() {
+        Board board = new Board("" +
+                "        ♚       \n" +
+                "                \n" +
+                "                \n" +
+                "♝               \n" +
+                "                \n" +
+                "  ♘         ♖   \n" +
+                "                \n" +
+                "        ♔       \n"
+        );
+        // The check is either stopped by taking the bishop or by blocking its diagonal, or the king moves away
+        assertThat(moveService.computeAllMoves(board, Color.WHITE, true)).extracting(Move::getBasicNotation)
+                .containsExactlyInAnyOrder("b3xa5", "b3-d2", "g3-c3", "e1-d1", "e1-e2", "e1-f2", "e1-f1");
+    }
+
+    @Test
+    public void testComputeAllMovesSameAsPlayedAndTested() {
+        // The legal moves found with the checks and pins masks are the pseudo-legal ones which do not leave the king
+        // in check once played
+        for (PerftPosition position : PerftPosition.values()) {
+            BitBoard bitBoard = position.toBitBoard();
+            assertLegalMovesSameAsPlayedAndTested(bitBoard.toBoard(), bitBoard.getToPlay(), 2);
+        }
+    }
+
+    @Test
+    public void testComputeAllMovesBitBoardSameAsBoard() {
+        // The bitboard moves are found with the same checks and pins masks as the board ones
+        for (PerftPosition position : PerftPosition.values()) {
+            assertBitBoardMovesSameAsBoard(position.toBitBoard(), 2);
+        }
+    }
+
+    private void assertBitBoardMovesSameAsBoard(BitBoard bitBoard, int depth) {
+        List<String> expectedNotations = moveService.computeAllMoves(bitBoard.toBoard(), bitBoard.getToPlay(), true)
+                .stream().map(Move::getBasicNotation).collect(Collectors.toList());
+        assertThat(getLegalMovesNotations(bitBoard)).containsExactlyInAnyOrderElementsOf(expectedNotations);
+        if (depth > 1) {
+            int[] moves = new int[256];
+            int movesCount = moveService.computeAllMoves(bitBoard, moves);
+            for (int i = 0; i < movesCount; i++) {
+                bitBoard.doMove(moves[i]);
+                assertBitBoardMovesSameAsBoard(bitBoard, depth - 1);
+                bitBoard.undoMove(moves[i]);
+            }
+        }
+    }
+
+    private void assertLegalMovesSameAsPlayedAndTested(Board board, Color color, int depth) {
+        List<Move> expectedMoves = new ArrayList<>();
+        for (Move move : moveService.computeAllMoves(board, color, false)) {
+            board.doMove(move);
+            if (moveService.isValidSituation(board, color)) {
+                move.setChecking(moveService.isInCheck(board, swap(color)));
+                expectedMoves.add(move);
+            }
+            board.undoMove(move);
+        }
+        List<Move> moves = moveService.computeAllMoves(board, color, true);
+        assertThat(moves).containsExactlyInAnyOrderElementsOf(expectedMoves);
+        if (depth > 1) {
+            for (Move move : moves) {
+                board.doMove(move);
+                assertLegalMovesSameAsPlayedAndTested(board, swap(color), depth - 1);
+                board.undoMove(move);
+            }
+        }
+    }
+
+    private int getHeat(Board board, Color color, Position opponentKing, List<Move> history) {
+        int[][] heatmapCenter = MoveService.generateCenteredHeatmap();
+        int[][] heatmapOpponentKing = MoveService.getHeatmapAroundLocation(opponentKing.getX(), opponentKing.getY());
+        int attackingRate = history.size() < MoveService.MID_GAME_MOVES_COUNT ? 0 : 1;
+        return moveService.computeAllMoves(board, color, false, true).stream()
+                .mapToInt(m -> heatmapCenter[m.getToX()][m.getToY()]
+                        + attackingRate * heatmapOpponentKing[m.getToX()][m.getToY()])
+                .sum();
+    }
+
+    private List<String> getLegalMovesNotations(BitBoard bitBoard) {
+        return getLegalMovesNotations(bitBoard, false);
+    }
+
+    private List<String> getLegalMovesNotations(BitBoard bitBoard, boolean takingMovesOnly) {
+        Color color = bitBoard.getToPlay();
+        int[] moves = new int[256];
+        int movesCount = moveService.computeAllMoves(bitBoard, moves, takingMovesOnly);
+        List<String> notations = new ArrayList<>();
+        for (int i = 0; i < movesCount; i++) {
+            Move move = bitBoard.toMove(moves[i]);
+            bitBoard.doMove(moves[i]);
+            move.setChecking(moveService.isInCheck(bitBoard, swap(color)));
+            notations.add(move.getBasicNotation());
+            bitBoard.undoMove(moves[i]);
+        }
+        return notations;
+    }
+
     private Move getMoveWithTookPiece(Piece piece, int fromX, int fromY, int toX, int toY, Piece tookPiece) {
         Move move = new Move(piece, fromX, fromY, toX, toY);
         move.setTookPiece(tookPiece);
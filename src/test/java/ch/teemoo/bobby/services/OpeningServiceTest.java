@@ -9,7 +9,6 @@ import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
 
-import ch.teemoo.bobby.models.Color;
 import ch.teemoo.bobby.models.moves.Move;
 import ch.teemoo.bobby.models.pieces.Pawn;
 import org.junit.Before;
@@ -63,7 +62,7 @@ public class OpeningServiceTest {
 	@Test
 	public void testFindPossibleMovesForHistory() {
 		// given
-		List<Move> history = Arrays.asList(new Move(new Pawn(Color.WHITE), 4, 1, 4, 3));
+		List<Move> history = Arrays.asList(new Move(Pawn.WHITE, 4, 1, 4, 3));
 
 		// when
 		List<Move> moves = openingService.findPossibleMovesForHistory(history);
@@ -75,7 +74,7 @@ public class OpeningServiceTest {
 	@Test
 	public void testFindPossibleMovesForHistoryEmpty() {
 		// given
-		List<Move> history = Arrays.asList(new Move(new Pawn(Color.WHITE), 0, 1, 0, 3));
+		List<Move> history = Arrays.asList(new Move(Pawn.WHITE, 0, 1, 0, 3));
 
 		// when
 		List<Move> moves = openingService.findPossibleMovesForHistory(history);
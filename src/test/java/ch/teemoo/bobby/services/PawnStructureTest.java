@@ -0,0 +1,53 @@
+package ch.teemoo.bobby.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.teemoo.bobby.models.BitBoard;
+import ch.teemoo.bobby.models.Color;
+import org.junit.Test;
+
+public class PawnStructureTest {
+    private final PawnStructure pawnStructure = new PawnStructure(PawnStructure.DEFAULT_TABLE_SIZE_MB);
+
+    @Test
+    public void testInitialPosition() {
+        BitBoard bitBoard = BitBoard.fromFen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
+        assertThat(pawnStructure.evaluate(bitBoard, Color.WHITE)).isZero();
+        assertThat(pawnStructure.evaluate(bitBoard, Color.BLACK)).isZero();
+    }
+
+    @Test
+    public void testDoubledAndIsolatedPawns() {
+        // White has doubled isolated pawns on the c file, black has two pawns side by side, none of them passed
+        BitBoard bitBoard = BitBoard.fromFen("4k3/8/1pp5/8/2P5/2P5/8/4K3 w - - 0 1");
+        int expected = PawnStructure.DOUBLED_PAWN_PENALTY + 2 * PawnStructure.ISOLATED_PAWN_PENALTY;
+        assertThat(pawnStructure.evaluate(bitBoard, Color.WHITE)).isEqualTo(expected);
+        assertThat(pawnStructure.evaluate(bitBoard, Color.BLACK)).isEqualTo(-expected);
+    }
+
+    @Test
+    public void testPassedPawns() {
+        // The white pawn on e6 cannot be stopped by the black pawn on a7, which is not passed either, as the white pawn
+        // on b2 stands in front of it. Both white pawns are isolated, as is the black one.
+        BitBoard bitBoard = BitBoard.fromFen("4k3/p7/4P3/8/8/8/1P6/4K3 w - - 0 1");
+        int expected = PawnStructure.PASSED_PAWN_BONUSES[5] + 2 * PawnStructure.ISOLATED_PAWN_PENALTY
+                - PawnStructure.ISOLATED_PAWN_PENALTY;
+        assertThat(pawnStructure.evaluate(bitBoard, Color.WHITE)).isEqualTo(expected);
+
+        // Only the front pawn of doubled passed pawns counts
+        bitBoard = BitBoard.fromFen("4k3/8/8/8/8/3p4/3p4/4K3 w - - 0 1");
+        expected = PawnStructure.DOUBLED_PAWN_PENALTY + 2 * PawnStructure.ISOLATED_PAWN_PENALTY
+                + PawnStructure.PASSED_PAWN_BONUSES[6];
+        assertThat(pawnStructure.evaluate(bitBoard, Color.BLACK)).isEqualTo(expected);
+    }
+
+    @Test
+    public void testScoreIsReusedForSamePawns() {
+        pawnStructure.evaluate(BitBoard.fromFen("4k3/pp6/8/8/8/8/PP6/4K3 w - - 0 1"), Color.WHITE);
+        assertThat(pawnStructure.getTable().getHits()).isZero();
+
+        // Other pieces, same pawns
+        pawnStructure.evaluate(BitBoard.fromFen("r3k3/pp6/8/8/8/8/PP6/4K2R b - - 0 1"), Color.BLACK);
+        assertThat(pawnStructure.getTable().getHits()).isEqualTo(1);
+    }
+}
@@ -4,12 +4,12 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
-import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.util.List;
 
+import ch.teemoo.bobby.models.Board;
 import ch.teemoo.bobby.models.Color;
 import ch.teemoo.bobby.models.games.Game;
 import ch.teemoo.bobby.models.moves.Move;
@@ -47,7 +47,7 @@ public class UniversalChessInterfaceServiceTest {
 
 		// then
 		assertThat(move).isNotNull();
-		assertThat(move.equalsForPositions(new Move(new Knight(Color.WHITE), 6, 0, 5, 2))).isTrue();
+		assertThat(move.equalsForPositions(new Move(Knight.WHITE, 6, 0, 5, 2))).isTrue();
 		assertThat(move.getPiece()).isInstanceOf(Knight.class);
 		assertThat(move.getPiece().getColor()).isEqualTo(Color.WHITE);
 		assertThat(move.getUciNotation()).isEqualTo(uciMove);
@@ -58,10 +58,10 @@ public class UniversalChessInterfaceServiceTest {
 		// given
 		var uciMove = "a7a8q";
 		var game = new Game(new Human("a"), new Human("b"));
-		var promotionMove = new PromotionMove(new Move(new Pawn(Color.BLACK), 0, 6, 0, 7), new Queen(Color.BLACK));
+		var promotionMove = new PromotionMove(new Move(Pawn.WHITE, 0, 6, 0, 7), Queen.WHITE);
 		var moveServiceMock = mock(MoveService.class);
 		universalChessInterfaceService = new UniversalChessInterfaceService(moveServiceMock);
-		when(moveServiceMock.computeAllMoves(any(), any(), anyList(), anyBoolean())).thenReturn(List.of(promotionMove));
+		when(moveServiceMock.computeAllMoves(any(Board.class), any(), anyBoolean())).thenReturn(List.of(promotionMove));
 
 		// when
 		var move = universalChessInterfaceService.getMoveFromUciNotation(uciMove, game);
@@ -92,11 +92,11 @@ public class UniversalChessInterfaceServiceTest {
 		// given
 		var uciMove = "a1b1";
 		var game = new Game(new Human("a"), new Human("b"));
-		var move1 = new Move(new Rook(Color.WHITE), 0, 0, 1, 0);
-		var move2 = new Move(new Queen(Color.WHITE), 0, 0, 1, 0);
+		var move1 = new Move(Rook.WHITE, 0, 0, 1, 0);
+		var move2 = new Move(Queen.WHITE, 0, 0, 1, 0);
 		var moveServiceMock = mock(MoveService.class);
 		universalChessInterfaceService = new UniversalChessInterfaceService(moveServiceMock);
-		when(moveServiceMock.computeAllMoves(any(), any(), anyList(), anyBoolean())).thenReturn(List.of(move1, move2));
+		when(moveServiceMock.computeAllMoves(any(Board.class), any(), anyBoolean())).thenReturn(List.of(move1, move2));
 
 		// when
 		ThrowableAssert.ThrowingCallable callable =